@@ -10,7 +10,16 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 @EnableCaching
 
 public class CustoBaixoApplication {
+
+    // Tempo (segundos) que uma conexão ociosa fica no pool do java.net.http aguardando reuso. A
+    // propriedade vale para todos os HttpClient da JVM; para mudar, -Djdk.httpclient.keepalive.timeout=N
+    private static final String KEEP_ALIVE_PROPERTY = "jdk.httpclient.keepalive.timeout";
+    private static final String DEFAULT_KEEP_ALIVE_SECONDS = "300";
+
     public static void main(String[] args) {
+        if (System.getProperty(KEEP_ALIVE_PROPERTY) == null) {
+            System.setProperty(KEEP_ALIVE_PROPERTY, DEFAULT_KEEP_ALIVE_SECONDS);
+        }
         SpringApplication.run(CustoBaixoApplication.class, args);
     }
 }
\ No newline at end of file
@@ -0,0 +1,28 @@
+package org.custobaixo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "custobaixo.browser-pool")
+public class BrowserPoolProperties {
+
+    // Quantidade máxima de ChromeDrivers abertos ao mesmo tempo
+    private int maxSize = 2;
+
+    // Tempo máximo que uma busca espera por um navegador livre
+    private Duration acquireTimeout = Duration.ofSeconds(60);
+
+    // Páginas carregadas antes de o navegador ser substituído (limita vazamento de memória do Chrome)
+    private int maxPagesPerDriver = 50;
+
+    // Navegadores ociosos por mais tempo que isso são fechados
+    private Duration idleTimeout = Duration.ofMinutes(5);
+
+    // Validade máxima da sessão de um site (cookies da página inicial) em cada navegador
+    private Duration sessionTtl = Duration.ofMinutes(20);
+}
@@ -0,0 +1,28 @@
+package org.custobaixo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "custobaixo.engine-routing")
+public class EngineRoutingProperties {
+
+    // Peso do resultado mais recente na taxa de sucesso de cada motor (média móvel exponencial)
+    private double learningRate = 0.3;
+
+    // Depois desse tempo sem usar o Jsoup num site, a próxima busca testa o Jsoup de novo
+    private Duration reprobeInterval = Duration.ofMinutes(15);
+
+    // Latência assumida antes da primeira medição de cada motor
+    private Duration jsoupPriorLatency = Duration.ofSeconds(1);
+    private Duration seleniumPriorLatency = Duration.ofSeconds(10);
+
+    // Sites que começam no Selenium por bloquearem o Jsoup (ainda são testados periodicamente)
+    private List<String> seleniumFirstSites = new ArrayList<>(List.of("NETSHOES"));
+}
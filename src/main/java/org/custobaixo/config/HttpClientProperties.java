@@ -0,0 +1,22 @@
+package org.custobaixo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "custobaixo.http")
+public class HttpClientProperties {
+
+    // Tempo máximo para abrir a conexão (TCP + TLS)
+    private Duration connectTimeout = Duration.ofSeconds(10);
+
+    // Tentar HTTP/2 (com fallback automático para HTTP/1.1)
+    private boolean http2Enabled = true;
+
+    // Quantidade de URLs com ETag/Last-Modified guardados para revalidação
+    private int revalidationCacheSize = 5000;
+}
@@ -0,0 +1,19 @@
+package org.custobaixo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "custobaixo.persistence")
+public class PersistenceProperties {
+
+    // Quantidade de atualizações pendentes que dispara uma gravação imediata
+    private int batchSize = 200;
+
+    // Intervalo máximo que uma atualização fica no buffer antes de ser gravada
+    private Duration flushInterval = Duration.ofSeconds(2);
+}
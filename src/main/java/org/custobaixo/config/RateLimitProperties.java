@@ -0,0 +1,39 @@
+package org.custobaixo.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "custobaixo.rate-limit")
+public class RateLimitProperties {
+
+    // Limite padrão para domínios fora do mapa abaixo
+    private Budget defaultBudget = new Budget(1.0, 2);
+
+    // Requisições por segundo e rajada permitida por domínio (Jsoup e Selenium somados)
+    private Map<String, Budget> domains = new LinkedHashMap<>(Map.of(
+            "amazon.com.br", new Budget(0.5, 2),
+            "mercadolivre.com.br", new Budget(1.0, 3),
+            "kabum.com.br", new Budget(1.0, 2),
+            "netshoes.com.br", new Budget(0.5, 2)
+    ));
+
+    public Budget budgetFor(String domain) {
+        return domains.getOrDefault(domain, defaultBudget);
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Budget {
+        private double permitsPerSecond;
+        private int burst;
+    }
+}
@@ -0,0 +1,46 @@
+package org.custobaixo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "custobaixo.resource-blocking")
+public class ResourceBlockingProperties {
+
+    // Liga o bloqueio de recursos nas páginas abertas pelo Selenium
+    private boolean enabled = true;
+
+    // Tipos de recurso bloqueados: image, font, media, stylesheet
+    private List<String> blockedTypes = new ArrayList<>(List.of("image", "font", "media", "stylesheet"));
+
+    // Domínios de anúncios e analytics bloqueados em qualquer site
+    private List<String> blockedDomains = new ArrayList<>(List.of(
+            "google-analytics.com",
+            "googletagmanager.com",
+            "doubleclick.net",
+            "googlesyndication.com",
+            "googleadservices.com",
+            "connect.facebook.net",
+            "hotjar.com",
+            "clarity.ms",
+            "criteo.com",
+            "criteo.net",
+            "taboola.com",
+            "outbrain.com",
+            "bat.bing.com",
+            "analytics.tiktok.com"
+    ));
+
+    // Tipos liberados por site, para sites que quebram sem eles (ex.: NIKE=stylesheet)
+    private Map<String, List<String>> siteAllowedTypes = new HashMap<>();
+
+    // Sites em que nada é bloqueado
+    private List<String> disabledSites = new ArrayList<>();
+}
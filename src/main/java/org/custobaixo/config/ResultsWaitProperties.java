@@ -0,0 +1,31 @@
+package org.custobaixo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "custobaixo.results-wait")
+public class ResultsWaitProperties {
+
+    // Intervalo entre duas contagens de produtos na página
+    private Duration pollInterval = Duration.ofMillis(100);
+
+    // Tempo sem a contagem mudar para considerar a lista de resultados renderizada
+    private Duration quietWindow = Duration.ofMillis(500);
+
+    // Prazo máximo de espera para sites sem prazo próprio
+    private Duration defaultDeadline = Duration.ofSeconds(10);
+
+    // Prazo máximo por site (nome do site, ex.: MERCADO_LIVRE)
+    private Map<String, Duration> siteDeadlines = new HashMap<>(Map.of("MERCADO_LIVRE", Duration.ofSeconds(15)));
+
+    public Duration deadlineFor(String site) {
+        return siteDeadlines.getOrDefault(site, defaultDeadline);
+    }
+}
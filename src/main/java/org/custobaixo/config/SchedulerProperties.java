@@ -0,0 +1,45 @@
+package org.custobaixo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "custobaixo.scheduler")
+public class SchedulerProperties {
+
+    // Quantidade de produtos vencidos retirados da fila por lote
+    private int batchSize = 100;
+
+    // Máximo de lotes por execução do scheduler (evita rodadas sem fim)
+    private int maxBatchesPerRun = 50;
+
+    // Identificador desta instância nas reservas (padrão: pid@host)
+    private String nodeId = ManagementFactory.getRuntimeMXBean().getName();
+
+    // Validade da reserva de um lote; se a instância cair, o lote volta para a fila depois disso
+    private Duration leaseDuration = Duration.ofMinutes(10);
+
+    // Intervalo inicial de um produto novo
+    private Duration checkInterval = Duration.ofMinutes(3);
+
+    // Teto do intervalo de um produto crítico (passagens ou perto do preço alvo); nunca abaixo de minInterval
+    private Duration criticalInterval = Duration.ofMinutes(2);
+
+    // Distância relativa ao preço alvo (0.5 = 50%) abaixo da qual o intervalo encolhe proporcionalmente
+    private double nearTargetRange = 0.5;
+
+    // Limites do intervalo adaptativo
+    private Duration minInterval = Duration.ofMinutes(2);
+    private Duration maxInterval = Duration.ofHours(6);
+
+    // Multiplicador aplicado quando o preço não mudou desde a última verificação
+    private double stableGrowthFactor = 1.5;
+
+    // Multiplicador aplicado quando o preço mudou
+    private double changeShrinkFactor = 0.25;
+}
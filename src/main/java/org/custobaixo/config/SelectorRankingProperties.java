@@ -0,0 +1,23 @@
+package org.custobaixo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "custobaixo.selector-ranking")
+public class SelectorRankingProperties {
+
+    // Fração das extrações que testa primeiro um seletor fora da ordem aprendida
+    private double explorationRate = 0.05;
+
+    // Tentativas a partir das quais os contadores de um seletor são reduzidos à metade,
+    // para que uma mudança de layout pese mais que o histórico antigo
+    private long decayThreshold = 1000;
+
+    // Intervalo de gravação das estatísticas no banco
+    private Duration flushInterval = Duration.ofMinutes(1);
+}
@@ -0,0 +1,22 @@
+package org.custobaixo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "custobaixo.site-search")
+public class SiteSearchProperties {
+
+    // Buscas de site simultâneas, somando todas as requisições (threads do executor)
+    private int maxConcurrency = 6;
+
+    // Buscas aguardando thread livre; além disso o site é recusado e fica de fora do resultado
+    private int queueCapacity = 24;
+
+    // Prazo total de uma comparação ou monitoramento; sites que não respondem a tempo ficam de fora
+    private Duration deadline = Duration.ofSeconds(25);
+}
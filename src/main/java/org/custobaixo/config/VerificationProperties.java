@@ -0,0 +1,32 @@
+package org.custobaixo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "custobaixo.verification")
+public class VerificationProperties {
+
+    // Total de verificações simultâneas (threads do executor)
+    private int maxConcurrency = 8;
+
+    // Limite padrão por domínio quando o site não está no mapa abaixo
+    private int defaultDomainConcurrency = 2;
+
+    // Limite de verificações simultâneas por domínio
+    private Map<String, Integer> domainConcurrency = new LinkedHashMap<>(Map.of(
+            "amazon.com.br", 2,
+            "mercadolivre.com.br", 3,
+            "kabum.com.br", 2,
+            "netshoes.com.br", 1
+    ));
+
+    public int limitFor(String domain) {
+        return Math.max(1, domainConcurrency.getOrDefault(domain, defaultDomainConcurrency));
+    }
+}
@@ -5,7 +5,19 @@ import lombok.extern.slf4j.Slf4j;
 import org.custobaixo.dto.*;
 import org.custobaixo.entity.ProductCategory;
 import org.custobaixo.entity.ProductMonitor;
+import org.custobaixo.model.BulkCheckJob;
+import org.custobaixo.service.BrowserPool;
+import org.custobaixo.service.BulkCheckJobService;
+import org.custobaixo.service.DomainRateLimiter;
+import org.custobaixo.service.EngineRouter;
+import org.custobaixo.service.PageFetcher;
+import org.custobaixo.service.PriceExtractionStats;
+import org.custobaixo.service.PriceRevalidationCache;
+import org.custobaixo.service.PriceUpdateSink;
 import org.custobaixo.service.ProductMonitorService;
+import org.custobaixo.service.SelectorRanking;
+import org.custobaixo.service.SeleniumSearchStats;
+import org.custobaixo.service.SingleFlightRegistry;
 import org.custobaixo.service.SmartProductService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -27,6 +39,17 @@ public class ProductMonitorController {
 
     private final ProductMonitorService productService;
     private final SmartProductService smartProductService;
+    private final SingleFlightRegistry singleFlightRegistry;
+    private final PriceUpdateSink priceUpdateSink;
+    private final BulkCheckJobService bulkCheckJobService;
+    private final DomainRateLimiter rateLimiter;
+    private final PageFetcher pageFetcher;
+    private final PriceRevalidationCache revalidationCache;
+    private final PriceExtractionStats extractionStats;
+    private final SelectorRanking selectorRanking;
+    private final BrowserPool browserPool;
+    private final SeleniumSearchStats seleniumSearchStats;
+    private final EngineRouter engineRouter;
 
     //  ENDPOINTS CRUD
 
@@ -181,19 +204,41 @@ public class ProductMonitorController {
         });
     }
 
+    // Dispara a verificação em segundo plano e devolve o ID do job imediatamente
     @PostMapping("/check-all-prices")
     public ResponseEntity<BulkPriceCheckResponse> checkAllPrices() {
-        return executeWithLogging("Verificando preços de todos os produtos", () -> {
-            int totalProducts = productService.getAllActiveProducts().size();
-            productService.checkAllActivePrices();
-
-            BulkPriceCheckResponse response = buildBulkPriceCheckResponse(totalProducts);
+        return executeWithLogging("Iniciando verificação de preços de todos os produtos", () -> {
+            Optional<BulkCheckJob> startedJob = bulkCheckJobService.startFullSweep();
+
+            if (startedJob.isEmpty()) {
+                BulkCheckJob runningJob = bulkCheckJobService.getActiveJob().orElse(null);
+                log.warn("Verificação em massa já em andamento: {}", runningJob != null ? runningJob.getId() : "-");
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(buildBulkPriceCheckResponse(runningJob, "Já existe uma verificação de preços em andamento"));
+            }
 
-            log.info("Verificação de preços concluída para {} produtos", totalProducts);
-            return ResponseEntity.ok(response);
+            BulkCheckJob job = startedJob.get();
+            log.info("Verificação de preços iniciada - job {} com {} produtos", job.getId(), job.getTotalProducts());
+            return ResponseEntity.accepted().body(buildBulkPriceCheckResponse(job, "Verificação de preços iniciada"));
         });
     }
 
+    @GetMapping("/check-all-prices/{jobId}")
+    public ResponseEntity<BulkCheckJobStatusResponse> getCheckAllPricesStatus(@PathVariable String jobId) {
+        return executeWithLogging("Buscando status da verificação " + jobId, () ->
+                bulkCheckJobService.findJob(jobId)
+                        .map(job -> ResponseEntity.ok(bulkCheckJobService.toStatusResponse(job)))
+                        .orElse(ResponseEntity.notFound().build()));
+    }
+
+    @DeleteMapping("/check-all-prices/{jobId}")
+    public ResponseEntity<BulkCheckJobStatusResponse> cancelCheckAllPrices(@PathVariable String jobId) {
+        return executeWithLogging("Cancelando verificação " + jobId, () ->
+                bulkCheckJobService.cancelJob(jobId)
+                        .map(job -> ResponseEntity.ok(bulkCheckJobService.toStatusResponse(job)))
+                        .orElse(ResponseEntity.notFound().build()));
+    }
+
     // ENDPOINTS DE ESTATÍSTICAS
 
     @GetMapping("/target-reached")
@@ -214,6 +259,68 @@ public class ProductMonitorController {
         });
     }
 
+    // Verificações e downloads deduplicados (chamadas simultâneas que aguardaram outra em andamento)
+    @GetMapping("/stats/single-flight")
+    public ResponseEntity<SingleFlightStatsResponse> getSingleFlightStats() {
+        return executeWithLogging("Buscando estatísticas de deduplicação", () ->
+                ResponseEntity.ok(singleFlightRegistry.getStats()));
+    }
+
+    // Gravação em lote dos resultados (tamanho dos lotes e latência de cada gravação)
+    @GetMapping("/stats/persistence")
+    public ResponseEntity<PersistenceStatsResponse> getPersistenceStats() {
+        return executeWithLogging("Buscando estatísticas de gravação", () ->
+                ResponseEntity.ok(priceUpdateSink.getStats()));
+    }
+
+    @GetMapping("/stats/rate-limit")
+    public ResponseEntity<RateLimitStatsResponse> getRateLimitStats() {
+        return executeWithLogging("Buscando estatísticas do limite por domínio", () ->
+                ResponseEntity.ok(rateLimiter.getStats()));
+    }
+
+    @GetMapping("/stats/http")
+    public ResponseEntity<HttpFetchStatsResponse> getHttpFetchStats() {
+        return executeWithLogging("Buscando estatísticas de conexões HTTP", () ->
+                ResponseEntity.ok(pageFetcher.getStats()));
+    }
+
+    @GetMapping("/stats/revalidation")
+    public ResponseEntity<RevalidationStatsResponse> getRevalidationStats() {
+        return executeWithLogging("Buscando estatísticas de revalidação", () ->
+                ResponseEntity.ok(revalidationCache.getStats()));
+    }
+
+    @GetMapping("/stats/extraction")
+    public ResponseEntity<PriceExtractionStatsResponse> getExtractionStats() {
+        return executeWithLogging("Buscando estatísticas de extração de preço", () ->
+                ResponseEntity.ok(extractionStats.getStats()));
+    }
+
+    @GetMapping("/stats/selectors")
+    public ResponseEntity<SelectorRankingStatsResponse> getSelectorRankingStats() {
+        return executeWithLogging("Buscando ranking de seletores por site", () ->
+                ResponseEntity.ok(selectorRanking.getStats()));
+    }
+
+    @GetMapping("/stats/browser-pool")
+    public ResponseEntity<BrowserPoolStatsResponse> getBrowserPoolStats() {
+        return executeWithLogging("Buscando estatísticas do pool de navegadores", () ->
+                ResponseEntity.ok(browserPool.getStats()));
+    }
+
+    @GetMapping("/stats/selenium")
+    public ResponseEntity<SeleniumSearchStatsResponse> getSeleniumSearchStats() {
+        return executeWithLogging("Buscando latência das buscas Selenium por site", () ->
+                ResponseEntity.ok(seleniumSearchStats.getStats()));
+    }
+
+    @GetMapping("/stats/engine-routing")
+    public ResponseEntity<EngineRoutingStatsResponse> getEngineRoutingStats() {
+        return executeWithLogging("Buscando roteamento Jsoup/Selenium por site", () ->
+                ResponseEntity.ok(engineRouter.getStats()));
+    }
+
     //  ENDPOINTS DE HEALTH CHECK
 
     @GetMapping("/health")
@@ -358,11 +465,13 @@ public class ProductMonitorController {
                 .build();
     }
 
-    private BulkPriceCheckResponse buildBulkPriceCheckResponse(int totalProducts) {
+    private BulkPriceCheckResponse buildBulkPriceCheckResponse(BulkCheckJob job, String message) {
         return BulkPriceCheckResponse.builder()
-                .totalProducts(totalProducts)
+                .jobId(job != null ? job.getId() : null)
+                .status(job != null ? job.getStatus().name() : null)
+                .totalProducts(job != null ? job.getTotalProducts() : 0)
                 .checkedAt(LocalDateTime.now())
-                .message("Verificação de preços concluída")
+                .message(message)
                 .build();
     }
 
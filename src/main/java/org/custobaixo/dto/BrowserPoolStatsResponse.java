@@ -0,0 +1,28 @@
+package org.custobaixo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BrowserPoolStatsResponse {
+
+    private int maxSize;
+    private int openDrivers;
+    private int idleDrivers;
+    private int inUseDrivers;
+    private int waitingThreads;
+    private long acquisitions;
+    private long acquireTimeouts;
+    private double averageWaitMillis;
+    private long maxWaitMillis;
+    private long driversCreated;
+    private long driversRecycled; // Substituídos por atingir o limite de páginas
+    private long driversCrashed;  // Descartados por sessão morta ou erro do navegador
+    private long driversReaped;   // Fechados por ociosidade
+    private int maxPagesPerDriver;
+}
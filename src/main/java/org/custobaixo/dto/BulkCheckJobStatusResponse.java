@@ -0,0 +1,32 @@
+package org.custobaixo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkCheckJobStatusResponse {
+
+    private String jobId;
+    private String status; // "RUNNING", "COMPLETED", "CANCELLED", "FAILED"
+    private int totalProducts;
+    private int checkedCount;
+    private int errorCount;
+    private int targetReachedCount;
+    private int priceChangedCount;
+    private int fetchesSavedCount;
+    private int remainingCount;
+    private double progressPercent;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private long elapsedSeconds;
+    private Long estimatedSecondsRemaining;
+    private LocalDateTime estimatedCompletionAt;
+    private String message;
+}
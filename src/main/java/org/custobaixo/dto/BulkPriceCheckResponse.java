@@ -14,6 +14,8 @@ import java.time.LocalDateTime;
 
 public class BulkPriceCheckResponse {
 
+    private String jobId;
+    private String status;
     private int totalProducts;
     private LocalDateTime checkedAt;
     private String message;
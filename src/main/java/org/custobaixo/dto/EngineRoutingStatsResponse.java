@@ -0,0 +1,51 @@
+package org.custobaixo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EngineRoutingStatsResponse {
+
+    private long decisions;
+    private long reprobes;
+    private Map<String, SiteRouting> sites;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class SiteRouting {
+        private String preferredEngine;  // Motor que a próxima busca usaria
+        private String lastDecision;
+        private String lastReason;
+        private LocalDateTime lastDecisionAt;
+        private long jsoupDecisions;
+        private long seleniumDecisions;
+        private long reprobes;           // Buscas que voltaram a testar o Jsoup depois de um bloqueio
+        private EngineStats jsoup;
+        private EngineStats selenium;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class EngineStats {
+        private long attempts;
+        private long successes;
+        private long empty;
+        private long blocked;
+        private long errors;
+        private double successRate;        // Média móvel: resultados recentes pesam mais
+        private double averageLatencyMillis;
+        private double expectedCostMillis; // Latência dividida pela chance de sucesso
+    }
+}
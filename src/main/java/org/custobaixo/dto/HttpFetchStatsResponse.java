@@ -0,0 +1,22 @@
+package org.custobaixo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HttpFetchStatsResponse {
+
+    private long requests;
+    private long failedRequests;
+    private long http2Responses;
+    private long tlsHandshakes;
+    private long reusedConnections; // Respostas servidas por uma sessão TLS já aberta (conexão do pool)
+    private double connectionReuseRatio;
+    private long bytesReceived;
+    private long earlyClosedResponses; // Downloads encerrados assim que o preço foi encontrado
+}
@@ -0,0 +1,25 @@
+package org.custobaixo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PersistenceStatsResponse {
+
+    private int pendingUpdates;
+    private long flushCount;
+    private long failedFlushCount;
+    private long updatesWritten;
+    private long updatesCoalesced; // Atualizações substituídas por outra mais nova do mesmo produto antes da gravação
+    private int lastBatchSize;
+    private int maxBatchSize;
+    private double averageBatchSize;
+    private long lastFlushMillis;
+    private long maxFlushMillis;
+    private double averageFlushMillis;
+}
@@ -30,5 +30,7 @@ public class PriceComparisonResult {
     private List<SitePrice> allPrices;
     private String status; // "SUCCESS", "ERROR", "PARTIAL"
     private String message;
+    private List<SiteSearchTiming> siteTimings; // Tempo e situação de cada site consultado
+    private List<String> timedOutSites;         // Sites sem resposta no prazo (ou recusados com o pool cheio)
 }
 
@@ -0,0 +1,33 @@
+package org.custobaixo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PriceExtractionStatsResponse {
+
+    private long pages;
+    private long structuredHits;
+    private double structuredHitRate;
+    private Map<String, SiteStats> sites;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class SiteStats {
+        private long pages;
+        private long jsonLdHits;
+        private long microdataHits;
+        private long selectorHits;
+        private long misses;
+        private double structuredHitRate; // Páginas resolvidas por JSON-LD ou microdata, sem seletores CSS
+    }
+}
@@ -0,0 +1,34 @@
+package org.custobaixo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RateLimitStatsResponse {
+
+    private long totalAcquired;
+    private long totalDelayed;
+    private long totalWaitMillis;
+    private Map<String, DomainStats> domains;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class DomainStats {
+        private double permitsPerSecond;
+        private int burst;
+        private long acquired;
+        private long delayed; // Requisições que precisaram esperar pelo orçamento do domínio
+        private long totalWaitMillis;
+        private long maxWaitMillis;
+        private double averageWaitMillis;
+    }
+}
@@ -0,0 +1,35 @@
+package org.custobaixo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RevalidationStatsResponse {
+
+    private int cachedUrls;
+    private long lookups;
+    private long notModifiedHits;
+    private double hitRatio;
+    private long bytesSaved;
+    private Map<String, SiteStats> sites;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class SiteStats {
+        private long lookups;
+        private long conditionalRequests; // Requisições enviadas com If-None-Match / If-Modified-Since
+        private long notModifiedHits;
+        private double hitRatio;
+        private long bytesSaved; // Content-Length da última página baixada (ou os bytes lidos, sem o cabeçalho), economizado a cada 304
+        private long bytesDownloaded;
+    }
+}
@@ -0,0 +1,33 @@
+package org.custobaixo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SelectorRankingStatsResponse {
+
+    private int trackedSelectors;
+    private double explorationRate;
+    private long explorations;
+    private int pendingWrites;
+    private Map<String, List<SelectorStats>> sites; // Seletores de cada site na ordem em que são tentados
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class SelectorStats {
+        private String selector;
+        private long hits;
+        private long attempts;
+        private double hitRate;
+    }
+}
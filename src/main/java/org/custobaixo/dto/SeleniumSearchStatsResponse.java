@@ -0,0 +1,49 @@
+package org.custobaixo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SeleniumSearchStatsResponse {
+
+    private long searches;
+    private long warmSearches;
+    private long coldSearches;
+    private double warmRate; // Buscas que dispensaram a visita à página inicial
+    private Map<String, SiteStats> sites;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class SiteStats {
+        private long warmSearches;
+        private long coldSearches;
+        private double averageWarmMillis;
+        private double averageColdMillis;
+        private double averageResultsWaitMillis; // Da navegação até a contagem de produtos estabilizar
+        private long waitDeadlinesHit;
+        private long extractions;
+        private double averageExtractionMillis; // Leitura dos cards de uma página de resultados
+        private double averageCardsPerPage;
+        private PageLoadStats blockedPageLoads;   // Com imagens, fontes, CSS e rastreadores bloqueados
+        private PageLoadStats unblockedPageLoads;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class PageLoadStats {
+        private long pages;
+        private double averageLoadMillis;
+        private double averageBytes; // Transferidos segundo a Resource Timing API do navegador
+    }
+}
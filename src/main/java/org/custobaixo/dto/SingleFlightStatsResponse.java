@@ -0,0 +1,20 @@
+package org.custobaixo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SingleFlightStatsResponse {
+
+    private long productChecksExecuted;
+    private long productChecksCoalesced;
+    private int productChecksInFlight;
+    private long priceFetchesExecuted;
+    private long priceFetchesCoalesced;
+    private int priceFetchesInFlight;
+}
@@ -0,0 +1,18 @@
+package org.custobaixo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SiteSearchTiming {
+
+    private String siteName;
+    private String status; // "FOUND", "EMPTY", "ERROR", "TIMEOUT", "REJECTED"
+    private long durationMillis;
+    private int productsFound;
+}
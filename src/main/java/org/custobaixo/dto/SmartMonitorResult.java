@@ -29,7 +29,9 @@ public class SmartMonitorResult {
     private BigDecimal savings;
     private BigDecimal savingsPercentage;
     private List<SitePrice> allPrices;
-    private String status; // "MONITORING", "TARGET_REACHED", "ERROR"
+    private String status; // "MONITORING", "TARGET_REACHED", "ERROR", "PARTIAL"
     private String message;
+    private List<SiteSearchTiming> siteTimings; // Tempo e situação de cada site consultado
+    private List<String> timedOutSites;         // Sites sem resposta no prazo (ou recusados com o pool cheio)
 }
 
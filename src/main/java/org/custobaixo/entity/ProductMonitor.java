@@ -16,7 +16,9 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "product_monitor")
+@Table(name = "product_monitor", indexes = {
+        @Index(name = "idx_product_monitor_due", columnList = "is_active, next_check_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -76,6 +78,21 @@ public class ProductMonitor {
     @Column(name = "last_checked")
     private LocalDateTime lastChecked;
 
+    @Column(name = "next_check_at")
+    private LocalDateTime nextCheckAt;
+
+    // Instância que reservou o produto para verificação e até quando a reserva vale.
+    // Reservas de instâncias que caíram expiram sozinhas e o produto volta para a fila.
+    @Column(name = "lease_owner", length = 100)
+    private String leaseOwner;
+
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt;
+
+    // Intervalo adaptativo atual, ajustado conforme a volatilidade do preço
+    @Column(name = "check_interval_seconds")
+    private Long checkIntervalSeconds;
+
     @Column(name = "notification_sent")
     private Boolean notificationSent;
 }
\ No newline at end of file
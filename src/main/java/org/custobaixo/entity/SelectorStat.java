@@ -0,0 +1,42 @@
+package org.custobaixo.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+// Histórico de acertos de um seletor em um site, usado para ordenar as cascatas de extração
+@Entity
+@Table(name = "selector_stat", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_selector_stat_site_selector", columnNames = {"site_name", "selector"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SelectorStat {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "site_name", length = 100, nullable = false)
+    private String siteName;
+
+    @Column(name = "selector", length = 255, nullable = false)
+    private String selector;
+
+    @Column(name = "hits", nullable = false)
+    private long hits;
+
+    @Column(name = "attempts", nullable = false)
+    private long attempts;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
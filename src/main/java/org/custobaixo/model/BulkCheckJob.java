@@ -0,0 +1,87 @@
+package org.custobaixo.model;
+
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Estado de uma verificação em massa executada em segundo plano.
+// Os contadores são atualizados pelas threads do motor de verificação.
+@Getter
+public class BulkCheckJob {
+
+    public enum Status { RUNNING, COMPLETED, CANCELLED, FAILED }
+
+    private final String id = UUID.randomUUID().toString();
+    private final int totalProducts;
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private volatile LocalDateTime finishedAt;
+    private volatile Status status = Status.RUNNING;
+    private volatile boolean cancelRequested;
+    private volatile String errorMessage;
+
+    private final AtomicInteger checkedCount = new AtomicInteger();
+    private final AtomicInteger errorCount = new AtomicInteger();
+    private final AtomicInteger targetReachedCount = new AtomicInteger();
+    private final AtomicInteger priceChangedCount = new AtomicInteger();
+    private final AtomicInteger fetchesSavedCount = new AtomicInteger();
+
+    public BulkCheckJob(int totalProducts) {
+        this.totalProducts = totalProducts;
+    }
+
+    public void record(VerificationResult result) {
+        checkedCount.addAndGet(result.getSuccessCount());
+        errorCount.addAndGet(result.getErrorCount());
+        targetReachedCount.addAndGet(result.getTargetReachedCount());
+        priceChangedCount.addAndGet(result.getPriceChangedCount());
+        fetchesSavedCount.addAndGet(result.getFetchesSavedCount());
+    }
+
+    public void requestCancel() {
+        cancelRequested = true;
+    }
+
+    public void complete() {
+        finish(cancelRequested ? Status.CANCELLED : Status.COMPLETED);
+    }
+
+    public void fail(String message) {
+        this.errorMessage = message;
+        finish(Status.FAILED);
+    }
+
+    private void finish(Status finalStatus) {
+        this.finishedAt = LocalDateTime.now();
+        this.status = finalStatus;
+    }
+
+    // PROGRESSO
+
+    public boolean isRunning() {
+        return status == Status.RUNNING;
+    }
+
+    public int getProcessedCount() {
+        return checkedCount.get() + errorCount.get();
+    }
+
+    public int getRemainingCount() {
+        return Math.max(0, totalProducts - getProcessedCount());
+    }
+
+    public Duration getElapsed() {
+        return Duration.between(startedAt, finishedAt != null ? finishedAt : LocalDateTime.now());
+    }
+
+    // Estimativa pelo ritmo médio até agora; nula enquanto nada foi processado
+    public Duration getEstimatedRemaining() {
+        int processed = getProcessedCount();
+        if (!isRunning() || processed == 0) {
+            return null;
+        }
+        return getElapsed().multipliedBy(getRemainingCount()).dividedBy(processed);
+    }
+}
@@ -0,0 +1,16 @@
+package org.custobaixo.model;
+
+import java.util.List;
+
+// Plano de extração executado dentro do navegador: seletores de card, nome, preço e link de uma
+// página de resultados. Dentro de cada card vale o primeiro seletor que produz um valor aceitável.
+public record DomExtractionPlan(
+        List<String> cardSelectors,
+        List<String> nameSelectors,
+        List<String> priceSelectors,
+        List<String> urlSelectors,
+        List<String> urlMustContain, // vazio aceita qualquer href
+        int maxCards,
+        int minNameLength,
+        boolean priceTextFallback) { // sem seletor de preço, usa o primeiro texto com "R$" do card
+}
@@ -0,0 +1,56 @@
+package org.custobaixo.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+import jakarta.annotation.Nonnull;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// Valor em reais guardado como centavos em long, usado no caminho busca -> filtro -> ordenação.
+// Comparações e limites não alocam; BigDecimal só aparece na fronteira com JPA e DTOs.
+public record Money(long cents) implements Comparable<Money> {
+
+    public static Money ofCents(long cents) {
+        return new Money(cents);
+    }
+
+    public static Money ofReais(long reais) {
+        return new Money(Math.multiplyExact(reais, 100L));
+    }
+
+    // Arredonda para centavos; null continua null
+    @JsonCreator
+    public static Money of(BigDecimal value) {
+        return value == null ? null
+                : new Money(value.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+    }
+
+    @JsonValue
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    public boolean isLessThan(Money other) {
+        return cents < other.cents;
+    }
+
+    public boolean isGreaterThan(Money other) {
+        return cents > other.cents;
+    }
+
+    public boolean isBetween(Money min, Money max) {
+        return cents >= min.cents && cents <= max.cents;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    @Override
+    @Nonnull
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
@@ -2,9 +2,7 @@ package org.custobaixo.model;
 
 import jakarta.annotation.Nonnull;
 
-import java.math.BigDecimal;
-
-public record ProductData(String name, BigDecimal price, String url) {
+public record ProductData(String name, Money price, String url) {
     @Override
     @Nonnull
     public String toString() {
@@ -12,4 +10,3 @@ public record ProductData(String name, BigDecimal price, String url) {
     }
 }
 
-
@@ -0,0 +1,106 @@
+package org.custobaixo.model;
+
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.QueryParser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Seletor CSS de um SiteConfig ("a, b, c") compilado uma única vez em Evaluator do Jsoup.
+// A lista completa é avaliada como um único Evaluator, com a mesma semântica de select(String);
+// cada alternativa também fica compilada para ser testada e cronometrada isoladamente.
+public final class SelectorPlan {
+
+    private final String source;
+    private final Evaluator evaluator;
+    private final List<Alternative> alternatives;
+
+    private SelectorPlan(String source, Evaluator evaluator, List<Alternative> alternatives) {
+        this.source = source;
+        this.evaluator = evaluator;
+        this.alternatives = alternatives;
+    }
+
+    public static SelectorPlan compile(String selector) {
+        List<Alternative> alternatives = new ArrayList<>();
+        for (String alternative : splitAlternatives(selector)) {
+            alternatives.add(new Alternative(alternative, QueryParser.parse(alternative)));
+        }
+        return new SelectorPlan(selector, QueryParser.parse(selector), List.copyOf(alternatives));
+    }
+
+    public String source() {
+        return source;
+    }
+
+    public List<Alternative> alternatives() {
+        return alternatives;
+    }
+
+    public Elements select(Element root) {
+        return root.select(evaluator);
+    }
+
+    public Element selectFirst(Element root) {
+        return root.selectFirst(evaluator);
+    }
+
+    public boolean isEmptyIn(Element root) {
+        return root.selectFirst(evaluator) == null;
+    }
+
+    // Uma alternativa do seletor, já compilada
+    public record Alternative(String css, Evaluator evaluator) {
+
+        public Element selectFirst(Element root) {
+            return root.selectFirst(evaluator);
+        }
+
+        // Avalia a alternativa sozinha sobre o elemento e mede o tempo gasto
+        public Probe probe(Element root) {
+            long start = System.nanoTime();
+            Elements matches = root.select(evaluator);
+            return new Probe(css, matches.size(), System.nanoTime() - start);
+        }
+    }
+
+    public record Probe(String css, int matches, long nanos) {
+    }
+
+    // MÉTODOS AUXILIARES
+
+    // Divide nas vírgulas de nível superior, ignorando as que estão dentro de [], () ou aspas
+    private static List<String> splitAlternatives(String selector) {
+        List<String> parts = new ArrayList<>();
+        int depth = 0;
+        char quote = 0;
+        int start = 0;
+        for (int i = 0; i < selector.length(); i++) {
+            char c = selector.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '\'' || c == '"') {
+                quote = c;
+            } else if (c == '[' || c == '(') {
+                depth++;
+            } else if (c == ']' || c == ')') {
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                addAlternative(parts, selector.substring(start, i));
+                start = i + 1;
+            }
+        }
+        addAlternative(parts, selector.substring(start));
+        return parts;
+    }
+
+    private static void addAlternative(List<String> parts, String part) {
+        if (!part.isBlank()) {
+            parts.add(part.trim());
+        }
+    }
+}
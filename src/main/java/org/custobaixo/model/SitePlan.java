@@ -0,0 +1,13 @@
+package org.custobaixo.model;
+
+// Seletores de um SiteConfig compilados na inicialização, usados nos laços de extração
+public record SitePlan(SelectorPlan products, SelectorPlan names, SelectorPlan prices, SelectorPlan urls) {
+
+    public static SitePlan compile(SiteConfig site) {
+        return new SitePlan(
+                SelectorPlan.compile(site.productSelector),
+                SelectorPlan.compile(site.nameSelector),
+                SelectorPlan.compile(site.priceSelector),
+                SelectorPlan.compile(site.urlSelector));
+    }
+}
@@ -5,15 +5,13 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
-
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class SitePrice {
     private String siteName;
-    private BigDecimal price;
+    private Money price;
     private String productUrl;
     private boolean available;
     private boolean isBestPrice;
@@ -22,4 +20,3 @@ public class SitePrice {
     private Long productId;
 }
 
-
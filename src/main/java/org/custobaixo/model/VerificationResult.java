@@ -10,6 +10,7 @@ public class VerificationResult {
     private int errorCount;
     private int targetReachedCount;
     private int priceChangedCount;
+    private int fetchesSavedCount; // Downloads evitados por produtos que compartilham a mesma URL
 
     public static VerificationResult empty() {
         return VerificationResult.builder().build();
@@ -21,6 +22,7 @@ public class VerificationResult {
                 .errorCount(this.errorCount + other.errorCount)
                 .targetReachedCount(this.targetReachedCount + other.targetReachedCount)
                 .priceChangedCount(this.priceChangedCount + other.priceChangedCount)
+                .fetchesSavedCount(this.fetchesSavedCount + other.fetchesSavedCount)
                 .build();
     }
 }
@@ -3,6 +3,7 @@ package org.custobaixo.repository;
 import org.custobaixo.entity.ProductCategory;
 import org.custobaixo.entity.ProductMonitor;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -26,6 +27,32 @@ public interface ProductMonitorRepository extends JpaRepository<ProductMonitor,
     @Query("SELECT p FROM ProductMonitor p WHERE p.isActive = true AND (p.lastChecked IS NULL OR p.lastChecked < :cutoffTime)")
     List<ProductMonitor> findProductsToCheck(@Param("cutoffTime") LocalDateTime cutoffTime);
 
+    // Reservar os próximos N produtos vencidos e sem lease válido (usa idx_product_monitor_due).
+    // SKIP LOCKED faz cada instância pular as linhas que outra está reservando no mesmo momento.
+    @Query(value = "SELECT * FROM product_monitor WHERE is_active = true AND next_check_at <= :now " +
+            "AND (lease_expires_at IS NULL OR lease_expires_at <= :now) " +
+            "AND (notification_sent IS NULL OR notification_sent = false) " +
+            "ORDER BY next_check_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<ProductMonitor> lockDueProducts(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    // Reservar os próximos N produtos críticos vencidos (passagens aéreas ou eletrônicos a até 20% do alvo)
+    @Query(value = "SELECT * FROM product_monitor WHERE is_active = true AND next_check_at <= :now " +
+            "AND (lease_expires_at IS NULL OR lease_expires_at <= :now) " +
+            "AND (product_category = 'PASSAGENS_AEREAS' OR (product_category = 'ELETRONICOS' " +
+            "AND current_price IS NOT NULL AND ABS(current_price - target_price) <= target_price * 0.20)) " +
+            "ORDER BY next_check_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<ProductMonitor> lockDueCriticalProducts(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    // Liberar os leases de uma instância (desligamento normal)
+    @Modifying
+    @Query("UPDATE ProductMonitor p SET p.leaseOwner = NULL, p.leaseExpiresAt = NULL WHERE p.leaseOwner = :owner")
+    int releaseLeases(@Param("owner") String owner);
+
+    // Preencher next_check_at de produtos antigos (criados antes da coluna existir)
+    @Modifying
+    @Query("UPDATE ProductMonitor p SET p.nextCheckAt = COALESCE(p.lastChecked, :now) WHERE p.nextCheckAt IS NULL")
+    int initializeMissingNextCheck(@Param("now") LocalDateTime now);
+
     // Buscar produtos com preço alvo atingido
     @Query("SELECT p FROM ProductMonitor p WHERE p.isActive = true AND p.currentPrice IS NOT NULL AND p.currentPrice <= p.targetPrice AND p.notificationSent = false")
     List<ProductMonitor> findProductsWithTargetPriceReached();
@@ -0,0 +1,28 @@
+package org.custobaixo.repository;
+
+import org.custobaixo.entity.SelectorStat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface SelectorStatRepository extends JpaRepository<SelectorStat, Long> {
+
+    // Somar acertos e tentativas acumulados por um nó desde a última gravação (cria o registro na
+    // primeira vez). Ao passar do limite de tentativas, os contadores são reduzidos à metade no banco.
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO selector_stat (site_name, selector, hits, attempts, updated_at) " +
+            "VALUES (:site, :selector, :hits, :attempts, LOCALTIMESTAMP) " +
+            "ON CONFLICT (site_name, selector) DO UPDATE SET " +
+            "hits = CASE WHEN selector_stat.attempts + EXCLUDED.attempts >= :decayThreshold " +
+            "THEN (selector_stat.hits + EXCLUDED.hits) / 2 ELSE selector_stat.hits + EXCLUDED.hits END, " +
+            "attempts = CASE WHEN selector_stat.attempts + EXCLUDED.attempts >= :decayThreshold " +
+            "THEN (selector_stat.attempts + EXCLUDED.attempts) / 2 ELSE selector_stat.attempts + EXCLUDED.attempts END, " +
+            "updated_at = EXCLUDED.updated_at", nativeQuery = true)
+    void addCounts(@Param("site") String site, @Param("selector") String selector, @Param("hits") long hits,
+                   @Param("attempts") long attempts, @Param("decayThreshold") long decayThreshold);
+}
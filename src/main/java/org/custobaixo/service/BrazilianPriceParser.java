@@ -0,0 +1,192 @@
+package org.custobaixo.service;
+
+import org.custobaixo.model.Money;
+
+import java.math.BigDecimal;
+
+// Parser único para preços exibidos nas páginas ("R$ 1.234,56", "4.699,", "8.095", "123.45").
+// Percorre o texto uma vez, sem regex nem strings intermediárias, e devolve centavos.
+//
+// Regras: um número começa num dígito e termina no primeiro caractere que não seja dígito,
+// ponto ou vírgula. O último separador seguido de 1 ou 2 dígitos é o decimal; seguido de 3 ou
+// mais é separador de milhares. Um separador no fim ("4.699,") é ignorado.
+//
+// Vale o primeiro número do texto, exceto:
+// - quantidade de parcelas ("12x de R$ 99,90"): o número seguido de "x" é pulado;
+// - preço "de/por" ("De R$ 1.299,00 por R$ 999,00"): vale o número que vem depois do "por".
+public final class BrazilianPriceParser {
+
+    public static final long NO_PRICE = -1;
+
+    // 15 dígitos cabem em long mesmo depois de convertidos para centavos
+    private static final int MAX_DIGITS = 15;
+
+    private BrazilianPriceParser() {
+    }
+
+    // Centavos, ou NO_PRICE quando o texto não contém um número
+    public static long parseCents(CharSequence text) {
+        if (text == null) {
+            return NO_PRICE;
+        }
+
+        int length = text.length();
+        long first = NO_PRICE;
+        int i = 0;
+        while ((i = nextDigit(text, i)) < length) {
+            int end = numberEnd(text, i);
+            if (isInstallmentCount(text, i, end)) {
+                i = end;
+                continue;
+            }
+
+            if (first == NO_PRICE) {
+                first = parseNumber(text, i, end);
+                // Só um preço "de" pode ser seguido pelo preço atual; nos demais casos vale o primeiro
+                if (first == NO_PRICE || !isPrecededBy(text, i, "de")) {
+                    return first;
+                }
+            } else if (isPrecededBy(text, i, "por")) {
+                return parseNumber(text, i, end);
+            }
+            i = end;
+        }
+        return first;
+    }
+
+    // Valor em centavos para o caminho de busca e comparação; null quando não há preço
+    public static Money parseMoney(CharSequence text) {
+        long cents = parseCents(text);
+        return cents == NO_PRICE ? null : Money.ofCents(cents);
+    }
+
+    // Adaptador para quem ainda trabalha com BigDecimal; null quando não há preço
+    public static BigDecimal parse(CharSequence text) {
+        long cents = parseCents(text);
+        return cents == NO_PRICE ? null : BigDecimal.valueOf(cents, 2);
+    }
+
+    // NÚMERO
+
+    // Converte para centavos o número entre start (primeiro dígito) e end
+    private static long parseNumber(CharSequence text, int start, int end) {
+        long units = 0;
+        int digits = 0;
+        // Valor acumulado e quantidade de dígitos no momento do último e do penúltimo separador
+        long separatorUnits = -1;
+        int separatorDigits = -1;
+        long previousSeparatorUnits = -1;
+        int previousSeparatorDigits = -1;
+
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (isDigit(c)) {
+                if (++digits > MAX_DIGITS) {
+                    return NO_PRICE;
+                }
+                units = units * 10 + (c - '0');
+            } else {
+                if (separatorDigits == digits) {
+                    break; // dois separadores seguidos encerram o número
+                }
+                previousSeparatorUnits = separatorUnits;
+                previousSeparatorDigits = separatorDigits;
+                separatorUnits = units;
+                separatorDigits = digits;
+            }
+        }
+
+        // Separador no fim ("4.699,"): quem decide é o separador anterior
+        if (separatorDigits == digits) {
+            separatorUnits = previousSeparatorUnits;
+            separatorDigits = previousSeparatorDigits;
+        }
+
+        int decimals = separatorDigits < 0 ? 0 : digits - separatorDigits;
+        if (decimals == 1 || decimals == 2) {
+            long fraction = units - separatorUnits * (decimals == 1 ? 10 : 100);
+            return separatorUnits * 100 + (decimals == 1 ? fraction * 10 : fraction);
+        }
+        return units * 100;
+    }
+
+    private static int nextDigit(CharSequence text, int from) {
+        int i = from;
+        while (i < text.length() && !isDigit(text.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int numberEnd(CharSequence text, int start) {
+        int i = start;
+        while (i < text.length() && isNumberChar(text.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    // CONTEXTO DO NÚMERO
+
+    // Inteiro seguido de "x" ("12x", "12 x", "12X"), mas não "12 xícaras" nem "12,00 x"
+    private static boolean isInstallmentCount(CharSequence text, int start, int end) {
+        for (int k = start; k < end; k++) {
+            if (!isDigit(text.charAt(k))) {
+                return false;
+            }
+        }
+        int i = skipSpacesForward(text, end);
+        if (i >= text.length() || (text.charAt(i) != 'x' && text.charAt(i) != 'X')) {
+            return false;
+        }
+        return i + 1 == text.length() || !Character.isLetter(text.charAt(i + 1));
+    }
+
+    // A palavra que antecede o número, ignorando espaços e o "R$" ("de R$ 99,90", "por 89,90")
+    private static boolean isPrecededBy(CharSequence text, int start, String word) {
+        int i = skipSpacesBackward(text, start);
+        if (i >= 2 && text.charAt(i - 1) == '$' && (text.charAt(i - 2) == 'R' || text.charAt(i - 2) == 'r')) {
+            i = skipSpacesBackward(text, i - 2);
+        }
+
+        int wordStart = i - word.length();
+        if (wordStart < 0 || (wordStart > 0 && Character.isLetter(text.charAt(wordStart - 1)))) {
+            return false;
+        }
+        for (int k = 0; k < word.length(); k++) {
+            if (Character.toLowerCase(text.charAt(wordStart + k)) != word.charAt(k)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int skipSpacesForward(CharSequence text, int from) {
+        int i = from;
+        while (i < text.length() && isSpace(text.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    // Posição logo depois do último caractere que não é espaço antes de "from"
+    private static int skipSpacesBackward(CharSequence text, int from) {
+        int i = from;
+        while (i > 0 && isSpace(text.charAt(i - 1))) {
+            i--;
+        }
+        return i;
+    }
+
+    private static boolean isSpace(char c) {
+        return c == ' ' || c == '\u00A0' || c == '\t' || c == '\n' || c == '\r';
+    }
+
+    private static boolean isNumberChar(char c) {
+        return isDigit(c) || c == '.' || c == ',';
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -0,0 +1,316 @@
+package org.custobaixo.service;
+
+import io.github.bonigarcia.wdm.WebDriverManager;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.custobaixo.config.BrowserPoolProperties;
+import org.custobaixo.dto.BrowserPoolStatsResponse;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+// Pool limitado de ChromeDrivers: cada busca Selenium retira um navegador só para ela e o devolve
+// no final. Navegadores com muitas páginas são substituídos, os ociosos são fechados e os que
+// morreram (Chrome travado, sessão perdida) são trocados por um novo na próxima retirada.
+@Component
+@Slf4j
+public class BrowserPool {
+
+    private final BrowserPoolProperties properties;
+    private final Semaphore permits;
+    private final ScheduledExecutorService reaper;
+
+    // Navegadores livres; o mais recente fica na frente para ser reutilizado primeiro
+    private final Deque<BrowserSession> idle = new ArrayDeque<>();
+    private volatile boolean closed;
+    private volatile boolean driverBinaryReady;
+
+    private final AtomicInteger openDrivers = new AtomicInteger();
+    private final AtomicLong acquisitions = new AtomicLong();
+    private final AtomicLong acquireTimeouts = new AtomicLong();
+    private final AtomicLong totalWaitMillis = new AtomicLong();
+    private final AtomicLong maxWaitMillis = new AtomicLong();
+    private final AtomicLong driversCreated = new AtomicLong();
+    private final AtomicLong driversRecycled = new AtomicLong();
+    private final AtomicLong driversCrashed = new AtomicLong();
+    private final AtomicLong driversReaped = new AtomicLong();
+
+    public BrowserPool(BrowserPoolProperties properties) {
+        this.properties = properties;
+        this.permits = new Semaphore(Math.max(1, properties.getMaxSize()), true);
+        this.reaper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "navegadores-ociosos");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long intervalMillis = Math.min(properties.getIdleTimeout().toMillis(), Duration.ofMinutes(1).toMillis());
+        reaper.scheduleWithFixedDelay(this::reapIdleQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // Executa o trabalho com um navegador exclusivo e o devolve ao pool no final
+    public <T> T withSession(Function<BrowserSession, T> work) {
+        BrowserSession session = acquire();
+        try {
+            return work.apply(session);
+        } catch (WebDriverException e) {
+            session.markBrokenIfLost(e);
+            throw e;
+        } finally {
+            release(session);
+        }
+    }
+
+    public BrowserPoolStatsResponse getStats() {
+        long acquired = acquisitions.get();
+        int idleCount;
+        synchronized (idle) {
+            idleCount = idle.size();
+        }
+        int open = openDrivers.get();
+
+        return BrowserPoolStatsResponse.builder()
+                .maxSize(Math.max(1, properties.getMaxSize()))
+                .openDrivers(open)
+                .idleDrivers(idleCount)
+                .inUseDrivers(Math.max(0, open - idleCount))
+                .waitingThreads(permits.getQueueLength())
+                .acquisitions(acquired)
+                .acquireTimeouts(acquireTimeouts.get())
+                .averageWaitMillis(acquired == 0 ? 0 : (double) totalWaitMillis.get() / acquired)
+                .maxWaitMillis(maxWaitMillis.get())
+                .driversCreated(driversCreated.get())
+                .driversRecycled(driversRecycled.get())
+                .driversCrashed(driversCrashed.get())
+                .driversReaped(driversReaped.get())
+                .maxPagesPerDriver(properties.getMaxPagesPerDriver())
+                .build();
+    }
+
+    // RETIRADA E DEVOLUÇÃO
+
+    private BrowserSession acquire() {
+        if (closed) {
+            throw new IllegalStateException("Pool de navegadores encerrado");
+        }
+
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(properties.getAcquireTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido aguardando navegador livre", e);
+        }
+        if (!acquired) {
+            acquireTimeouts.incrementAndGet();
+            throw new IllegalStateException("Nenhum navegador livre após " + properties.getAcquireTimeout().toSeconds() + "s");
+        }
+        recordWait(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+        try {
+            BrowserSession session;
+            while ((session = pollIdle()) != null) {
+                if (isAlive(session)) {
+                    return session;
+                }
+                log.warn("Navegador do pool não responde; substituindo");
+                driversCrashed.incrementAndGet();
+                quit(session);
+            }
+            return createSession();
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private void release(BrowserSession session) {
+        try {
+            if (closed) {
+                quit(session);
+            } else if (session.isBroken()) {
+                log.warn("Descartando navegador com sessão perdida");
+                driversCrashed.incrementAndGet();
+                quit(session);
+            } else if (session.getPagesLoaded() >= properties.getMaxPagesPerDriver()) {
+                log.info("Navegador atingiu {} páginas; será substituído", session.getPagesLoaded());
+                driversRecycled.incrementAndGet();
+                quit(session);
+            } else {
+                session.markReleased();
+                synchronized (idle) {
+                    idle.push(session);
+                }
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private BrowserSession pollIdle() {
+        synchronized (idle) {
+            return idle.poll();
+        }
+    }
+
+    private void recordWait(long waitMillis) {
+        acquisitions.incrementAndGet();
+        totalWaitMillis.addAndGet(waitMillis);
+        maxWaitMillis.accumulateAndGet(waitMillis, Math::max);
+    }
+
+    // CICLO DE VIDA DOS NAVEGADORES
+
+    private BrowserSession createSession() {
+        if (!driverBinaryReady) {
+            synchronized (this) {
+                if (!driverBinaryReady) {
+                    WebDriverManager.chromedriver().setup();
+                    driverBinaryReady = true;
+                }
+            }
+        }
+
+        log.info("Inicializando WebDriver do Selenium...");
+        ChromeDriver driver = new ChromeDriver(createChromeOptions());
+        openDrivers.incrementAndGet();
+        driversCreated.incrementAndGet();
+
+        // ANTI-DETECÇÃO: Executar script para remover navigator.webdriver
+        try {
+            JavascriptExecutor js = driver;
+            js.executeScript("Object.defineProperty(navigator, 'webdriver', {get: () => undefined})");
+            log.info("WebDriver oculto com sucesso!");
+        } catch (Exception e) {
+            log.warn("Não foi possível ocultar webdriver: {}", e.getMessage());
+        }
+
+        log.info("WebDriver inicializado com sucesso! ({} abertos)", openDrivers.get());
+        return new BrowserSession(driver);
+    }
+
+    private ChromeOptions createChromeOptions() {
+        ChromeOptions options = new ChromeOptions();
+
+        // ANTI-DETECÇÃO: Configurações básicas
+        options.addArguments("--headless=new"); // Headless mais moderno
+        options.addArguments("--no-sandbox");
+        options.addArguments("--disable-dev-shm-usage");
+        options.addArguments("--disable-gpu");
+        options.addArguments("--window-size=1920,1080");
+        options.addArguments("--start-maximized");
+
+        // ANTI-DETECÇÃO: Desabilitar recursos de automação
+        options.addArguments("--disable-blink-features=AutomationControlled");
+        options.addArguments("--disable-infobars");
+        options.addArguments("--disable-notifications");
+
+        // ANTI-DETECÇÃO: Fingir ser um navegador real
+        options.addArguments("--disable-extensions");
+        options.addArguments("--disable-plugins-discovery");
+        options.addArguments("--disable-web-security");
+        options.addArguments("--allow-running-insecure-content");
+
+        // ANTI-DETECÇÃO: User-Agent realista (Chrome mais recente)
+        options.addArguments("--user-agent=" + BrowserHeaders.SELENIUM_USER_AGENT);
+
+        // ANTI-DETECÇÃO: Remover propriedades que indicam automação
+        options.setExperimentalOption("excludeSwitches", new String[]{"enable-automation", "enable-logging"});
+        options.setExperimentalOption("useAutomationExtension", false);
+
+        // ANTI-DETECÇÃO: Adicionar preferências realistas
+        Map<String, Object> prefs = new HashMap<>();
+        prefs.put("credentials_enable_service", false);
+        prefs.put("profile.password_manager_enabled", false);
+        prefs.put("profile.default_content_setting_values.notifications", 2);
+        prefs.put("profile.default_content_settings.popups", 0);
+        options.setExperimentalOption("prefs", prefs);
+
+        return options;
+    }
+
+    // Uma chamada barata ao chromedriver confirma que o navegador ainda está vivo
+    private boolean isAlive(BrowserSession session) {
+        try {
+            session.driver().getWindowHandle();
+            return true;
+        } catch (WebDriverException e) {
+            return false;
+        }
+    }
+
+    private void quit(BrowserSession session) {
+        try {
+            session.driver().quit();
+        } catch (Exception e) {
+            log.debug("Erro ao fechar WebDriver: {}", e.getMessage());
+        } finally {
+            openDrivers.decrementAndGet();
+        }
+    }
+
+    private void reapIdleQuietly() {
+        try {
+            reapIdle();
+        } catch (Exception e) {
+            log.error("Erro ao fechar navegadores ociosos: {}", e.getMessage(), e);
+        }
+    }
+
+    private void reapIdle() {
+        Instant cutoff = Instant.now().minus(properties.getIdleTimeout());
+        List<BrowserSession> expired = new ArrayList<>();
+        synchronized (idle) {
+            Iterator<BrowserSession> iterator = idle.iterator();
+            while (iterator.hasNext()) {
+                BrowserSession session = iterator.next();
+                if (session.getLastReleasedAt().isBefore(cutoff)) {
+                    iterator.remove();
+                    expired.add(session);
+                }
+            }
+        }
+
+        if (!expired.isEmpty()) {
+            log.info("Fechando {} navegadores ociosos", expired.size());
+            expired.forEach(this::quit);
+            driversReaped.addAndGet(expired.size());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        closed = true;
+        reaper.shutdownNow();
+
+        List<BrowserSession> remaining;
+        synchronized (idle) {
+            remaining = new ArrayList<>(idle);
+            idle.clear();
+        }
+        if (!remaining.isEmpty()) {
+            log.info("Fechando {} navegadores do pool...", remaining.size());
+            remaining.forEach(this::quit);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package org.custobaixo.service;
+
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.UnreachableBrowserException;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Um ChromeDriver do pool e o uso acumulado dele. Só a thread que o retirou do pool o acessa.
+public final class BrowserSession {
+
+    private final WebDriver driver;
+    private volatile Instant lastReleasedAt = Instant.now();
+    private int pagesLoaded;
+    private boolean broken;
+
+    // Sessão estabelecida em cada site (cookies e localStorage deixados pela página inicial)
+    private final Map<String, SiteState> siteStates = new HashMap<>();
+
+    // Padrões de URL bloqueados no navegador agora (null antes do primeiro bloqueio)
+    private List<String> blockedUrlPatterns;
+
+    BrowserSession(WebDriver driver) {
+        this.driver = driver;
+    }
+
+    public WebDriver driver() {
+        return driver;
+    }
+
+    public void recordPage() {
+        pagesLoaded++;
+    }
+
+    // Sessão que falhou de forma irrecuperável; o pool a descarta na devolução
+    public void markBroken() {
+        broken = true;
+    }
+
+    // Sessão perdida ou Chrome fora do ar: nenhuma nova tentativa neste driver vai funcionar
+    public void markBrokenIfLost(Throwable error) {
+        if (error instanceof NoSuchSessionException || error instanceof UnreachableBrowserException) {
+            markBroken();
+        }
+    }
+
+    // SESSÃO POR SITE
+
+    // Sessão no site ainda válida: a visita à página inicial pode ser dispensada
+    public boolean isWarm(String site) {
+        SiteState state = siteStates.get(site);
+        return state != null && Instant.now().isBefore(state.expiresAt());
+    }
+
+    public void recordSiteState(String site, int cookies, int storageKeys, Instant expiresAt) {
+        siteStates.put(site, new SiteState(cookies, storageKeys, expiresAt));
+    }
+
+    // Bloqueio ou captcha indicam que a sessão não serve mais; a próxima busca refaz a visita
+    public void forgetSite(String site) {
+        siteStates.remove(site);
+    }
+
+    int getPagesLoaded() {
+        return pagesLoaded;
+    }
+
+    boolean isBroken() {
+        return broken;
+    }
+
+    List<String> getBlockedUrlPatterns() {
+        return blockedUrlPatterns;
+    }
+
+    void setBlockedUrlPatterns(List<String> blockedUrlPatterns) {
+        this.blockedUrlPatterns = blockedUrlPatterns;
+    }
+
+    Instant getLastReleasedAt() {
+        return lastReleasedAt;
+    }
+
+    void markReleased() {
+        lastReleasedAt = Instant.now();
+    }
+
+    private record SiteState(int cookies, int storageKeys, Instant expiresAt) {
+    }
+}
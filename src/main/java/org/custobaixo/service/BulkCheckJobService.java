@@ -0,0 +1,159 @@
+package org.custobaixo.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.custobaixo.config.SchedulerProperties;
+import org.custobaixo.dto.BulkCheckJobStatusResponse;
+import org.custobaixo.entity.ProductMonitor;
+import org.custobaixo.model.BulkCheckJob;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// Verificação de todos os produtos ativos em segundo plano, com acompanhamento de progresso.
+// Apenas uma varredura completa roda por vez; a requisição HTTP só dispara o job.
+@Service
+@Slf4j
+public class BulkCheckJobService {
+
+    private static final int MAX_FINISHED_JOBS = 20;
+
+    private final ProductMonitorService productService;
+    private final ProductVerificationService verificationService;
+    private final SchedulerProperties schedulerProperties;
+    private final ExecutorService jobExecutor;
+
+    // Job em execução e histórico recente, do mais antigo para o mais novo
+    private BulkCheckJob activeJob;
+    private final Map<String, BulkCheckJob> jobs = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, BulkCheckJob> eldest) {
+            return size() > MAX_FINISHED_JOBS && !eldest.getValue().isRunning();
+        }
+    };
+
+    public BulkCheckJobService(ProductMonitorService productService,
+                               ProductVerificationService verificationService,
+                               SchedulerProperties schedulerProperties) {
+        this.productService = productService;
+        this.verificationService = verificationService;
+        this.schedulerProperties = schedulerProperties;
+        this.jobExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "verificacao-em-massa");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Inicia a varredura; vazio se já existe uma em andamento
+    public synchronized Optional<BulkCheckJob> startFullSweep() {
+        if (activeJob != null && activeJob.isRunning()) {
+            return Optional.empty();
+        }
+
+        List<ProductMonitor> activeProducts = productService.getAllActiveProducts();
+        BulkCheckJob job = new BulkCheckJob(activeProducts.size());
+        activeJob = job;
+        jobs.put(job.getId(), job);
+
+        log.info("Job {} iniciado - {} produtos ativos para verificação", job.getId(), activeProducts.size());
+        jobExecutor.execute(() -> runFullSweep(job, activeProducts));
+        return Optional.of(job);
+    }
+
+    public synchronized Optional<BulkCheckJob> getActiveJob() {
+        return Optional.ofNullable(activeJob).filter(BulkCheckJob::isRunning);
+    }
+
+    public synchronized Optional<BulkCheckJob> findJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    // O cancelamento é cooperativo: verificações já em andamento terminam, as da fila são puladas
+    public Optional<BulkCheckJob> cancelJob(String jobId) {
+        Optional<BulkCheckJob> job = findJob(jobId);
+        job.filter(BulkCheckJob::isRunning).ifPresent(running -> {
+            log.info("Cancelamento solicitado para o job {}", jobId);
+            running.requestCancel();
+        });
+        return job;
+    }
+
+    public BulkCheckJobStatusResponse toStatusResponse(BulkCheckJob job) {
+        Duration remaining = job.getEstimatedRemaining();
+        int total = job.getTotalProducts();
+
+        return BulkCheckJobStatusResponse.builder()
+                .jobId(job.getId())
+                .status(job.getStatus().name())
+                .totalProducts(total)
+                .checkedCount(job.getCheckedCount().get())
+                .errorCount(job.getErrorCount().get())
+                .targetReachedCount(job.getTargetReachedCount().get())
+                .priceChangedCount(job.getPriceChangedCount().get())
+                .fetchesSavedCount(job.getFetchesSavedCount().get())
+                .remainingCount(job.getRemainingCount())
+                .progressPercent(total == 0 ? 100.0 : Math.round(job.getProcessedCount() * 1000.0 / total) / 10.0)
+                .startedAt(job.getStartedAt())
+                .finishedAt(job.getFinishedAt())
+                .elapsedSeconds(job.getElapsed().toSeconds())
+                .estimatedSecondsRemaining(remaining != null ? remaining.toSeconds() : null)
+                .estimatedCompletionAt(remaining != null ? LocalDateTime.now().plus(remaining) : null)
+                .message(buildStatusMessage(job))
+                .build();
+    }
+
+    // EXECUÇÃO DO JOB
+
+    // Envia os produtos ao motor em lotes do tamanho do scheduler, para que as rodadas
+    // agendadas continuem sendo atendidas pelas filas de domínio durante a varredura
+    private void runFullSweep(BulkCheckJob job, List<ProductMonitor> products) {
+        try {
+            int batchSize = Math.max(1, schedulerProperties.getBatchSize());
+            for (int from = 0; from < products.size() && !job.isCancelRequested(); from += batchSize) {
+                List<ProductMonitor> batch = products.subList(from, Math.min(from + batchSize, products.size()));
+                verificationService.verifyProducts(batch, job::isCancelRequested, job::record);
+            }
+
+            job.complete();
+            log.info("Job {} finalizado ({}) - Sucessos: {}, Erros: {}, Preços alvo atingidos: {}",
+                    job.getId(), job.getStatus(), job.getCheckedCount().get(), job.getErrorCount().get(),
+                    job.getTargetReachedCount().get());
+
+        } catch (Exception e) {
+            log.error("Erro no job {}: {}", job.getId(), e.getMessage(), e);
+            job.fail(e.getMessage());
+        }
+    }
+
+    private String buildStatusMessage(BulkCheckJob job) {
+        return switch (job.getStatus()) {
+            case RUNNING -> job.isCancelRequested() ? "Cancelamento em andamento" : "Verificação de preços em andamento";
+            case COMPLETED -> "Verificação de preços concluída";
+            case CANCELLED -> "Verificação de preços cancelada";
+            case FAILED -> "Verificação de preços falhou: " + job.getErrorMessage();
+        };
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        getActiveJob().ifPresent(BulkCheckJob::requestCancel);
+        jobExecutor.shutdown();
+        try {
+            if (!jobExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+                jobExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            jobExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package org.custobaixo.service;
+
+import lombok.RequiredArgsConstructor;
+import org.custobaixo.config.SchedulerProperties;
+import org.custobaixo.entity.ProductCategory;
+import org.custobaixo.entity.ProductMonitor;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+// Define quando cada produto volta para a fila de verificação (coluna next_check_at).
+// O intervalo se adapta à volatilidade observada: cresce enquanto o preço fica estável
+// e encolhe quando ele muda, sempre dentro dos limites configurados. Perto do preço alvo
+// o intervalo encolhe na proporção da distância, para qualquer categoria.
+@Component
+@RequiredArgsConstructor
+public class CheckIntervalPolicy {
+
+    private static final BigDecimal CRITICAL_RANGE = new BigDecimal("0.20");
+
+    private final SchedulerProperties properties;
+
+    public LocalDateTime nextCheckAt(ProductMonitor product, LocalDateTime checkedAt, boolean priceChanged) {
+        Duration interval = adaptInterval(currentInterval(product), priceChanged);
+        product.setCheckIntervalSeconds(interval.toSeconds());
+
+        return checkedAt.plus(capForCriticalProduct(product, scaleByTargetProximity(product, interval)));
+    }
+
+    // Validade da reserva; se a verificação falhar, o produto volta para a fila depois disso
+    public LocalDateTime leaseUntil(LocalDateTime now) {
+        return now.plus(properties.getLeaseDuration());
+    }
+
+    // INTERVALO ADAPTATIVO
+
+    private Duration currentInterval(ProductMonitor product) {
+        return product.getCheckIntervalSeconds() != null
+                ? Duration.ofSeconds(product.getCheckIntervalSeconds())
+                : properties.getCheckInterval();
+    }
+
+    private Duration adaptInterval(Duration current, boolean priceChanged) {
+        double factor = priceChanged ? properties.getChangeShrinkFactor() : properties.getStableGrowthFactor();
+        return clamp(Duration.ofSeconds(Math.round(current.toSeconds() * factor)));
+    }
+
+    private Duration clamp(Duration interval) {
+        if (interval.compareTo(properties.getMinInterval()) < 0) {
+            return properties.getMinInterval();
+        }
+        if (interval.compareTo(properties.getMaxInterval()) > 0) {
+            return properties.getMaxInterval();
+        }
+        return interval;
+    }
+
+    // Dentro da faixa de proximidade o intervalo é multiplicado pela fração da distância até o alvo:
+    // a 25% do alvo com a faixa padrão de 50%, metade do intervalo; no alvo, o intervalo mínimo
+    private Duration scaleByTargetProximity(ProductMonitor product, Duration interval) {
+        BigDecimal distance = targetDistance(product);
+        double range = properties.getNearTargetRange();
+        if (distance == null || range <= 0 || distance.doubleValue() >= range) {
+            return interval;
+        }
+        return clamp(Duration.ofSeconds(Math.round(interval.toSeconds() * distance.doubleValue() / range)));
+    }
+
+    // Produtos críticos nunca esperam mais que o intervalo crítico, mesmo se estáveis
+    private Duration capForCriticalProduct(ProductMonitor product, Duration interval) {
+        Duration criticalInterval = criticalInterval();
+        if (isCriticalProduct(product) && interval.compareTo(criticalInterval) > 0) {
+            return criticalInterval;
+        }
+        return interval;
+    }
+
+    // Um intervalo crítico configurado abaixo do mínimo não fura o piso do intervalo adaptativo
+    private Duration criticalInterval() {
+        Duration critical = properties.getCriticalInterval();
+        return critical.compareTo(properties.getMinInterval()) < 0 ? properties.getMinInterval() : critical;
+    }
+
+    //  VERIFICAÇÕES SIMPLES
+
+    public boolean isCriticalProduct(ProductMonitor product) {
+        return isFlightProduct(product) || isElectronicsNearTarget(product);
+    }
+
+    private boolean isFlightProduct(ProductMonitor product) {
+        return product.getCategory() == ProductCategory.PASSAGENS_AEREAS;
+    }
+
+    private boolean isElectronicsNearTarget(ProductMonitor product) {
+        return product.getCategory() == ProductCategory.ELETRONICOS && isPriceNearTarget(product);
+    }
+
+    private boolean isPriceNearTarget(ProductMonitor product) {
+        BigDecimal distance = targetDistance(product);
+        return distance != null && distance.setScale(2, RoundingMode.HALF_UP).compareTo(CRITICAL_RANGE) <= 0;
+    }
+
+    // Distância relativa entre o preço atual e o alvo; nula sem os dois preços
+    private BigDecimal targetDistance(ProductMonitor product) {
+        if (product.getCurrentPrice() == null || product.getTargetPrice() == null
+                || product.getTargetPrice().signum() <= 0) {
+            return null;
+        }
+        return product.getCurrentPrice().subtract(product.getTargetPrice())
+                .divide(product.getTargetPrice(), 4, RoundingMode.HALF_UP).abs();
+    }
+}
@@ -0,0 +1,132 @@
+package org.custobaixo.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.custobaixo.model.DomExtractionPlan;
+import org.custobaixo.model.Money;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Extrai os cards de uma página de resultados numa única chamada ao navegador. O plano roda em
+// JavaScript e devolve um array JSON compacto; antes eram findElement, getText e getDomAttribute
+// por seletor candidato e por card, centenas de idas ao chromedriver numa página de 20 cards.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DomExtractor {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    // Cada card volta como [nome, índice do seletor de nome, texto do preço, índice do seletor
+    // de preço, href]; índice -1 quando nenhum seletor serviu
+    private static final String EXTRACTION_SCRIPT = """
+            var plan = arguments[0];
+            function text(el) { return (el.innerText || el.textContent || '').trim(); }
+            function first(root, selectors, accept) {
+                for (var i = 0; i < selectors.length; i++) {
+                    var el = null;
+                    try { el = root.querySelector(selectors[i]); } catch (e) {}
+                    if (el) { var value = accept(el); if (value !== null) return [value, i]; }
+                }
+                return [null, -1];
+            }
+            function currencyText(root) {
+                var walker = document.createTreeWalker(root, NodeFilter.SHOW_TEXT);
+                for (var node = walker.nextNode(); node; node = walker.nextNode()) {
+                    if (node.nodeValue.indexOf('R$') >= 0 && node.parentElement) return text(node.parentElement);
+                }
+                return null;
+            }
+            var cards = [], cardSelector = null;
+            for (var s = 0; s < plan.cardSelectors.length && cards.length === 0; s++) {
+                try { cards = document.querySelectorAll(plan.cardSelectors[s]); } catch (e) { cards = []; }
+                if (cards.length) cardSelector = plan.cardSelectors[s];
+            }
+            var out = [];
+            for (var c = 0; c < Math.min(cards.length, plan.maxCards); c++) {
+                var card = cards[c];
+                var name = first(card, plan.nameSelectors, function (el) {
+                    var t = text(el); return t.length >= plan.minNameLength ? t : null; });
+                var price = first(card, plan.priceSelectors, function (el) {
+                    var t = text(el); return /[0-9]/.test(t) ? t : null; });
+                if (price[1] < 0 && plan.priceTextFallback) price[0] = currencyText(card);
+                var url = first(card, plan.urlSelectors, function (el) {
+                    var href = el.getAttribute('href');
+                    if (!href) return null;
+                    if (plan.urlMustContain.length === 0) return href;
+                    for (var k = 0; k < plan.urlMustContain.length; k++) {
+                        if (href.indexOf(plan.urlMustContain[k]) >= 0) return href;
+                    }
+                    return null;
+                });
+                out.push([name[0], name[1], price[0], price[1], url[0]]);
+            }
+            return JSON.stringify({selector: cardSelector, total: cards.length, cards: out});""";
+
+    private final SelectorRanking selectorRanking;
+    private final SeleniumSearchStats searchStats;
+
+    // Nomes seguem a ordem aprendida pelo SelectorRanking do site; preços mantêm a ordem declarada
+    // (fallbacks por prioridade). O resultado de cada card alimenta o ranking como nos laços por elemento
+    public List<ExtractedCard> extract(WebDriver driver, String site, DomExtractionPlan plan) {
+        long start = System.nanoTime();
+        List<String> names = selectorRanking.order(site, plan.nameSelectors().toArray(String[]::new));
+        List<String> prices = plan.priceSelectors();
+
+        Map<String, Object> argument = Map.of(
+                "cardSelectors", plan.cardSelectors(),
+                "nameSelectors", names,
+                "priceSelectors", prices,
+                "urlSelectors", plan.urlSelectors(),
+                "urlMustContain", plan.urlMustContain(),
+                "maxCards", plan.maxCards(),
+                "minNameLength", plan.minNameLength(),
+                "priceTextFallback", plan.priceTextFallback());
+
+        List<ExtractedCard> cards = new ArrayList<>();
+        try {
+            Object json = ((JavascriptExecutor) driver).executeScript(EXTRACTION_SCRIPT, argument);
+            JsonNode page = MAPPER.readTree(String.valueOf(json));
+            log.info("Encontrados {} produtos com seletor: {}", page.path("total").asInt(), page.path("selector").asText(null));
+
+            for (JsonNode card : page.path("cards")) {
+                recordRanking(site, names, card.get(1).asInt());
+                recordRanking(site, prices, card.get(3).asInt());
+                cards.add(new ExtractedCard(
+                        card.get(0).isNull() ? "" : card.get(0).asText(),
+                        card.get(2).isNull() ? null : BrazilianPriceParser.parseMoney(card.get(2).asText()),
+                        card.get(4).isNull() ? null : card.get(4).asText()));
+            }
+        } catch (Exception e) {
+            log.warn("Erro na extração de cards em {}: {}", site, e.getMessage());
+        }
+
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        searchStats.recordExtraction(site, millis, cards.size());
+        log.info("{} cards extraídos de {} em {} ms (uma chamada ao navegador)", cards.size(), site, millis);
+        return cards;
+    }
+
+    // Seletores antes do vencedor foram avaliados e não serviram
+    private void recordRanking(String site, List<String> order, int winner) {
+        int evaluated = winner < 0 ? order.size() : winner;
+        for (int i = 0; i < evaluated; i++) {
+            selectorRanking.recordMiss(site, order.get(i));
+        }
+        if (winner >= 0) {
+            selectorRanking.recordHit(site, order.get(winner));
+        }
+    }
+
+    // Nome vazio, preço ou link nulos quando o card não os tinha
+    public record ExtractedCard(String name, Money price, String url) {
+    }
+}
@@ -0,0 +1,113 @@
+package org.custobaixo.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.custobaixo.config.RateLimitProperties;
+import org.custobaixo.dto.RateLimitStatsResponse;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Limite de requisições por domínio (token bucket) compartilhado pelos caminhos Jsoup e Selenium.
+// Só espera quando o domínio já gastou a rajada; um site parado há minutos responde na hora.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DomainRateLimiter {
+
+    private final RateLimitProperties properties;
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    // Bloqueia até haver orçamento para uma requisição ao domínio da URL
+    public void acquire(String url) {
+        String domain = SiteDomains.resolve(url);
+        TokenBucket bucket = buckets.computeIfAbsent(domain, key -> new TokenBucket(properties.budgetFor(key)));
+
+        long waitNanos = bucket.reserve();
+        if (waitNanos <= 0) {
+            return;
+        }
+
+        log.debug("Aguardando {} ms pelo limite do domínio {}", TimeUnit.NANOSECONDS.toMillis(waitNanos), domain);
+        try {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public RateLimitStatsResponse getStats() {
+        Map<String, RateLimitStatsResponse.DomainStats> domains = new TreeMap<>();
+        buckets.forEach((domain, bucket) -> domains.put(domain, bucket.toStats()));
+
+        return RateLimitStatsResponse.builder()
+                .totalAcquired(domains.values().stream().mapToLong(RateLimitStatsResponse.DomainStats::getAcquired).sum())
+                .totalDelayed(domains.values().stream().mapToLong(RateLimitStatsResponse.DomainStats::getDelayed).sum())
+                .totalWaitMillis(domains.values().stream().mapToLong(RateLimitStatsResponse.DomainStats::getTotalWaitMillis).sum())
+                .domains(domains)
+                .build();
+    }
+
+    // BALDE DE FICHAS
+    // Fichas negativas representam reservas já feitas: cada chamador espera a sua vez na fila
+    private static final class TokenBucket {
+        private final double permitsPerSecond;
+        private final int burst;
+        private double storedPermits;
+        private long lastRefillNanos = System.nanoTime();
+
+        private final LongAdder acquired = new LongAdder();
+        private final LongAdder delayed = new LongAdder();
+        private final LongAdder totalWaitNanos = new LongAdder();
+        private final AtomicLong maxWaitNanos = new AtomicLong();
+
+        private TokenBucket(RateLimitProperties.Budget budget) {
+            this.permitsPerSecond = Math.max(0.01, budget.getPermitsPerSecond());
+            this.burst = Math.max(1, budget.getBurst());
+            this.storedPermits = this.burst;
+        }
+
+        long reserve() {
+            long waitNanos;
+            synchronized (this) {
+                refill(System.nanoTime());
+                storedPermits -= 1;
+                waitNanos = storedPermits >= 0 ? 0 : (long) (-storedPermits / permitsPerSecond * 1_000_000_000L);
+            }
+
+            acquired.increment();
+            if (waitNanos > 0) {
+                delayed.increment();
+                totalWaitNanos.add(waitNanos);
+                maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+            }
+            return waitNanos;
+        }
+
+        private void refill(long now) {
+            double earned = (now - lastRefillNanos) / 1_000_000_000.0 * permitsPerSecond;
+            storedPermits = Math.min(burst, storedPermits + earned);
+            lastRefillNanos = now;
+        }
+
+        RateLimitStatsResponse.DomainStats toStats() {
+            long count = acquired.sum();
+            long waitMillis = TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.sum());
+
+            return RateLimitStatsResponse.DomainStats.builder()
+                    .permitsPerSecond(permitsPerSecond)
+                    .burst(burst)
+                    .acquired(count)
+                    .delayed(delayed.sum())
+                    .totalWaitMillis(waitMillis)
+                    .maxWaitMillis(TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get()))
+                    .averageWaitMillis(count == 0 ? 0.0 : (double) waitMillis / count)
+                    .build();
+        }
+    }
+}
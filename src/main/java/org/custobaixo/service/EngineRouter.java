@@ -0,0 +1,206 @@
+package org.custobaixo.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.custobaixo.config.EngineRoutingProperties;
+import org.custobaixo.dto.EngineRoutingStatsResponse;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Escolhe, por site, entre Jsoup e Selenium pelo histórico de cada motor: sucesso, página vazia,
+// bloqueio e latência. Vence o menor custo esperado (latência / chance de sucesso), então o Jsoup
+// fica com os sites que o aceitam e os que sempre o bloqueiam vão direto para o Selenium, sem
+// esperar o timeout do Jsoup. Sites roteados para o Selenium voltam a testar o Jsoup de tempos
+// em tempos, para perceber quando o bloqueio acaba.
+@Component
+@Slf4j
+public class EngineRouter {
+
+    public enum Engine { JSOUP, SELENIUM }
+
+    public enum Outcome { SUCCESS, EMPTY, BLOCKED, ERROR }
+
+    // Chance de sucesso antes da primeira medição, e o piso usado no custo esperado
+    private static final double PRIOR_SUCCESS_RATE = 0.5;
+    private static final double MIN_SUCCESS_RATE = 0.05;
+
+    private final EngineRoutingProperties properties;
+    private final Map<String, SiteRoute> sites = new ConcurrentHashMap<>();
+    private final AtomicLong decisions = new AtomicLong();
+    private final AtomicLong reprobes = new AtomicLong();
+
+    public EngineRouter(EngineRoutingProperties properties) {
+        this.properties = properties;
+    }
+
+    public Engine route(String site) {
+        SiteRoute route = routeFor(site);
+        Instant now = Instant.now();
+        Decision decision;
+
+        synchronized (route) {
+            decision = decide(route, now, true);
+            route.recordDecision(decision, now);
+        }
+
+        decisions.incrementAndGet();
+        if (decision.reprobe()) {
+            reprobes.incrementAndGet();
+        }
+        log.info("Motor para {}: {} ({})", site, decision.engine(), decision.reason());
+        return decision.engine();
+    }
+
+    public void record(String site, Engine engine, Outcome outcome, long millis) {
+        SiteRoute route = routeFor(site);
+        synchronized (route) {
+            route.history(engine).record(outcome, millis, properties.getLearningRate());
+        }
+    }
+
+    public EngineRoutingStatsResponse getStats() {
+        Map<String, EngineRoutingStatsResponse.SiteRouting> siteStats = new TreeMap<>();
+        Instant now = Instant.now();
+        sites.forEach((site, route) -> {
+            synchronized (route) {
+                siteStats.put(site, route.toStats(decide(route, now, false).engine(),
+                        properties.getJsoupPriorLatency().toMillis(), properties.getSeleniumPriorLatency().toMillis()));
+            }
+        });
+
+        return EngineRoutingStatsResponse.builder()
+                .decisions(decisions.get())
+                .reprobes(reprobes.get())
+                .sites(siteStats)
+                .build();
+    }
+
+    // MÉTODOS AUXILIARES
+
+    private SiteRoute routeFor(String site) {
+        return sites.computeIfAbsent(site, key -> new SiteRoute(properties.getSeleniumFirstSites().contains(key)));
+    }
+
+    // Chamado com o lock do site; allowReprobe=false devolve só o motor preferido
+    private Decision decide(SiteRoute route, Instant now, boolean allowReprobe) {
+        double jsoupCost = route.jsoup.expectedCost(properties.getJsoupPriorLatency().toMillis());
+        double seleniumCost = route.selenium.expectedCost(properties.getSeleniumPriorLatency().toMillis());
+
+        Decision preferred;
+        if (route.seleniumFirst && route.jsoup.attempts == 0) {
+            preferred = new Decision(Engine.SELENIUM, "site configurado para começar no Selenium", false);
+        } else if (jsoupCost <= seleniumCost) {
+            preferred = new Decision(Engine.JSOUP,
+                    String.format("custo esperado %.0f ms contra %.0f ms do Selenium", jsoupCost, seleniumCost), false);
+        } else {
+            preferred = new Decision(Engine.SELENIUM,
+                    String.format("custo esperado %.0f ms contra %.0f ms do Jsoup", seleniumCost, jsoupCost), false);
+        }
+
+        boolean reprobeDue = !route.lastJsoupRoute.plus(properties.getReprobeInterval()).isAfter(now);
+        if (allowReprobe && preferred.engine() == Engine.SELENIUM && reprobeDue) {
+            return new Decision(Engine.JSOUP, "reteste periódico do Jsoup", true);
+        }
+        return preferred;
+    }
+
+    private record Decision(Engine engine, String reason, boolean reprobe) {
+    }
+
+    // Estado de um site; acessado sempre com o lock do próprio objeto
+    private static final class SiteRoute {
+        final boolean seleniumFirst;
+        final EngineHistory jsoup = new EngineHistory();
+        final EngineHistory selenium = new EngineHistory();
+        // Última vez que o Jsoup foi escolhido (sites que começam no Selenium contam a partir da criação)
+        Instant lastJsoupRoute;
+        Decision lastDecision;
+        Instant lastDecisionAt;
+        long jsoupDecisions;
+        long seleniumDecisions;
+        long reprobes;
+
+        SiteRoute(boolean seleniumFirst) {
+            this.seleniumFirst = seleniumFirst;
+            this.lastJsoupRoute = seleniumFirst ? Instant.now() : Instant.EPOCH;
+        }
+
+        EngineHistory history(Engine engine) {
+            return engine == Engine.JSOUP ? jsoup : selenium;
+        }
+
+        void recordDecision(Decision decision, Instant now) {
+            lastDecision = decision;
+            lastDecisionAt = now;
+            if (decision.engine() == Engine.JSOUP) {
+                jsoupDecisions++;
+                lastJsoupRoute = now;
+            } else {
+                seleniumDecisions++;
+            }
+            if (decision.reprobe()) {
+                reprobes++;
+            }
+        }
+
+        EngineRoutingStatsResponse.SiteRouting toStats(Engine preferred, long jsoupPriorMillis, long seleniumPriorMillis) {
+            return EngineRoutingStatsResponse.SiteRouting.builder()
+                    .preferredEngine(preferred.name())
+                    .lastDecision(lastDecision != null ? lastDecision.engine().name() : null)
+                    .lastReason(lastDecision != null ? lastDecision.reason() : null)
+                    .lastDecisionAt(lastDecisionAt != null ? LocalDateTime.ofInstant(lastDecisionAt, ZoneId.systemDefault()) : null)
+                    .jsoupDecisions(jsoupDecisions)
+                    .seleniumDecisions(seleniumDecisions)
+                    .reprobes(reprobes)
+                    .jsoup(jsoup.toStats(jsoupPriorMillis))
+                    .selenium(selenium.toStats(seleniumPriorMillis))
+                    .build();
+        }
+    }
+
+    private static final class EngineHistory {
+        long attempts;
+        long successes;
+        long empty;
+        long blocked;
+        long errors;
+        double successRate = PRIOR_SUCCESS_RATE;
+        double latencyMillis = -1;
+
+        void record(Outcome outcome, long millis, double learningRate) {
+            attempts++;
+            switch (outcome) {
+                case SUCCESS -> successes++;
+                case EMPTY -> empty++;
+                case BLOCKED -> blocked++;
+                case ERROR -> errors++;
+            }
+            successRate += learningRate * ((outcome == Outcome.SUCCESS ? 1.0 : 0.0) - successRate);
+            latencyMillis = latencyMillis < 0 ? millis : latencyMillis + learningRate * (millis - latencyMillis);
+        }
+
+        double expectedCost(long priorLatencyMillis) {
+            double latency = latencyMillis < 0 ? priorLatencyMillis : latencyMillis;
+            return latency / Math.max(successRate, MIN_SUCCESS_RATE);
+        }
+
+        EngineRoutingStatsResponse.EngineStats toStats(long priorLatencyMillis) {
+            return EngineRoutingStatsResponse.EngineStats.builder()
+                    .attempts(attempts)
+                    .successes(successes)
+                    .empty(empty)
+                    .blocked(blocked)
+                    .errors(errors)
+                    .successRate(successRate)
+                    .averageLatencyMillis(Math.max(0, latencyMillis))
+                    .expectedCostMillis(expectedCost(priorLatencyMillis))
+                    .build();
+        }
+    }
+}
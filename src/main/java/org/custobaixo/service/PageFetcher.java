@@ -0,0 +1,363 @@
+package org.custobaixo.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.custobaixo.config.HttpClientProperties;
+import org.custobaixo.dto.HttpFetchStatsResponse;
+import org.jsoup.HttpStatusException;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.springframework.stereotype.Component;
+
+import javax.net.ssl.SSLSession;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+// Downloads de páginas por um único HttpClient com pool de conexões (HTTP/2 quando o site aceita).
+// O Jsoup só faz o parse da resposta; limite por domínio e cabeçalhos ficam centralizados aqui.
+@Component
+@Slf4j
+public class PageFetcher {
+
+    private static final int MAX_TRACKED_SESSIONS = 1024;
+
+    private final DomainRateLimiter rateLimiter;
+    private final HttpClient httpClient;
+
+    // Sessões TLS já vistas: uma sessão nova indica um handshake, uma repetida indica conexão reaproveitada
+    private final Map<String, Boolean> knownSessions = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > MAX_TRACKED_SESSIONS;
+        }
+    };
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder failedRequests = new LongAdder();
+    private final LongAdder http2Responses = new LongAdder();
+    private final LongAdder tlsHandshakes = new LongAdder();
+    private final LongAdder reusedConnections = new LongAdder();
+    private final LongAdder bytesReceived = new LongAdder();
+    private final LongAdder earlyClosedResponses = new LongAdder();
+
+    // Agenda o fechamento dos corpos cujo prazo total acabou
+    private final ScheduledThreadPoolExecutor deadlines = new ScheduledThreadPoolExecutor(1, runnable -> {
+        Thread thread = new Thread(runnable, "prazo-downloads");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public PageFetcher(DomainRateLimiter rateLimiter, HttpClientProperties properties) {
+        this.rateLimiter = rateLimiter;
+        this.deadlines.setRemoveOnCancelPolicy(true);
+
+        // Redirecionamentos como no Jsoup.connect(...).followRedirects(true): todos, inclusive https -> http.
+        // O tempo de keep-alive do pool é da JVM inteira e fica na inicialização (CustoBaixoApplication).
+        this.httpClient = HttpClient.newBuilder()
+                .version(properties.isHttp2Enabled() ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.ALWAYS)
+                .connectTimeout(properties.getConnectTimeout())
+                .build();
+    }
+
+    public Document fetch(String url, Duration timeout) throws IOException {
+        return fetch(url, timeout, null);
+    }
+
+    // Baixa a página respeitando o limite do domínio; status >= 400 vira HttpStatusException como no Jsoup
+    public Document fetch(String url, Duration timeout, String referer) throws IOException {
+        return send(url, buildRequest(url, timeout, referer), timeout, Jsoup::parse).content();
+    }
+
+    // Entrega o corpo ao leitor informado, que pode parar antes do fim (o restante não é baixado)
+    public <T> T fetchStreaming(String url, Duration timeout, BodyReader<T> reader) throws IOException {
+        return send(url, buildRequest(url, timeout, null), timeout, reader).content();
+    }
+
+    // Requisição condicional: com validadores de um download anterior o site pode responder 304 sem corpo
+    public <T> Page<T> fetchIfModified(String url, Duration timeout, String etag, String lastModified,
+                                       BodyReader<T> reader) throws IOException {
+        HttpRequest.Builder builder = requestBuilder(url, timeout, null);
+        if (etag != null) {
+            builder.header("If-None-Match", etag);
+        }
+        if (lastModified != null) {
+            builder.header("If-Modified-Since", lastModified);
+        }
+        return send(url, builder.build(), timeout, reader);
+    }
+
+    // O timeout vale para o download inteiro: cabeçalhos e leitura do corpo. HttpRequest.timeout só
+    // cobre a chegada dos cabeçalhos, então o corpo é fechado por um agendamento quando o prazo acaba
+    // (um site que manda o HTML aos poucos não prende mais a thread).
+    private <T> Page<T> send(String url, HttpRequest request, Duration timeout, BodyReader<T> reader) throws IOException {
+        rateLimiter.acquire(url);
+        requests.increment();
+        long deadlineNanos = System.nanoTime() + timeout.toNanos();
+
+        try {
+            HttpResponse<InputStream> response = awaitHeaders(request, deadlineNanos);
+            recordConnection(response);
+
+            if (response.statusCode() >= 400) {
+                response.body().close();
+                throw new HttpStatusException("HTTP error fetching URL. Status=" + response.statusCode(),
+                        response.statusCode(), url);
+            }
+
+            String etag = response.headers().firstValue("ETag").orElse(null);
+            String lastModified = response.headers().firstValue("Last-Modified").orElse(null);
+            if (response.statusCode() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                response.body().close();
+                return new Page<>(null, true, etag, lastModified, 0, -1);
+            }
+
+            long contentLength = response.headers().firstValueAsLong("Content-Length").orElse(-1);
+            CountingInputStream counted = new CountingInputStream(response.body());
+            BodyDeadline deadline = new BodyDeadline(response.body(), deadlineNanos);
+            try (InputStream body = decodedBody(response, counted)) {
+                T content = reader.read(body, charsetOf(response), response.uri().toString());
+                // Quem parou ao achar o que procurava já tem um resultado completo: o restante é fechado
+                // sem ler, e o resultado vale mesmo que o prazo acabe logo em seguida
+                if (content instanceof EarlyStop stop && stop.stoppedEarly()) {
+                    earlyClosedResponses.increment();
+                    return new Page<>(content, false, etag, lastModified, counted.count, contentLength);
+                }
+                // O leitor pode ter tratado o fechamento como fim do corpo e devolvido uma página cortada
+                if (deadline.expired()) {
+                    throw bodyTimeout(url, timeout);
+                }
+                return new Page<>(content, false, etag, lastModified, counted.count, contentLength);
+            } catch (IOException e) {
+                throw deadline.expired() ? bodyTimeout(url, timeout) : e;
+            } finally {
+                deadline.cancel();
+            }
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failedRequests.increment();
+            throw new IOException("Download interrompido: " + url, e);
+        } catch (IOException e) {
+            failedRequests.increment();
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        deadlines.shutdownNow();
+    }
+
+    public HttpFetchStatsResponse getStats() {
+        long handshakes = tlsHandshakes.sum();
+        long reused = reusedConnections.sum();
+        long tlsResponses = handshakes + reused;
+
+        return HttpFetchStatsResponse.builder()
+                .requests(requests.sum())
+                .failedRequests(failedRequests.sum())
+                .http2Responses(http2Responses.sum())
+                .tlsHandshakes(handshakes)
+                .reusedConnections(reused)
+                .connectionReuseRatio(tlsResponses == 0 ? 0.0 : (double) reused / tlsResponses)
+                .bytesReceived(bytesReceived.sum())
+                .earlyClosedResponses(earlyClosedResponses.sum())
+                .build();
+    }
+
+    // MÉTODOS AUXILIARES
+
+    // Espera os cabeçalhos até o prazo total; ao estourar, a troca é cancelada no cliente
+    private HttpResponse<InputStream> awaitHeaders(HttpRequest request, long deadlineNanos)
+            throws IOException, InterruptedException {
+        CompletableFuture<HttpResponse<InputStream>> response =
+                httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream());
+        try {
+            return response.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            response.cancel(true);
+            throw new HttpTimeoutException("request timed out");
+        } catch (InterruptedException e) {
+            response.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            // Mesmo tratamento do HttpClient.send: a falha de rede sobe como a IOException original
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    private HttpTimeoutException bodyTimeout(String url, Duration timeout) {
+        return new HttpTimeoutException("Prazo de " + timeout.toMillis() + " ms esgotado lendo o corpo de " + url);
+    }
+
+    private HttpRequest buildRequest(String url, Duration timeout, String referer) throws IOException {
+        return requestBuilder(url, timeout, referer).build();
+    }
+
+    private HttpRequest.Builder requestBuilder(String url, Duration timeout, String referer) throws IOException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(toUri(url))
+                .timeout(timeout)
+                .header("User-Agent", BrowserHeaders.randomUserAgent())
+                .GET();
+
+        BrowserHeaders.NAVIGATION_HEADERS.forEach(builder::header);
+        if (referer != null) {
+            builder.header("Referer", referer);
+        }
+        return builder;
+    }
+
+    // URLs coladas pelo usuário podem ter espaços ou caracteres sem escape, que o Jsoup aceitava
+    private URI toUri(String url) throws IOException {
+        try {
+            return URI.create(url);
+        } catch (IllegalArgumentException e) {
+            try {
+                URL parsed = new URL(url);
+                return new URI(parsed.getProtocol(), parsed.getUserInfo(), parsed.getHost(), parsed.getPort(),
+                        parsed.getPath(), parsed.getQuery(), parsed.getRef());
+            } catch (URISyntaxException | IllegalArgumentException invalid) {
+                throw new MalformedURLException("URL inválida: " + url);
+            }
+        }
+    }
+
+    private void recordConnection(HttpResponse<?> response) {
+        if (response.version() == HttpClient.Version.HTTP_2) {
+            http2Responses.increment();
+        }
+
+        response.sslSession().ifPresent(session -> {
+            boolean seen;
+            synchronized (knownSessions) {
+                seen = knownSessions.put(sessionKey(response, session), Boolean.TRUE) != null;
+            }
+            (seen ? reusedConnections : tlsHandshakes).increment();
+        });
+    }
+
+    // O JDK entrega uma cópia da sessão a cada resposta, então a chave usa o ID e o horário de criação;
+    // uma conexão nova gera uma sessão com ID novo, mesmo com resumption
+    private String sessionKey(HttpResponse<?> response, SSLSession session) {
+        return response.uri().getHost() + "|" + HexFormat.of().formatHex(session.getId()) + "|" + session.getCreationTime();
+    }
+
+    private InputStream decodedBody(HttpResponse<InputStream> response, InputStream counted) throws IOException {
+        String encoding = response.headers().firstValue("Content-Encoding").orElse("").toLowerCase(Locale.ROOT);
+
+        return switch (encoding) {
+            case "gzip", "x-gzip" -> new GZIPInputStream(counted);
+            case "deflate" -> new InflaterInputStream(counted);
+            default -> counted;
+        };
+    }
+
+    private String charsetOf(HttpResponse<?> response) {
+        String contentType = response.headers().firstValue("Content-Type").orElse("");
+        int index = contentType.toLowerCase(Locale.ROOT).indexOf("charset=");
+        if (index < 0) {
+            return null; // Jsoup detecta pelo <meta charset> ou usa UTF-8
+        }
+        return contentType.substring(index + 8).split(";")[0].replace("\"", "").trim();
+    }
+
+    // Resultado de um download; "content" é nulo quando o site respondeu 304. "bytesReceived" conta só o
+    // que foi lido (menos que o corpo quando o leitor parou antes); "contentLength" é -1 sem o cabeçalho
+    public record Page<T>(T content, boolean notModified, String etag, String lastModified, long bytesReceived,
+                          long contentLength) {
+    }
+
+    @FunctionalInterface
+    public interface BodyReader<T> {
+        T read(InputStream body, String charset, String baseUri) throws IOException;
+    }
+
+    // Resultado de um leitor que pode abandonar o corpo antes do fim
+    public interface EarlyStop {
+        boolean stoppedEarly();
+    }
+
+    // Fecha o corpo da resposta quando o prazo total acaba, destravando a leitura em andamento
+    private final class BodyDeadline {
+
+        private final ScheduledFuture<?> closer;
+        private volatile boolean expired;
+
+        private BodyDeadline(InputStream body, long deadlineNanos) {
+            this.closer = deadlines.schedule(() -> {
+                expired = true;
+                try {
+                    body.close();
+                } catch (IOException e) {
+                    log.debug("Erro ao fechar corpo após o prazo: {}", e.getMessage());
+                }
+            }, Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        }
+
+        private boolean expired() {
+            return expired;
+        }
+
+        private void cancel() {
+            closer.cancel(false);
+        }
+    }
+
+    // Conta os bytes recebidos na rede (antes da descompressão)
+    private final class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if (value >= 0) {
+                count++;
+                bytesReceived.increment();
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                count += read;
+                bytesReceived.add(read);
+            }
+            return read;
+        }
+    }
+}
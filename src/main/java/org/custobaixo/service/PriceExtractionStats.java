@@ -0,0 +1,70 @@
+package org.custobaixo.service;
+
+import org.custobaixo.dto.PriceExtractionStatsResponse;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Conta, por site, de onde veio o preço de cada página: dado estruturado, seletor CSS ou nada
+@Component
+public class PriceExtractionStats {
+
+    private final Map<String, SiteCounters> sites = new ConcurrentHashMap<>();
+
+    public void record(String url, StreamingPriceExtractor.Result result) {
+        SiteCounters counters = sites.computeIfAbsent(SiteDomains.resolve(url), domain -> new SiteCounters());
+        counters.pages.increment();
+
+        if (result.source() == null) {
+            counters.misses.increment();
+            return;
+        }
+        switch (result.source()) {
+            case JSON_LD -> counters.jsonLdHits.increment();
+            case MICRODATA -> counters.microdataHits.increment();
+            case SELECTOR -> counters.selectorHits.increment();
+        }
+    }
+
+    public PriceExtractionStatsResponse getStats() {
+        Map<String, PriceExtractionStatsResponse.SiteStats> siteStats = new TreeMap<>();
+        sites.forEach((domain, counters) -> siteStats.put(domain, counters.toStats()));
+
+        long pages = siteStats.values().stream().mapToLong(PriceExtractionStatsResponse.SiteStats::getPages).sum();
+        long structured = siteStats.values().stream()
+                .mapToLong(site -> site.getJsonLdHits() + site.getMicrodataHits())
+                .sum();
+
+        return PriceExtractionStatsResponse.builder()
+                .pages(pages)
+                .structuredHits(structured)
+                .structuredHitRate(pages == 0 ? 0.0 : (double) structured / pages)
+                .sites(siteStats)
+                .build();
+    }
+
+    private static final class SiteCounters {
+        private final LongAdder pages = new LongAdder();
+        private final LongAdder jsonLdHits = new LongAdder();
+        private final LongAdder microdataHits = new LongAdder();
+        private final LongAdder selectorHits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+
+        PriceExtractionStatsResponse.SiteStats toStats() {
+            long total = pages.sum();
+            long structured = jsonLdHits.sum() + microdataHits.sum();
+
+            return PriceExtractionStatsResponse.SiteStats.builder()
+                    .pages(total)
+                    .jsonLdHits(jsonLdHits.sum())
+                    .microdataHits(microdataHits.sum())
+                    .selectorHits(selectorHits.sum())
+                    .misses(misses.sum())
+                    .structuredHitRate(total == 0 ? 0.0 : (double) structured / total)
+                    .build();
+        }
+    }
+}
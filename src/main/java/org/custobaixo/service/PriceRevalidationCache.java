@@ -0,0 +1,142 @@
+package org.custobaixo.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.custobaixo.config.HttpClientProperties;
+import org.custobaixo.dto.RevalidationStatsResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Guarda ETag/Last-Modified e o último preço extraído por URL. Na próxima verificação a página
+// é revalidada com uma requisição condicional; se o site responder 304, o preço guardado é
+// reaproveitado sem baixar nem interpretar o HTML.
+@Component
+@Slf4j
+public class PriceRevalidationCache {
+
+    private final PageFetcher pageFetcher;
+    private final Map<String, CachedPrice> entries;
+    private final Map<String, SiteCounters> siteCounters = new ConcurrentHashMap<>();
+
+    public PriceRevalidationCache(PageFetcher pageFetcher, HttpClientProperties properties) {
+        this.pageFetcher = pageFetcher;
+        int maxEntries = Math.max(1, properties.getRevalidationCacheSize());
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedPrice> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public BigDecimal fetchPrice(String url, Duration timeout,
+                                 PageFetcher.BodyReader<StreamingPriceExtractor.Result> priceReader) throws IOException {
+        String key = ProductUrls.normalize(url);
+        SiteCounters counters = siteCounters.computeIfAbsent(SiteDomains.resolve(url), domain -> new SiteCounters());
+        CachedPrice cached = get(key);
+
+        counters.lookups.increment();
+        if (cached != null) {
+            counters.conditionalRequests.increment();
+        }
+
+        PageFetcher.Page<StreamingPriceExtractor.Result> page = pageFetcher.fetchIfModified(url, timeout,
+                cached != null ? cached.etag() : null, cached != null ? cached.lastModified() : null, priceReader);
+
+        if (page.notModified() && cached != null) {
+            counters.notModifiedHits.increment();
+            counters.bytesSaved.add(cached.bodyBytes());
+            log.debug("Página não modificada, reutilizando preço {} de {}", cached.price(), url);
+            return cached.price();
+        }
+
+        if (page.notModified()) {
+            log.warn("Site respondeu 304 sem validadores na requisição: {}", url);
+            return null;
+        }
+
+        counters.bytesDownloaded.add(page.bytesReceived());
+        store(key, page);
+        return page.content().price();
+    }
+
+    public RevalidationStatsResponse getStats() {
+        Map<String, RevalidationStatsResponse.SiteStats> sites = new TreeMap<>();
+        siteCounters.forEach((domain, counters) -> sites.put(domain, counters.toStats()));
+
+        long lookups = sites.values().stream().mapToLong(RevalidationStatsResponse.SiteStats::getLookups).sum();
+        long hits = sites.values().stream().mapToLong(RevalidationStatsResponse.SiteStats::getNotModifiedHits).sum();
+
+        return RevalidationStatsResponse.builder()
+                .cachedUrls(size())
+                .lookups(lookups)
+                .notModifiedHits(hits)
+                .hitRatio(lookups == 0 ? 0.0 : (double) hits / lookups)
+                .bytesSaved(sites.values().stream().mapToLong(RevalidationStatsResponse.SiteStats::getBytesSaved).sum())
+                .sites(sites)
+                .build();
+    }
+
+    // MÉTODOS AUXILIARES
+
+    // Só vale guardar quando há preço e o site mandou algum validador
+    private void store(String key, PageFetcher.Page<StreamingPriceExtractor.Result> page) {
+        BigDecimal price = page.content().price();
+        synchronized (entries) {
+            if (price != null && (page.etag() != null || page.lastModified() != null)) {
+                entries.put(key, new CachedPrice(page.etag(), page.lastModified(), price, bodySize(page)));
+            } else {
+                entries.remove(key);
+            }
+        }
+    }
+
+    // Tamanho da página inteira que um 304 poupa; sem Content-Length (corpo chunked), só o que foi lido
+    private long bodySize(PageFetcher.Page<?> page) {
+        return page.contentLength() >= 0 ? page.contentLength() : page.bytesReceived();
+    }
+
+    private CachedPrice get(String key) {
+        synchronized (entries) {
+            return entries.get(key);
+        }
+    }
+
+    private int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private record CachedPrice(String etag, String lastModified, BigDecimal price, long bodyBytes) {
+    }
+
+    private static final class SiteCounters {
+        private final LongAdder lookups = new LongAdder();
+        private final LongAdder conditionalRequests = new LongAdder();
+        private final LongAdder notModifiedHits = new LongAdder();
+        private final LongAdder bytesSaved = new LongAdder();
+        private final LongAdder bytesDownloaded = new LongAdder();
+
+        RevalidationStatsResponse.SiteStats toStats() {
+            long total = lookups.sum();
+            long hits = notModifiedHits.sum();
+
+            return RevalidationStatsResponse.SiteStats.builder()
+                    .lookups(total)
+                    .conditionalRequests(conditionalRequests.sum())
+                    .notModifiedHits(hits)
+                    .hitRatio(total == 0 ? 0.0 : (double) hits / total)
+                    .bytesSaved(bytesSaved.sum())
+                    .bytesDownloaded(bytesDownloaded.sum())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package org.custobaixo.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.custobaixo.config.PersistenceProperties;
+import org.custobaixo.config.SchedulerProperties;
+import org.custobaixo.dto.PersistenceStatsResponse;
+import org.custobaixo.entity.ProductMonitor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Acumula os resultados das verificações de preço e grava em lote via JDBC,
+// tirando o UPDATE de cada produto do caminho do scraping
+@Component
+@Slf4j
+public class PriceUpdateSink {
+
+    // A reserva só é liberada se for desta instância: uma verificação pela API ou pelo job em lote
+    // não solta o lease que outra instância tomou depois que o produto foi lido
+    private static final String UPDATE_SQL = "UPDATE product_monitor SET current_price = ?, last_checked = ?, " +
+            "notification_sent = ?, next_check_at = ?, check_interval_seconds = ?, " +
+            "lease_owner = CASE WHEN lease_owner = ? THEN NULL ELSE lease_owner END, " +
+            "lease_expires_at = CASE WHEN lease_owner = ? THEN NULL ELSE lease_expires_at END, " +
+            "updated_at = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PersistenceProperties properties;
+    private final String nodeId;
+    private final ScheduledExecutorService flusher;
+
+    // Uma atualização pendente por produto: a mais nova substitui a anterior
+    private final Map<Long, PriceUpdate> pending = new LinkedHashMap<>();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    private final AtomicLong flushCount = new AtomicLong();
+    private final AtomicLong failedFlushCount = new AtomicLong();
+    private final LongAdder updatesWritten = new LongAdder();
+    private final LongAdder updatesCoalesced = new LongAdder();
+    private final AtomicLong totalFlushMillis = new AtomicLong();
+    private final AtomicLong lastFlushMillis = new AtomicLong();
+    private final AtomicLong maxFlushMillis = new AtomicLong();
+    private final AtomicInteger lastBatchSize = new AtomicInteger();
+    private final AtomicInteger maxBatchSize = new AtomicInteger();
+
+    public PriceUpdateSink(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, PersistenceProperties properties,
+                           SchedulerProperties schedulerProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.nodeId = schedulerProperties.getNodeId();
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "gravacao-precos");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long intervalMillis = properties.getFlushInterval().toMillis();
+        flusher.scheduleWithFixedDelay(this::flushQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // Registrar o estado verificado do produto para gravação no próximo lote
+    public void enqueue(ProductMonitor product) {
+        PriceUpdate update = PriceUpdate.from(product);
+        int size;
+
+        synchronized (pending) {
+            if (pending.put(update.id(), update) != null) {
+                updatesCoalesced.increment();
+            }
+            size = pending.size();
+        }
+
+        if (size >= properties.getBatchSize() && flushRequested.compareAndSet(false, true)) {
+            flusher.execute(this::flushQuietly);
+        }
+    }
+
+    private void flushQuietly() {
+        flushRequested.set(false);
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Erro ao gravar lote de preços: {}", e.getMessage(), e);
+        }
+    }
+
+    private void flush() {
+        List<PriceUpdate> batch = drainPending();
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(UPDATE_SQL, batch, batch.size(), (statement, update) -> {
+                        statement.setBigDecimal(1, update.currentPrice());
+                        statement.setTimestamp(2, toTimestamp(update.lastChecked()));
+                        statement.setObject(3, update.notificationSent(), Types.BOOLEAN);
+                        statement.setTimestamp(4, toTimestamp(update.nextCheckAt()));
+                        statement.setObject(5, update.checkIntervalSeconds(), Types.BIGINT);
+                        statement.setString(6, nodeId);
+                        statement.setString(7, nodeId);
+                        statement.setTimestamp(8, toTimestamp(LocalDateTime.now()));
+                        statement.setLong(9, update.id());
+                    }));
+        } catch (RuntimeException e) {
+            failedFlushCount.incrementAndGet();
+            requeue(batch);
+            throw e;
+        }
+
+        recordFlush(batch.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        log.debug("Lote de {} preços gravado", batch.size());
+    }
+
+    private List<PriceUpdate> drainPending() {
+        synchronized (pending) {
+            List<PriceUpdate> batch = new ArrayList<>(pending.values());
+            pending.clear();
+            return batch;
+        }
+    }
+
+    // Devolve ao buffer o que falhou, sem sobrescrever atualizações mais novas
+    private void requeue(List<PriceUpdate> batch) {
+        synchronized (pending) {
+            batch.forEach(update -> pending.putIfAbsent(update.id(), update));
+        }
+    }
+
+    private void recordFlush(int batchSize, long elapsedMillis) {
+        flushCount.incrementAndGet();
+        updatesWritten.add(batchSize);
+        totalFlushMillis.addAndGet(elapsedMillis);
+        lastFlushMillis.set(elapsedMillis);
+        maxFlushMillis.accumulateAndGet(elapsedMillis, Math::max);
+        lastBatchSize.set(batchSize);
+        maxBatchSize.accumulateAndGet(batchSize, Math::max);
+    }
+
+    public PersistenceStatsResponse getStats() {
+        long flushes = flushCount.get();
+        int pendingUpdates;
+        synchronized (pending) {
+            pendingUpdates = pending.size();
+        }
+
+        return PersistenceStatsResponse.builder()
+                .pendingUpdates(pendingUpdates)
+                .flushCount(flushes)
+                .failedFlushCount(failedFlushCount.get())
+                .updatesWritten(updatesWritten.sum())
+                .updatesCoalesced(updatesCoalesced.sum())
+                .lastBatchSize(lastBatchSize.get())
+                .maxBatchSize(maxBatchSize.get())
+                .averageBatchSize(flushes == 0 ? 0 : (double) updatesWritten.sum() / flushes)
+                .lastFlushMillis(lastFlushMillis.get())
+                .maxFlushMillis(maxFlushMillis.get())
+                .averageFlushMillis(flushes == 0 ? 0 : (double) totalFlushMillis.get() / flushes)
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        log.info("Gravando preços pendentes antes de encerrar...");
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushQuietly();
+    }
+
+    private static Timestamp toTimestamp(LocalDateTime value) {
+        return value != null ? Timestamp.valueOf(value) : null;
+    }
+
+    private record PriceUpdate(Long id, BigDecimal currentPrice, LocalDateTime lastChecked, Boolean notificationSent,
+                               LocalDateTime nextCheckAt, Long checkIntervalSeconds) {
+
+        static PriceUpdate from(ProductMonitor product) {
+            return new PriceUpdate(product.getId(), product.getCurrentPrice(), product.getLastChecked(),
+                    product.getNotificationSent(), product.getNextCheckAt(), product.getCheckIntervalSeconds());
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package org.custobaixo.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.custobaixo.config.VerificationProperties;
+import org.custobaixo.entity.ProductMonitor;
+import org.custobaixo.model.VerificationResult;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+@Service
+@Slf4j
+public class PriceVerificationEngine {
+
+    private final VerificationProperties properties;
+    private final ExecutorService executor;
+
+    // Uma fila por domínio, compartilhada entre todas as execuções (scheduler e API)
+    private final Map<String, DomainLane> lanes = new ConcurrentHashMap<>();
+
+    public PriceVerificationEngine(VerificationProperties properties) {
+        this.properties = properties;
+        this.executor = Executors.newFixedThreadPool(Math.max(1, properties.getMaxConcurrency()), verificationThreadFactory());
+        log.info("Motor de verificação iniciado - {} threads, limites por domínio: {}",
+                properties.getMaxConcurrency(), properties.getDomainConcurrency());
+    }
+
+    // EXECUTAR VERIFICAÇÕES EM PARALELO E CONSOLIDAR O RESULTADO
+    public VerificationResult verifyAll(List<ProductMonitor> products, Function<ProductMonitor, VerificationResult> verifier) {
+        return verifyAll(products, ProductMonitor::getProductUrl, verifier);
+    }
+
+    // Variante genérica: cada item é roteado pela fila do domínio da sua URL
+    public <T> VerificationResult verifyAll(List<T> items, Function<T, String> urlOf, Function<T, VerificationResult> verifier) {
+        if (items.isEmpty()) {
+            return VerificationResult.empty();
+        }
+
+        List<CompletableFuture<VerificationResult>> futures = new ArrayList<>(items.size());
+        for (T item : items) {
+            futures.add(submit(item, SiteDomains.resolve(urlOf.apply(item)), verifier));
+        }
+
+        return futures.stream()
+                .map(CompletableFuture::join)
+                .reduce(VerificationResult.empty(), VerificationResult::merge);
+    }
+
+    private <T> CompletableFuture<VerificationResult> submit(T item, String domain, Function<T, VerificationResult> verifier) {
+        CompletableFuture<VerificationResult> future = new CompletableFuture<>();
+
+        laneFor(domain).submit(() -> {
+            try {
+                future.complete(verifier.apply(item));
+            } catch (Exception e) {
+                log.error("Erro ao verificar item do domínio {}: {}", domain, e.getMessage());
+                future.complete(VerificationResult.builder().errorCount(1).build());
+            }
+        }, () -> future.complete(VerificationResult.builder().errorCount(1).build()));
+
+        return future;
+    }
+
+    private DomainLane laneFor(String domain) {
+        return lanes.computeIfAbsent(domain, key -> new DomainLane(key, properties.limitFor(key)));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        log.info("Encerrando motor de verificação...");
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ThreadFactory verificationThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "verificacao-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    // FILA POR DOMÍNIO
+    // Libera no máximo "limit" tarefas do domínio para o executor; as demais aguardam
+    // aqui sem ocupar threads, para que um site lento não bloqueie os outros.
+    private final class DomainLane {
+        private final String domain;
+        private final int limit;
+        private final Queue<PendingTask> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger running = new AtomicInteger();
+
+        private DomainLane(String domain, int limit) {
+            this.domain = domain;
+            this.limit = limit;
+        }
+
+        void submit(Runnable task, Runnable onRejected) {
+            pending.add(new PendingTask(task, onRejected));
+            drain();
+        }
+
+        private void drain() {
+            while (!pending.isEmpty()) {
+                int current = running.get();
+                if (current >= limit) {
+                    return;
+                }
+                if (!running.compareAndSet(current, current + 1)) {
+                    continue;
+                }
+
+                PendingTask next = pending.poll();
+                if (next == null) {
+                    running.decrementAndGet();
+                    continue;
+                }
+
+                dispatch(next);
+            }
+        }
+
+        private void dispatch(PendingTask next) {
+            try {
+                executor.execute(() -> {
+                    try {
+                        next.task().run();
+                    } finally {
+                        running.decrementAndGet();
+                        drain();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                log.warn("Verificação rejeitada para o domínio {}: executor encerrado", domain);
+                running.decrementAndGet();
+                next.onRejected().run();
+            }
+        }
+    }
+
+    private record PendingTask(Runnable task, Runnable onRejected) {
+    }
+}
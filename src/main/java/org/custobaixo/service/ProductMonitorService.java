@@ -2,16 +2,19 @@ package org.custobaixo.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.custobaixo.config.SchedulerProperties;
 import org.custobaixo.entity.ProductCategory;
 import org.custobaixo.entity.ProductMonitor;
 import org.custobaixo.repository.ProductMonitorRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
@@ -21,6 +24,10 @@ public class ProductMonitorService {
 
     private final ProductMonitorRepository repository;
     private final WebScrapingService webScrapingService;
+    private final CheckIntervalPolicy checkIntervalPolicy;
+    private final SingleFlightRegistry singleFlightRegistry;
+    private final SchedulerProperties schedulerProperties;
+    private final PriceUpdateSink priceUpdateSink;
 
     // Criar novo produto para monitoramento
     public ProductMonitor createProduct(ProductMonitor product) {
@@ -38,6 +45,7 @@ public class ProductMonitorService {
 
         product.setIsActive(true);
         product.setNotificationSent(false);
+        product.setNextCheckAt(LocalDateTime.now());
 
         return repository.save(product);
     }
@@ -66,6 +74,39 @@ public class ProductMonitorService {
         return repository.findById(id);
     }
 
+    // Reservar para esta instância os próximos produtos com verificação vencida
+    public List<ProductMonitor> claimDueProducts(int batchSize) {
+        LocalDateTime now = LocalDateTime.now();
+        return claim(repository.lockDueProducts(now, batchSize), now);
+    }
+
+    // Reservar para esta instância os próximos produtos críticos com verificação vencida
+    public List<ProductMonitor> claimDueCriticalProducts(int batchSize) {
+        LocalDateTime now = LocalDateTime.now();
+        return claim(repository.lockDueCriticalProducts(now, batchSize), now);
+    }
+
+    // Produtos criados antes da fila existir entram nela imediatamente
+    public int initializeCheckQueue() {
+        return repository.initializeMissingNextCheck(LocalDateTime.now());
+    }
+
+    // Devolver à fila os produtos reservados por esta instância
+    public int releaseLeases() {
+        return repository.releaseLeases(schedulerProperties.getNodeId());
+    }
+
+    // As linhas continuam bloqueadas (FOR UPDATE) até o commit desta transação,
+    // então nenhuma outra instância consegue reservar o mesmo produto
+    private List<ProductMonitor> claim(List<ProductMonitor> dueProducts, LocalDateTime now) {
+        LocalDateTime leaseUntil = checkIntervalPolicy.leaseUntil(now);
+        dueProducts.forEach(product -> {
+            product.setLeaseOwner(schedulerProperties.getNodeId());
+            product.setLeaseExpiresAt(leaseUntil);
+        });
+        return repository.saveAll(dueProducts);
+    }
+
     // Atualizar produto
     public ProductMonitor updateProduct(ProductMonitor product) {
         log.info("Atualizando produto: {}", product.getId());
@@ -82,110 +123,112 @@ public class ProductMonitorService {
     }
 
     // Verificar preço de um produto específico por ID
+    // Chamadas simultâneas (scheduler e API) para o mesmo ID compartilham a mesma verificação.
+    // As verificações rodam fora de transação: o scraping não segura conexão do banco
+    // e a gravação do resultado fica com o PriceUpdateSink.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ProductMonitor checkProductPrice(Long id) {
-        log.info("Verificando preço do produto ID: {}", id);
-
-        Optional<ProductMonitor> productOpt = repository.findById(id);
-        if (productOpt.isEmpty()) {
-            log.warn("Produto ID {} não encontrado", id);
-            return null;
-        }
-
-        ProductMonitor product = productOpt.get();
+        return singleFlightRegistry.checkProduct(id, () -> {
+            log.info("Verificando preço do produto ID: {}", id);
 
-        try {
-            // Extrair preço atual
-            BigDecimal currentPrice = webScrapingService.extractPrice(product);
+            Optional<ProductMonitor> productOpt = repository.findById(id);
+            if (productOpt.isEmpty()) {
+                log.warn("Produto ID {} não encontrado", id);
+                return null;
+            }
 
-            if (currentPrice != null) {
-                // Atualizar preço atual
-                product.setCurrentPrice(currentPrice);
-                product.setLastChecked(LocalDateTime.now());
+            return applyPriceCheck(productOpt.get());
+        });
+    }
 
-                log.info("Produto {}: Preço atual R$ {}, Alvo R$ {}",
-                        product.getId(), currentPrice, product.getTargetPrice());
+    // Verificar preço de um produto específico (método original mantido)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void checkProductPrice(ProductMonitor product) {
+        checkOnce(product, () -> applyPriceCheck(product));
+    }
 
-                // Verificar se preço alvo foi atingido
-                if (currentPrice.compareTo(product.getTargetPrice()) <= 0) {
-                    log.info(" PREÇO ALVO ATINGIDO! Produto {}: R$ {} (Alvo: R$ {})",
-                            product.getId(), currentPrice, product.getTargetPrice());
+    // Verificar vários produtos que monitoram a mesma página com um único download.
+    // Cada produto passa pelo mesmo single-flight da verificação individual.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<ProductMonitor> checkProductsSharingUrl(List<ProductMonitor> products) {
+        ProductMonitor first = products.get(0);
+        log.info("Verificando {} produtos com um único download: {}", products.size(), first.getProductUrl());
 
-                    // Marcar para notificação
-                    product.setNotificationSent(false); // Para enviar notificação
-                }
+        BigDecimal currentPrice = webScrapingService.extractPrice(first);
 
-                // Salvar atualizações
-                return repository.save(product);
-            } else {
-                log.warn("Não foi possível extrair preço do produto: {}", product.getId());
-                return product;
-            }
+        return products.stream()
+                .map(product -> checkOnce(product, () -> applyExtractedPrice(product, currentPrice)))
+                .toList();
+    }
 
-        } catch (Exception e) {
-            log.error("Erro ao verificar preço do produto: {}", product.getId(), e);
-            return product;
+    // Se outra chamada fez a verificação do produto, refletir o resultado na instância recebida
+    private ProductMonitor checkOnce(ProductMonitor product, Supplier<ProductMonitor> check) {
+        ProductMonitor checked = singleFlightRegistry.checkProduct(product.getId(), check);
+        if (checked != null && checked != product) {
+            copyCheckState(checked, product);
         }
+        return product;
     }
 
-    // Verificar preço de um produto específico (método original mantido)
-    public void checkProductPrice(ProductMonitor product) {
-        try {
-            log.info("Verificando preço do produto: {} ({})", product.getId(), product.getProductName());
-
-            // Extrair preço atual
-            BigDecimal currentPrice = webScrapingService.extractPrice(product);
+    private ProductMonitor applyPriceCheck(ProductMonitor product) {
+        // Extrair preço atual
+        return applyExtractedPrice(product, webScrapingService.extractPrice(product));
+    }
 
+    private ProductMonitor applyExtractedPrice(ProductMonitor product, BigDecimal currentPrice) {
+        try {
             if (currentPrice != null) {
+                boolean priceChanged = product.getCurrentPrice() != null &&
+                        product.getCurrentPrice().compareTo(currentPrice) != 0;
+
                 // Atualizar preço atual
                 product.setCurrentPrice(currentPrice);
                 product.setLastChecked(LocalDateTime.now());
+                product.setNextCheckAt(checkIntervalPolicy.nextCheckAt(product, product.getLastChecked(), priceChanged));
+                releaseOwnLease(product);
 
-                log.info(" Produto {}: Preço atual R$ {}, Alvo R$ {}",
+                log.info("Produto {}: Preço atual R$ {}, Alvo R$ {}",
                         product.getId(), currentPrice, product.getTargetPrice());
 
                 // Verificar se preço alvo foi atingido
                 if (currentPrice.compareTo(product.getTargetPrice()) <= 0) {
-                    log.info("PREÇO ALVO ATINGIDO! Produto {}: R$ {} (Alvo: R$ {})",
+                    log.info(" PREÇO ALVO ATINGIDO! Produto {}: R$ {} (Alvo: R$ {})",
                             product.getId(), currentPrice, product.getTargetPrice());
 
                     // Marcar para notificação
                     product.setNotificationSent(false); // Para enviar notificação
-
-                    // Opcional: desativar monitoramento após atingir o alvo
-                    // product.setIsActive(false);
                 }
 
-                // Salvar atualizações
-                repository.save(product);
+                // Salvar atualizações (gravadas em lote pelo PriceUpdateSink)
+                priceUpdateSink.enqueue(product);
+                return product;
             } else {
-                log.warn(" Não foi possível extrair preço do produto: {}", product.getId());
+                log.warn("Não foi possível extrair preço do produto: {}", product.getId());
+                return product;
             }
 
         } catch (Exception e) {
             log.error("Erro ao verificar preço do produto: {}", product.getId(), e);
+            return product;
         }
     }
 
-    // Verificar todos os produtos ativos
-    public void checkAllActivePrices() {
-        log.info("Iniciando verificação de preços de todos os produtos ativos");
-
-        List<ProductMonitor> activeProducts = repository.findByIsActiveTrue();
-        log.info("Encontrados {} produtos ativos para verificação", activeProducts.size());
-
-        for (ProductMonitor product : activeProducts) {
-            try {
-                checkProductPrice(product);
-
-                // Pequena pausa entre verificações para não sobrecarregar os sites
-                Thread.sleep(1000); // 1 segundo
-
-            } catch (Exception e) {
-                log.error("Erro ao verificar produto: {}", product.getId(), e);
-            }
+    // Só a instância que reservou o produto solta a reserva; a de outro nó segue até expirar
+    private void releaseOwnLease(ProductMonitor product) {
+        if (schedulerProperties.getNodeId().equals(product.getLeaseOwner())) {
+            product.setLeaseOwner(null);
+            product.setLeaseExpiresAt(null);
         }
+    }
 
-        log.info("Verificação de preços concluída");
+    private void copyCheckState(ProductMonitor source, ProductMonitor target) {
+        target.setCurrentPrice(source.getCurrentPrice());
+        target.setLastChecked(source.getLastChecked());
+        target.setNextCheckAt(source.getNextCheckAt());
+        target.setCheckIntervalSeconds(source.getCheckIntervalSeconds());
+        target.setLeaseOwner(source.getLeaseOwner());
+        target.setLeaseExpiresAt(source.getLeaseExpiresAt());
+        target.setNotificationSent(source.getNotificationSent());
     }
 
     // Buscar produtos que atingiram o preço alvo
@@ -0,0 +1,65 @@
+package org.custobaixo.service;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+// Normaliza URLs de produto para que variações da mesma página tenham a mesma chave
+public final class ProductUrls {
+
+    private ProductUrls() {
+    }
+
+    public static String normalize(String url) {
+        if (url == null) {
+            return "";
+        }
+
+        String clean = url.trim();
+        if (clean.startsWith("\"") && clean.endsWith("\"") && clean.length() > 1) {
+            clean = clean.substring(1, clean.length() - 1);
+        }
+
+        int fragment = clean.indexOf('#');
+        if (fragment >= 0) {
+            clean = clean.substring(0, fragment);
+        }
+
+        String query = "";
+        int queryStart = clean.indexOf('?');
+        if (queryStart >= 0) {
+            query = stripTrackingParameters(clean.substring(queryStart + 1));
+            clean = clean.substring(0, queryStart);
+        }
+
+        clean = lowerCaseSchemeAndHost(clean);
+        if (clean.endsWith("/")) {
+            clean = clean.substring(0, clean.length() - 1);
+        }
+
+        return query.isEmpty() ? clean : clean + "?" + query;
+    }
+
+    private static String lowerCaseSchemeAndHost(String url) {
+        int schemeEnd = url.indexOf("://");
+        int pathStart = schemeEnd >= 0 ? url.indexOf('/', schemeEnd + 3) : -1;
+        if (pathStart < 0) {
+            return url.toLowerCase(Locale.ROOT);
+        }
+        return url.substring(0, pathStart).toLowerCase(Locale.ROOT) + url.substring(pathStart);
+    }
+
+    // Remove parâmetros de rastreamento que não mudam o conteúdo da página
+    private static String stripTrackingParameters(String query) {
+        return Arrays.stream(query.split("&"))
+                .filter(parameter -> !parameter.isEmpty())
+                .filter(parameter -> !isTrackingParameter(parameter.split("=", 2)[0].toLowerCase(Locale.ROOT)))
+                .sorted()
+                .collect(Collectors.joining("&"));
+    }
+
+    private static boolean isTrackingParameter(String name) {
+        return name.startsWith("utm_") || name.equals("ref") || name.equals("ref_") ||
+                name.equals("gclid") || name.equals("fbclid") || name.equals("tracking_id");
+    }
+}
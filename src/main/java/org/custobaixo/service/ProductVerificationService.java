@@ -0,0 +1,116 @@
+package org.custobaixo.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.custobaixo.entity.ProductMonitor;
+import org.custobaixo.model.VerificationResult;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+// Verifica listas de produtos no motor concorrente; usado pelo scheduler e pelos jobs da API
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductVerificationService {
+
+    private final ProductMonitorService productService;
+    private final PriceVerificationEngine verificationEngine;
+
+    public VerificationResult verifyProducts(List<ProductMonitor> products) {
+        return verifyProducts(products, () -> false, result -> { });
+    }
+
+    // Produtos com a mesma URL canônica são verificados com um único download por rodada.
+    // Grupos ainda na fila quando "cancelled" passa a ser verdadeiro são pulados.
+    public VerificationResult verifyProducts(List<ProductMonitor> products, BooleanSupplier cancelled,
+                                             Consumer<VerificationResult> onGroupVerified) {
+        List<List<ProductMonitor>> urlGroups = new ArrayList<>(products.stream()
+                .collect(Collectors.groupingBy(product -> ProductUrls.normalize(product.getProductUrl()),
+                        LinkedHashMap::new, Collectors.toList()))
+                .values());
+
+        return verificationEngine.verifyAll(urlGroups, group -> group.get(0).getProductUrl(), group -> {
+            if (cancelled.getAsBoolean()) {
+                return VerificationResult.empty();
+            }
+
+            VerificationResult result = verifyUrlGroup(group);
+            onGroupVerified.accept(result);
+            return result;
+        });
+    }
+
+    // MÉTODOS AUXILIARES
+
+    private VerificationResult verifyUrlGroup(List<ProductMonitor> group) {
+        return group.size() == 1 ? verifyProduct(group.get(0)) : verifySharedUrl(group);
+    }
+
+    private VerificationResult verifyProduct(ProductMonitor product) {
+        try {
+            // O produto já está carregado; verificar sem buscar de novo no banco
+            BigDecimal oldPrice = product.getCurrentPrice();
+            productService.checkProductPrice(product);
+
+            return VerificationResult.builder()
+                    .successCount(1)
+                    .targetReachedCount(countTargetReached(product))
+                    .priceChangedCount(countPriceChanged(oldPrice, product))
+                    .build();
+
+        } catch (Exception e) {
+            log.error("Erro ao verificar produto ID {}: {}", product.getId(), e.getMessage());
+            return VerificationResult.builder().errorCount(1).build();
+        }
+    }
+
+    private VerificationResult verifySharedUrl(List<ProductMonitor> group) {
+        try {
+            List<BigDecimal> oldPrices = group.stream().map(ProductMonitor::getCurrentPrice).toList();
+            List<ProductMonitor> updatedProducts = productService.checkProductsSharingUrl(group);
+
+            VerificationResult result = VerificationResult.builder()
+                    .fetchesSavedCount(group.size() - 1)
+                    .build();
+            for (int i = 0; i < updatedProducts.size(); i++) {
+                ProductMonitor updatedProduct = updatedProducts.get(i);
+                result = result.merge(VerificationResult.builder()
+                        .successCount(1)
+                        .targetReachedCount(countTargetReached(updatedProduct))
+                        .priceChangedCount(countPriceChanged(oldPrices.get(i), updatedProduct))
+                        .build());
+            }
+            return result;
+
+        } catch (Exception e) {
+            log.error("Erro ao verificar {} produtos da URL {}: {}", group.size(), group.get(0).getProductUrl(), e.getMessage());
+            return VerificationResult.builder().errorCount(group.size()).build();
+        }
+    }
+
+    // CÁLCULOS SIMPLES
+
+    private int countTargetReached(ProductMonitor product) {
+        return isTargetPriceReached(product) ? 1 : 0;
+    }
+
+    private int countPriceChanged(BigDecimal oldPrice, ProductMonitor product) {
+        return (oldPrice != null && !oldPrice.equals(product.getCurrentPrice())) ? 1 : 0;
+    }
+
+    private boolean hasValidPrices(ProductMonitor product) {
+        return product.getCurrentPrice() != null && product.getTargetPrice() != null;
+    }
+
+    private boolean isTargetPriceReached(ProductMonitor product) {
+        return hasValidPrices(product) &&
+                product.getCurrentPrice().compareTo(product.getTargetPrice()) <= 0;
+    }
+}
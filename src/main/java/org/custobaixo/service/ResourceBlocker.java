@@ -0,0 +1,73 @@
+package org.custobaixo.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.custobaixo.config.ResourceBlockingProperties;
+import org.openqa.selenium.chromium.HasCdp;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Bloqueia imagens, fontes, vídeos, CSS e rastreadores nas páginas do Selenium via Chrome DevTools
+// (Network.setBlockedURLs). Nome, preço e link de um produto não dependem de nada disso.
+// A lista é por site: antes de cada navegação o navegador recebe a lista do site de destino,
+// e o comando só é reenviado quando ela muda.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ResourceBlocker {
+
+    // setBlockedURLs trabalha com padrões de URL; cada tipo vira as extensões que o representam
+    private static final Map<String, List<String>> TYPE_PATTERNS = Map.of(
+            "image", List.of("*.png*", "*.jpg*", "*.jpeg*", "*.gif*", "*.webp*", "*.avif*", "*.svg*", "*.ico*"),
+            "font", List.of("*.woff*", "*.woff2*", "*.ttf*", "*.otf*", "*.eot*"),
+            "media", List.of("*.mp4*", "*.webm*", "*.m3u8*", "*.mp3*"),
+            "stylesheet", List.of("*.css*")
+    );
+
+    private final ResourceBlockingProperties properties;
+
+    // Aplica a lista do site no navegador; true quando há algum bloqueio ativo
+    public boolean apply(BrowserSession session, String site) {
+        List<String> patterns = patternsFor(site);
+        if (patterns.equals(session.getBlockedUrlPatterns())) {
+            return !patterns.isEmpty();
+        }
+        if (!(session.driver() instanceof HasCdp cdp)) {
+            return false;
+        }
+
+        try {
+            if (session.getBlockedUrlPatterns() == null) {
+                cdp.executeCdpCommand("Network.enable", Map.of());
+            }
+            cdp.executeCdpCommand("Network.setBlockedURLs", Map.of("urls", patterns));
+            session.setBlockedUrlPatterns(patterns);
+            log.debug("Bloqueio de recursos em {}: {} padrões", site, patterns.size());
+            return !patterns.isEmpty();
+        } catch (Exception e) {
+            log.warn("Não foi possível aplicar bloqueio de recursos em {}: {}", site, e.getMessage());
+            return false;
+        }
+    }
+
+    private List<String> patternsFor(String site) {
+        if (!properties.isEnabled() || properties.getDisabledSites().contains(site)) {
+            return List.of();
+        }
+
+        List<String> allowed = properties.getSiteAllowedTypes().getOrDefault(site, List.of());
+        List<String> patterns = new ArrayList<>();
+        for (String type : properties.getBlockedTypes()) {
+            if (!allowed.contains(type)) {
+                patterns.addAll(TYPE_PATTERNS.getOrDefault(type, List.of()));
+            }
+        }
+        for (String domain : properties.getBlockedDomains()) {
+            patterns.add("*" + domain + "*");
+        }
+        return patterns;
+    }
+}
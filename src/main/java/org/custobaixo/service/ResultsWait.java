@@ -0,0 +1,77 @@
+package org.custobaixo.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.custobaixo.config.ResultsWaitProperties;
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Espera a lista de resultados terminar de renderizar: retorna assim que a quantidade de cards
+// de produto para de crescer por uma janela curta, ou no prazo máximo do site.
+// Substitui a espera por "body" e por um único seletor, que passavam cedo demais ou tarde demais.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ResultsWait {
+
+    // Maior contagem entre os seletores, numa única ida ao navegador; seletor inválido conta zero
+    private static final String COUNT_SCRIPT = """
+            var best = 0;
+            for (var i = 0; i < arguments[0].length; i++) {
+                try { best = Math.max(best, document.querySelectorAll(arguments[0][i]).length); } catch (e) {}
+            }
+            return best;""";
+
+    private final ResultsWaitProperties properties;
+    private final SeleniumSearchStats searchStats;
+
+    // Quantidade de produtos quando a página estabilizou (0 se o prazo acabou sem nenhum)
+    public int awaitStableResults(WebDriver driver, String site, String... productSelectors) {
+        List<String> selectors = List.of(productSelectors);
+        long quietNanos = properties.getQuietWindow().toNanos();
+        long start = System.nanoTime();
+        long[] lastChange = {start};
+        int[] lastCount = {-1};
+
+        WebDriverWait wait = new WebDriverWait(driver, properties.deadlineFor(site), properties.getPollInterval());
+        wait.ignoring(JavascriptException.class); // documento trocando no meio da contagem
+        try {
+            int count = wait.until(d -> {
+                int current = countProducts(d, selectors);
+                long now = System.nanoTime();
+                if (current != lastCount[0]) {
+                    lastCount[0] = current;
+                    lastChange[0] = now;
+                    return null;
+                }
+                return current > 0 && now - lastChange[0] >= quietNanos ? current : null;
+            });
+            long waited = elapsedMillis(start);
+            searchStats.recordResultsWait(site, waited, false);
+            log.info("{} produtos estáveis em {} após {} ms", count, site, waited);
+            return count;
+        } catch (TimeoutException e) {
+            long waited = elapsedMillis(start);
+            searchStats.recordResultsWait(site, waited, true);
+            log.warn("Prazo de {} ms esgotado aguardando produtos em {} ({} encontrados)",
+                    waited, site, Math.max(0, lastCount[0]));
+            return Math.max(0, lastCount[0]);
+        }
+    }
+
+    private int countProducts(WebDriver driver, List<String> selectors) {
+        Object count = ((JavascriptExecutor) driver).executeScript(COUNT_SCRIPT, selectors);
+        return count instanceof Number number ? number.intValue() : 0;
+    }
+
+    private long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+}
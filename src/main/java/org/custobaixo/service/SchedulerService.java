@@ -2,18 +2,17 @@ package org.custobaixo.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.custobaixo.config.SchedulerProperties;
 import org.custobaixo.entity.ProductMonitor;
-import org.custobaixo.entity.ProductCategory;
 import org.custobaixo.model.VerificationResult;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
-import java.time.LocalDateTime;
-import java.math.RoundingMode;
 import java.util.List;
-import java.util.function.Predicate;
-import java.util.stream.Collectors;
+import java.util.function.IntFunction;
 
 @Service
 @RequiredArgsConstructor
@@ -21,23 +20,35 @@ import java.util.stream.Collectors;
 public class SchedulerService {
 
     private final ProductMonitorService productService;
+    private final ProductVerificationService verificationService;
+    private final SchedulerProperties schedulerProperties;
 
     // SCHEDULER PRINCIPAL
 
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeCheckQueue() {
+        executeWithErrorHandling("Inicialização da fila de verificação", () -> {
+            int initialized = productService.initializeCheckQueue();
+            log.info("Fila de verificação inicializada - {} produtos sem próxima verificação", initialized);
+            return initialized;
+        });
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void releaseLeases() {
+        executeWithErrorHandling("Liberação de reservas", () -> {
+            int released = productService.releaseLeases();
+            log.info("Reservas liberadas pela instância {}: {}", schedulerProperties.getNodeId(), released);
+            return released;
+        });
+    }
+
     @Scheduled(cron = "0 */5 * * * *") // A cada 5 minutos
     public void checkAllActiveProducts() {
         log.info("Iniciando verificação automática de preços...");
 
         executeWithErrorHandling("Verificação automática", () -> {
-            List<ProductMonitor> activeProducts = productService.getAllActiveProducts();
-
-            log.info("Verificando {} produtos ativos", activeProducts.size());
-
-            List<ProductMonitor> productsToCheck = activeProducts.stream()
-                    .filter(shouldCheckProduct())
-                    .collect(Collectors.toList());
-
-            VerificationResult result = verifyProducts(productsToCheck);
+            VerificationResult result = verifyDueBatches(productService::claimDueProducts);
             logVerificationResult(result);
 
             return result;
@@ -48,15 +59,7 @@ public class SchedulerService {
     public void checkCriticalProducts() {
         log.info("Verificação rápida de produtos críticos...");
 
-        executeWithErrorHandling("Verificação crítica", () -> {
-            List<ProductMonitor> criticalProducts = productService.getAllActiveProducts().stream()
-                    .filter(isCriticalProduct())
-                    .collect(Collectors.toList());
-
-            log.info("Verificando {} produtos críticos", criticalProducts.size());
-
-            return verifyProducts(criticalProducts);
-        });
+        executeWithErrorHandling("Verificação crítica", () -> verifyDueBatches(productService::claimDueCriticalProducts));
     }
 
     @Scheduled(cron = "0 0 * * * *") // A cada hora
@@ -72,88 +75,26 @@ public class SchedulerService {
 
     // MÉTODOS AUXILIARES SEM ANINHAMENTO
 
-    private VerificationResult verifyProducts(List<ProductMonitor> products) {
-        return products.stream()
-                .map(this::verifyProduct)
-                .reduce(VerificationResult.empty(), VerificationResult::merge);
-    }
+    // Consome a fila em lotes até não haver mais produtos vencidos
+    private VerificationResult verifyDueBatches(IntFunction<List<ProductMonitor>> claimBatch) {
+        VerificationResult total = VerificationResult.empty();
+        int batchSize = schedulerProperties.getBatchSize();
 
-    private VerificationResult verifyProduct(ProductMonitor product) {
-        try {
-            BigDecimal oldPrice = product.getCurrentPrice();
-            ProductMonitor updatedProduct = productService.checkProductPrice(product.getId());
+        for (int batch = 1; batch <= schedulerProperties.getMaxBatchesPerRun(); batch++) {
+            List<ProductMonitor> dueProducts = claimBatch.apply(batchSize);
+            if (dueProducts.isEmpty()) {
+                break;
+            }
 
-            return VerificationResult.builder()
-                    .successCount(1)
-                    .targetReachedCount(countTargetReached(updatedProduct))
-                    .priceChangedCount(countPriceChanged(oldPrice, updatedProduct))
-                    .build();
+            log.info("Lote {}: verificando {} produtos vencidos", batch, dueProducts.size());
+            total = total.merge(verificationService.verifyProducts(dueProducts));
 
-        } catch (Exception e) {
-            log.error("Erro ao verificar produto ID {}: {}", product.getId(), e.getMessage());
-            return VerificationResult.builder().errorCount(1).build();
+            if (dueProducts.size() < batchSize) {
+                break;
+            }
         }
-    }
-
-    // PREDICATES FUNCIONAIS
-
-    private Predicate<ProductMonitor> shouldCheckProduct() {
-        return product -> !isRecentlyChecked(product) && !isAlreadyNotified(product);
-    }
-
-    private Predicate<ProductMonitor> isCriticalProduct() {
-        return product -> isFlightProduct(product) || isElectronicsNearTarget(product);
-    }
-
-    //  VERIFICAÇÕES SIMPLES
-
-    private boolean isRecentlyChecked(ProductMonitor product) {
-        return product.getLastChecked() != null &&
-                product.getLastChecked().isAfter(LocalDateTime.now().minusMinutes(3));
-    }
-
-    private boolean isAlreadyNotified(ProductMonitor product) {
-        return Boolean.TRUE.equals(product.getNotificationSent());
-    }
-
-    private boolean isFlightProduct(ProductMonitor product) {
-        return product.getCategory() == ProductCategory.PASSAGENS_AEREAS;
-    }
-
-    private boolean isElectronicsNearTarget(ProductMonitor product) {
-        return product.getCategory() == ProductCategory.ELETRONICOS && isPriceNearTarget(product);
-    }
-
-    private boolean isPriceNearTarget(ProductMonitor product) {
-        return hasValidPrices(product) && isWithinTargetRange(product);
-    }
-
-    private boolean hasValidPrices(ProductMonitor product) {
-        return product.getCurrentPrice() != null && product.getTargetPrice() != null;
-    }
-
-    private boolean isWithinTargetRange(ProductMonitor product) {
-        return calculatePriceDifference(product).abs().compareTo(new BigDecimal("0.20")) <= 0;
-    }
-
-    // CÁLCULOS SIMPLES
-
-    private BigDecimal calculatePriceDifference(ProductMonitor product) {
-        return product.getCurrentPrice().subtract(product.getTargetPrice())
-                .divide(product.getTargetPrice(), 2, RoundingMode.HALF_UP);
-    }
-
-    private int countTargetReached(ProductMonitor product) {
-        return isTargetPriceReached(product) ? 1 : 0;
-    }
-
-    private int countPriceChanged(BigDecimal oldPrice, ProductMonitor product) {
-        return (oldPrice != null && !oldPrice.equals(product.getCurrentPrice())) ? 1 : 0;
-    }
 
-    private boolean isTargetPriceReached(ProductMonitor product) {
-        return hasValidPrices(product) &&
-                product.getCurrentPrice().compareTo(product.getTargetPrice()) <= 0;
+        return total;
     }
 
     // UTILITY METHODS
@@ -168,7 +109,7 @@ public class SchedulerService {
     }
 
     private void logVerificationResult(VerificationResult result) {
-        log.info(" Verificação concluída - Sucessos: {}, Erros: {}, Preços alvo atingidos: {}",
-                result.getSuccessCount(), result.getErrorCount(), result.getTargetReachedCount());
+        log.info(" Verificação concluída - Sucessos: {}, Erros: {}, Preços alvo atingidos: {}, Downloads evitados: {}",
+                result.getSuccessCount(), result.getErrorCount(), result.getTargetReachedCount(), result.getFetchesSavedCount());
     }
 }
\ No newline at end of file
@@ -0,0 +1,260 @@
+package org.custobaixo.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.custobaixo.model.Money;
+import org.custobaixo.model.ProductData;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+// Resultados de busca a partir do estado JSON embutido na página, sem navegador.
+// Mercado Livre publica window.__PRELOADED_STATE__ e a Kabum o __NEXT_DATA__ do Next.js;
+// ambos trazem a lista completa de resultados antes de qualquer JavaScript rodar.
+public final class SearchStateExtractor {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final int MAX_DEPTH = 12;
+    private static final String MERCADO_LIVRE_STATE = "__PRELOADED_STATE__";
+    private static final String KABUM_STATE = "__NEXT_DATA__";
+
+    private SearchStateExtractor() {
+    }
+
+    public static boolean supports(String siteName) {
+        return "MERCADO_LIVRE".equals(siteName) || "KABUM".equals(siteName);
+    }
+
+    // Lista vazia quando o site não é suportado ou o estado não está na página
+    public static List<ProductData> extract(String siteName, Document document) {
+        try {
+            return switch (siteName) {
+                case "MERCADO_LIVRE" -> extractMercadoLivre(document);
+                case "KABUM" -> extractKabum(document);
+                default -> List.of();
+            };
+        } catch (Exception e) {
+            return List.of(); // estado com formato inesperado; segue para os seletores
+        }
+    }
+
+    // MERCADO LIVRE
+
+    private static List<ProductData> extractMercadoLivre(Document document) {
+        JsonNode state = readState(document, MERCADO_LIVRE_STATE);
+        JsonNode results = findArray(state, "results", item -> item.has("polycard") || item.has("permalink"), 0);
+        if (results == null) {
+            return List.of();
+        }
+
+        List<ProductData> products = new ArrayList<>();
+        for (JsonNode item : results) {
+            ProductData product = item.has("polycard") ? fromPolycard(item.get("polycard")) : fromLegacyResult(item);
+            if (product != null) {
+                products.add(product);
+            }
+        }
+        return products;
+    }
+
+    // Formato atual: metadata com a URL (sem esquema) e componentes tipados para título e preço
+    private static ProductData fromPolycard(JsonNode polycard) {
+        String url = polycard.path("metadata").path("url").asText(null);
+        String name = null;
+        Money price = null;
+
+        for (JsonNode component : polycard.path("components")) {
+            String type = component.path("type").asText();
+            if (type.equals("title")) {
+                name = component.path("title").path("text").asText(null);
+            } else if (type.equals("price")) {
+                JsonNode current = component.path("price").path("current_price");
+                if (isBrl(current)) {
+                    price = toPrice(current.get("value"));
+                }
+            }
+        }
+
+        if (url != null && !url.startsWith("http")) {
+            url = "https://" + url;
+        }
+        return toProduct(name, price, url);
+    }
+
+    // Formato antigo: title, permalink e price como número ou objeto com amount
+    private static ProductData fromLegacyResult(JsonNode item) {
+        JsonNode price = item.get("price");
+        if (price != null && price.isObject()) {
+            price = isBrl(price) ? price.get("amount") : null;
+        }
+        return toProduct(item.path("title").asText(null), toPrice(price), item.path("permalink").asText(null));
+    }
+
+    // KABUM
+
+    private static List<ProductData> extractKabum(Document document) {
+        JsonNode state = readState(document, KABUM_STATE);
+        JsonNode results = findArray(state, null,
+                item -> item.has("code") && item.has("name") && (item.has("priceWithDiscount") || item.has("price")), 0);
+        if (results == null) {
+            return List.of();
+        }
+
+        List<ProductData> products = new ArrayList<>();
+        for (JsonNode item : results) {
+            if (item.has("available") && !item.get("available").asBoolean(true)) {
+                continue;
+            }
+            // Preço à vista (Pix) quando existe; senão o preço cheio
+            Money price = toPrice(item.get("priceWithDiscount"));
+            if (price == null) {
+                price = toPrice(item.get("price"));
+            }
+            String url = "https://www.kabum.com.br/produto/" + item.get("code").asText()
+                    + (item.hasNonNull("friendlyName") ? "/" + item.get("friendlyName").asText() : "");
+
+            ProductData product = toProduct(item.get("name").asText(null), price, url);
+            if (product != null) {
+                products.add(product);
+            }
+        }
+        return products;
+    }
+
+    // MÉTODOS AUXILIARES
+
+    // Procura <script id="..."> com JSON puro; senão uma atribuição "window.X = {...}" em script inline.
+    // Um candidato que não é JSON válido (outro script citando o nome, objeto JS com funções) não
+    // encerra a busca: os scripts seguintes ainda são tentados.
+    private static JsonNode readState(Document document, String stateName) {
+        Element byId = document.getElementById(stateName);
+        if (byId != null && !byId.data().isBlank()) {
+            JsonNode state = parseQuietly(byId.data().trim());
+            if (state != null) {
+                return state;
+            }
+        }
+        for (Element script : document.select("script")) {
+            String data = script.data();
+            int marker = data.indexOf(stateName);
+            while (marker >= 0) {
+                int start = data.indexOf('{', marker);
+                int end = start < 0 ? -1 : findObjectEnd(data, start);
+                if (end > start) {
+                    JsonNode state = parseQuietly(data.substring(start, end + 1));
+                    if (state != null) {
+                        return state;
+                    }
+                }
+                marker = data.indexOf(stateName, marker + stateName.length());
+            }
+        }
+        return null;
+    }
+
+    private static JsonNode parseQuietly(String json) {
+        try {
+            return MAPPER.readTree(json);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    // Fechamento do objeto que começa em start, ignorando chaves dentro de strings
+    private static int findObjectEnd(String data, int start) {
+        int depth = 0;
+        boolean inString = false;
+        for (int i = start; i < data.length(); i++) {
+            char c = data.charAt(i);
+            if (inString) {
+                if (c == '\\') {
+                    i++;
+                } else if (c == '"') {
+                    inString = false;
+                }
+            } else if (c == '"') {
+                inString = true;
+            } else if (c == '{') {
+                depth++;
+            } else if (c == '}' && --depth == 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Primeiro array (com o nome pedido, se houver) cujo primeiro objeto satisfaz o predicado.
+    // Campos texto que contêm JSON serializado (pageProps.data da Kabum) também são percorridos.
+    private static JsonNode findArray(JsonNode node, String fieldName, Predicate<JsonNode> itemMatches, int depth) {
+        if (node == null || depth > MAX_DEPTH) {
+            return null;
+        }
+        if (node.isTextual()) {
+            String text = node.asText().trim();
+            if (text.length() > 2 && text.charAt(0) == '{') {
+                try {
+                    return findArray(MAPPER.readTree(text), fieldName, itemMatches, depth + 1);
+                } catch (Exception e) {
+                    return null;
+                }
+            }
+            return null;
+        }
+        if (node.isArray()) {
+            for (JsonNode item : node) {
+                JsonNode found = findArray(item, fieldName, itemMatches, depth + 1);
+                if (found != null) {
+                    return found;
+                }
+            }
+            return null;
+        }
+        if (!node.isObject()) {
+            return null;
+        }
+
+        for (Map.Entry<String, JsonNode> field : node.properties()) {
+            JsonNode value = field.getValue();
+            boolean nameMatches = fieldName == null || fieldName.equals(field.getKey());
+            if (nameMatches && value.isArray() && !value.isEmpty() && value.get(0).isObject()
+                    && itemMatches.test(value.get(0))) {
+                return value;
+            }
+            JsonNode found = findArray(value, fieldName, itemMatches, depth + 1);
+            if (found != null) {
+                return found;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isBrl(JsonNode price) {
+        String currency = price.path("currency_id").asText(price.path("currency").asText(""));
+        return currency.isBlank() || "BRL".equalsIgnoreCase(currency);
+    }
+
+    private static Money toPrice(JsonNode value) {
+        if (value == null || value.isNull()) {
+            return null;
+        }
+        try {
+            BigDecimal price = value.isNumber() ? value.decimalValue() : new BigDecimal(value.asText().trim());
+            return price.signum() > 0 ? Money.of(price) : null;
+        } catch (NumberFormatException | ArithmeticException e) {
+            return null;
+        }
+    }
+
+    private static ProductData toProduct(String name, Money price, String url) {
+        if (name == null || name.isBlank() || price == null || url == null || url.isBlank()) {
+            return null;
+        }
+        return new ProductData(name.trim(), price, url);
+    }
+}
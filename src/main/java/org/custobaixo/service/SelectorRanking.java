@@ -0,0 +1,301 @@
+package org.custobaixo.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.custobaixo.config.SelectorRankingProperties;
+import org.custobaixo.dto.SelectorRankingStatsResponse;
+import org.custobaixo.entity.SelectorStat;
+import org.custobaixo.repository.SelectorStatRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Ordena as cascatas de seletores equivalentes de cada site (nomes de produto, seletores genéricos
+// de preço) pelo histórico de acertos: o seletor que mais resolve a página é tentado primeiro. Uma
+// pequena fração das extrações promove outro seletor ao topo, para que a ordem se adapte quando o
+// layout muda.
+//
+// Os fallbacks de preço específicos de cada loja não são reordenados: não são alternativas
+// equivalentes (".andes-money-amount__cents" só tem os centavos, ".a-text-price" é o preço de
+// lista, ".oldPriceCard" o preço antigo), e o vencedor vira o currentPrice do monitor. Neles o
+// histórico só alimenta as estatísticas. O histórico é gravado no banco.
+@Component
+@Slf4j
+public class SelectorRanking {
+
+    private static final int MAX_CACHED_PLANS = 256;
+
+    private final SelectorStatRepository repository;
+    private final SelectorRankingProperties properties;
+    private final ScheduledExecutorService flusher;
+
+    // site -> seletor -> contadores
+    private final Map<String, Map<String, Counter>> sites = new ConcurrentHashMap<>();
+    // Planos de streaming já compilados para cada cascata de preço
+    private final Map<List<String>, StreamingPriceExtractor> plans = new ConcurrentHashMap<>();
+    private final AtomicLong explorations = new AtomicLong();
+
+    public SelectorRanking(SelectorStatRepository repository, SelectorRankingProperties properties) {
+        this.repository = repository;
+        this.properties = properties;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "gravacao-seletores");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long intervalMillis = properties.getFlushInterval().toMillis();
+        flusher.scheduleWithFixedDelay(this::flushQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PostConstruct
+    public void load() {
+        try {
+            List<SelectorStat> stats = repository.findAll();
+            for (SelectorStat stat : stats) {
+                Counter counter = counter(stat.getSiteName(), stat.getSelector());
+                counter.restore(stat.getHits(), stat.getAttempts());
+            }
+            log.info("Histórico de {} seletores carregado", stats.size());
+        } catch (Exception e) {
+            log.warn("Não foi possível carregar o histórico de seletores: {}", e.getMessage());
+        }
+    }
+
+    // Ordem em que uma cascata de seletores equivalentes deve ser tentada neste site.
+    // Fallbacks de preço por prioridade não passam por aqui: veja pricePlan.
+    public List<String> order(String site, String... selectors) {
+        List<String> ordered = rank(site, selectors);
+        if (ordered.size() > 1 && ThreadLocalRandom.current().nextDouble() < properties.getExplorationRate()) {
+            String explored = ordered.remove(ThreadLocalRandom.current().nextInt(1, ordered.size()));
+            ordered.add(0, explored);
+            explorations.incrementAndGet();
+        }
+        return ordered;
+    }
+
+    public void recordHit(String site, String selector) {
+        counter(site, selector).record(true, properties.getDecayThreshold());
+    }
+
+    public void recordMiss(String site, String selector) {
+        counter(site, selector).record(false, properties.getDecayThreshold());
+    }
+
+    // PLANOS DE STREAMING
+
+    // Plano de extração em fluxo com os seletores de preço na ordem declarada, sem exploração;
+    // a prioridade define qual seletor vence e o quão cedo a leitura pode parar
+    public PricePlan pricePlan(String... selectors) {
+        return plan(List.of(selectors));
+    }
+
+    // Fallbacks da loja primeiro, na ordem declarada; depois a cascata genérica na ordem aprendida
+    // para o site, com exploração. Com o seletor que costuma acertar no topo, a leitura para mais cedo.
+    public PricePlan pricePlan(String site, String[] prioritized, String[] generic) {
+        List<String> ordered = new ArrayList<>(prioritized.length + generic.length);
+        ordered.addAll(List.of(prioritized));
+        ordered.addAll(order(site, generic));
+        return plan(List.copyOf(ordered));
+    }
+
+    // Os seletores de prioridade maior que o vencedor foram avaliados e não casaram.
+    // Preços vindos de dados estruturados não dizem nada sobre os seletores.
+    public void record(String site, PricePlan plan, StreamingPriceExtractor.Result result) {
+        if (result.source() != null && result.source() != StreamingPriceExtractor.Source.SELECTOR) {
+            return;
+        }
+        for (String selector : plan.order()) {
+            if (selector.equals(result.selector())) {
+                recordHit(site, selector);
+                return;
+            }
+            recordMiss(site, selector);
+        }
+    }
+
+    public record PricePlan(List<String> order, StreamingPriceExtractor extractor) {
+    }
+
+    public SelectorRankingStatsResponse getStats() {
+        Map<String, List<SelectorRankingStatsResponse.SelectorStats>> siteStats = new TreeMap<>();
+        int tracked = 0;
+        int pending = 0;
+
+        for (Map.Entry<String, Map<String, Counter>> site : sites.entrySet()) {
+            List<SelectorRankingStatsResponse.SelectorStats> selectors = new ArrayList<>();
+            for (String selector : rank(site.getKey(), site.getValue().keySet().toArray(String[]::new))) {
+                Counter counter = site.getValue().get(selector);
+                selectors.add(counter.toStats(selector));
+                pending += counter.hasPendingDelta() ? 1 : 0;
+            }
+            tracked += selectors.size();
+            siteStats.put(site.getKey(), selectors);
+        }
+
+        return SelectorRankingStatsResponse.builder()
+                .trackedSelectors(tracked)
+                .explorationRate(properties.getExplorationRate())
+                .explorations(explorations.get())
+                .pendingWrites(pending)
+                .sites(siteStats)
+                .build();
+    }
+
+    // GRAVAÇÃO
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Erro ao gravar histórico de seletores: {}", e.getMessage(), e);
+        }
+    }
+
+    // Cada nó grava só o que acumulou desde a última gravação; o banco soma os deltas no registro
+    // do seletor (upsert), então vários nós e reinícios nunca disputam a mesma linha
+    void flush() {
+        List<PendingDelta> batch = new ArrayList<>();
+        sites.forEach((site, selectors) -> selectors.forEach((selector, counter) -> {
+            PendingDelta delta = counter.takeDelta(site, selector);
+            if (delta != null) {
+                batch.add(delta);
+            }
+        }));
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        int written = 0;
+        try {
+            for (PendingDelta delta : batch) {
+                repository.addCounts(delta.site(), delta.selector(), delta.hits(), delta.attempts(),
+                        properties.getDecayThreshold());
+                written++;
+            }
+            log.debug("Histórico de {} seletores gravado", written);
+        } catch (RuntimeException e) {
+            // Os deltas não gravados voltam para o contador e entram na próxima gravação
+            for (PendingDelta delta : batch.subList(written, batch.size())) {
+                counter(delta.site(), delta.selector()).restoreDelta(delta.hits(), delta.attempts());
+            }
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushQuietly();
+    }
+
+    // MÉTODOS AUXILIARES
+
+    // Reaproveita o extrator já compilado para a mesma ordem de seletores
+    private PricePlan plan(List<String> ordered) {
+        if (plans.size() > MAX_CACHED_PLANS) {
+            plans.clear();
+        }
+        StreamingPriceExtractor extractor = plans.computeIfAbsent(ordered,
+                order -> StreamingPriceExtractor.compile(order.toArray(String[]::new)));
+        return new PricePlan(ordered, extractor);
+    }
+
+    // Maior taxa de acerto primeiro; empates mantêm a ordem declarada
+    private List<String> rank(String site, String... selectors) {
+        Map<String, Counter> counters = sites.getOrDefault(site, Map.of());
+        List<String> ordered = new ArrayList<>(List.of(selectors));
+        ordered.sort(Comparator.comparingDouble((String selector) -> {
+            Counter counter = counters.get(selector);
+            return counter != null ? counter.score() : Counter.PRIOR_SCORE;
+        }).reversed());
+        return ordered;
+    }
+
+    private Counter counter(String site, String selector) {
+        return sites.computeIfAbsent(site, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(selector, key -> new Counter());
+    }
+
+    private record PendingDelta(String site, String selector, long hits, long attempts) {
+    }
+
+    private static final class Counter {
+        // Taxa suavizada (acertos + 1) / (tentativas + 2): seletores nunca tentados ficam
+        // acima dos que já falharam e abaixo dos que costumam acertar
+        static final double PRIOR_SCORE = 0.5;
+
+        // Contadores usados na ordenação local
+        private long hits;
+        private long attempts;
+        // Acumulado desde a última gravação no banco
+        private long pendingHits;
+        private long pendingAttempts;
+
+        synchronized void record(boolean hit, long decayThreshold) {
+            attempts++;
+            pendingAttempts++;
+            if (hit) {
+                hits++;
+                pendingHits++;
+            }
+            if (attempts >= decayThreshold) {
+                attempts /= 2;
+                hits /= 2;
+            }
+        }
+
+        synchronized double score() {
+            return (hits + 1.0) / (attempts + 2.0);
+        }
+
+        synchronized void restore(long hits, long attempts) {
+            this.hits = hits;
+            this.attempts = attempts;
+        }
+
+        synchronized PendingDelta takeDelta(String site, String selector) {
+            if (pendingAttempts == 0) {
+                return null;
+            }
+            PendingDelta delta = new PendingDelta(site, selector, pendingHits, pendingAttempts);
+            pendingHits = 0;
+            pendingAttempts = 0;
+            return delta;
+        }
+
+        synchronized void restoreDelta(long hits, long attempts) {
+            pendingHits += hits;
+            pendingAttempts += attempts;
+        }
+
+        synchronized boolean hasPendingDelta() {
+            return pendingAttempts > 0;
+        }
+
+        synchronized SelectorRankingStatsResponse.SelectorStats toStats(String selector) {
+            return SelectorRankingStatsResponse.SelectorStats.builder()
+                    .selector(selector)
+                    .hits(hits)
+                    .attempts(attempts)
+                    .hitRate(attempts == 0 ? 0.0 : (double) hits / attempts)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package org.custobaixo.service;
+
+import org.custobaixo.dto.SeleniumSearchStatsResponse;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Latência das buscas Selenium por site, separando as que reaproveitaram a sessão do navegador
+// (sem visita à página inicial) das que precisaram estabelecê-la, o tempo até os resultados
+// renderizarem, o custo de cada carga de página com e sem bloqueio de recursos e o tempo de
+// extração dos cards
+@Component
+public class SeleniumSearchStats {
+
+    private final Map<String, SiteCounters> sites = new ConcurrentHashMap<>();
+
+    public void record(String site, boolean warm, long millis) {
+        SiteCounters counters = sites.computeIfAbsent(site, key -> new SiteCounters());
+        if (warm) {
+            counters.warmSearches.increment();
+            counters.warmMillis.add(millis);
+        } else {
+            counters.coldSearches.increment();
+            counters.coldMillis.add(millis);
+        }
+    }
+
+    // Tempo até a lista de resultados estabilizar; deadlineHit quando o prazo do site acabou antes
+    public void recordResultsWait(String site, long millis, boolean deadlineHit) {
+        SiteCounters counters = sites.computeIfAbsent(site, key -> new SiteCounters());
+        counters.resultsWaits.increment();
+        counters.resultsWaitMillis.add(millis);
+        if (deadlineHit) {
+            counters.waitDeadlinesHit.increment();
+        }
+    }
+
+    // Extração dos cards de uma página de resultados
+    public void recordExtraction(String site, long millis, int cards) {
+        SiteCounters counters = sites.computeIfAbsent(site, key -> new SiteCounters());
+        counters.extractions.increment();
+        counters.extractionMillis.add(millis);
+        counters.extractedCards.add(cards);
+    }
+
+    // Carga de uma página com ou sem bloqueio de recursos
+    public void recordPageLoad(String site, boolean blocked, long millis, long bytes) {
+        SiteCounters counters = sites.computeIfAbsent(site, key -> new SiteCounters());
+        (blocked ? counters.blockedLoads : counters.unblockedLoads).record(millis, bytes);
+    }
+
+    public SeleniumSearchStatsResponse getStats() {
+        Map<String, SeleniumSearchStatsResponse.SiteStats> siteStats = new TreeMap<>();
+        sites.forEach((site, counters) -> siteStats.put(site, counters.toStats()));
+
+        long warm = siteStats.values().stream().mapToLong(SeleniumSearchStatsResponse.SiteStats::getWarmSearches).sum();
+        long cold = siteStats.values().stream().mapToLong(SeleniumSearchStatsResponse.SiteStats::getColdSearches).sum();
+
+        return SeleniumSearchStatsResponse.builder()
+                .searches(warm + cold)
+                .warmSearches(warm)
+                .coldSearches(cold)
+                .warmRate(warm + cold == 0 ? 0.0 : (double) warm / (warm + cold))
+                .sites(siteStats)
+                .build();
+    }
+
+    private static final class SiteCounters {
+        private final LongAdder warmSearches = new LongAdder();
+        private final LongAdder warmMillis = new LongAdder();
+        private final LongAdder coldSearches = new LongAdder();
+        private final LongAdder coldMillis = new LongAdder();
+        private final LongAdder resultsWaits = new LongAdder();
+        private final LongAdder resultsWaitMillis = new LongAdder();
+        private final LongAdder waitDeadlinesHit = new LongAdder();
+        private final LongAdder extractions = new LongAdder();
+        private final LongAdder extractionMillis = new LongAdder();
+        private final LongAdder extractedCards = new LongAdder();
+        private final LoadCounters blockedLoads = new LoadCounters();
+        private final LoadCounters unblockedLoads = new LoadCounters();
+
+        SeleniumSearchStatsResponse.SiteStats toStats() {
+            long warm = warmSearches.sum();
+            long cold = coldSearches.sum();
+            long waits = resultsWaits.sum();
+            long extracted = extractions.sum();
+
+            return SeleniumSearchStatsResponse.SiteStats.builder()
+                    .warmSearches(warm)
+                    .coldSearches(cold)
+                    .averageWarmMillis(warm == 0 ? 0.0 : (double) warmMillis.sum() / warm)
+                    .averageColdMillis(cold == 0 ? 0.0 : (double) coldMillis.sum() / cold)
+                    .averageResultsWaitMillis(waits == 0 ? 0.0 : (double) resultsWaitMillis.sum() / waits)
+                    .waitDeadlinesHit(waitDeadlinesHit.sum())
+                    .extractions(extracted)
+                    .averageExtractionMillis(extracted == 0 ? 0.0 : (double) extractionMillis.sum() / extracted)
+                    .averageCardsPerPage(extracted == 0 ? 0.0 : (double) extractedCards.sum() / extracted)
+                    .blockedPageLoads(blockedLoads.toStats())
+                    .unblockedPageLoads(unblockedLoads.toStats())
+                    .build();
+        }
+    }
+
+    private static final class LoadCounters {
+        private final LongAdder pages = new LongAdder();
+        private final LongAdder millis = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+
+        void record(long loadMillis, long transferredBytes) {
+            pages.increment();
+            millis.add(loadMillis);
+            bytes.add(transferredBytes);
+        }
+
+        SeleniumSearchStatsResponse.PageLoadStats toStats() {
+            long total = pages.sum();
+
+            return SeleniumSearchStatsResponse.PageLoadStats.builder()
+                    .pages(total)
+                    .averageLoadMillis(total == 0 ? 0.0 : (double) millis.sum() / total)
+                    .averageBytes(total == 0 ? 0.0 : (double) bytes.sum() / total)
+                    .build();
+        }
+    }
+}
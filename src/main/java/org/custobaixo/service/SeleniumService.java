@@ -1,274 +1,225 @@
 package org.custobaixo.service;
 
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.custobaixo.config.BrowserPoolProperties;
+import org.custobaixo.model.DomExtractionPlan;
+import org.custobaixo.model.Money;
 import org.custobaixo.model.ProductData;
 import org.openqa.selenium.By;
+import org.openqa.selenium.Cookie;
 import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
-import org.openqa.selenium.support.ui.WebDriverWait;
-import org.openqa.selenium.support.ui.ExpectedConditions;
-import io.github.bonigarcia.wdm.WebDriverManager;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
-import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Date;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 @Service
+@RequiredArgsConstructor
 @Slf4j
 public class SeleniumService {
 
-    private WebDriver driver;
+    // Preços abaixo disso nos cards de busca costumam ser parcelas ou fretes
+    private static final Money MIN_PRICE = Money.ofReais(10);
 
-    public void initDriver() {
-        if (driver == null) {
-            log.info("Inicializando WebDriver do Selenium...");
-            WebDriverManager.chromedriver().setup();
-            
-            ChromeOptions options = createChromeOptions();
-            driver = new ChromeDriver(options);
-            
-            // ANTI-DETECÇÃO: Executar script para remover navigator.webdriver
-            try {
-                JavascriptExecutor js = (JavascriptExecutor) driver;
-                js.executeScript("Object.defineProperty(navigator, 'webdriver', {get: () => undefined})");
-                log.info("WebDriver oculto com sucesso!");
-            } catch (Exception e) {
-                log.warn("Não foi possível ocultar webdriver: {}", e.getMessage());
-            }
-            
-            log.info("WebDriver inicializado com sucesso!");
+    // Planos de extração executados no navegador (cards de busca)
+    private static final DomExtractionPlan KABUM_PLAN = new DomExtractionPlan(
+            List.of("article[data-id]", ".productCard", "div[data-product-id]", "a[href*='/produto/']"),
+            List.of(".nameCard", "h2", ".sc-iBYQkv", "span.nameCard", "[class*='name']"),
+            List.of(".priceCard", ".finalPrice", "span[class*='price']", "[data-testid='price']", ".sc-dcJsrY"),
+            List.of("a"),
+            List.of(),
+            20, 6, false);
+
+    // Seletores genéricos para produtos (incluindo Nike, Adidas, Netshoes)
+    private static final DomExtractionPlan GENERIC_PLAN = new DomExtractionPlan(
+            List.of("article[data-id]", ".product-card", ".product-item", ".product",
+                    "[data-product-id]", ".item-card", ".grid-item",
+                    "[data-testid='product-card']", "[data-auto-id='product-card']",
+                    "div[class*='product-card']", "div[class*='product-item']",
+                    "article[class*='product']", "li[class*='product']",
+                    "a[href*='/produto/']", "a[href*='/product/']",
+                    ".gl-product-card", ".product-tile"),
+            List.of("h2", "h3", "h4", ".product-name", ".product-title",
+                    ".item-card__title", "[class*='title']", "[class*='name']",
+                    "a", "span", ".description", "[class*='description']"),
+            List.of(".price", ".preco", "[class*='price']", "[class*='preco']",
+                    ".item-card__price", ".product-price", "[data-testid*='price']"),
+            List.of("a"),
+            List.of(),
+            20, 6, true);
+
+    private static final String TRANSFER_SIZE_SCRIPT = """
+            var total = 0;
+            performance.getEntriesByType('navigation').concat(performance.getEntriesByType('resource'))
+                .forEach(function (entry) { total += entry.transferSize || 0; });
+            return total;""";
+
+    private final DomainRateLimiter rateLimiter;
+    private final SelectorRanking selectorRanking;
+
+    private final BrowserPool browserPool;
+    private final BrowserPoolProperties poolProperties;
+    private final SeleniumSearchStats searchStats;
+    private final ResultsWait resultsWait;
+    private final ResourceBlocker resourceBlocker;
+    private final DomExtractor domExtractor;
+
+    // Toda navegação passa pelo limite do domínio em vez de pausas fixas, com os recursos
+    // dispensáveis do site bloqueados; tempo de carga e bytes vão para as estatísticas
+    private void navigate(BrowserSession session, String site, String url) {
+        boolean blocking = resourceBlocker.apply(session, site);
+        rateLimiter.acquire(url);
+
+        long start = System.nanoTime();
+        session.driver().get(url);
+        session.recordPage();
+        searchStats.recordPageLoad(site, blocking, elapsedMillis(start), transferredBytes(session.driver()));
+    }
+
+    // Bytes transferidos pela página segundo a Resource Timing API do navegador. Recursos de outra
+    // origem sem Timing-Allow-Origin contam zero, então o valor é um piso, comparável entre cargas.
+    private long transferredBytes(WebDriver driver) {
+        try {
+            Object bytes = ((JavascriptExecutor) driver).executeScript(TRANSFER_SIZE_SCRIPT);
+            return bytes instanceof Number number ? number.longValue() : 0;
+        } catch (Exception e) {
+            return 0;
         }
     }
 
-    private ChromeOptions createChromeOptions() {
-        ChromeOptions options = new ChromeOptions();
-        
-        // ANTI-DETECÇÃO: Configurações básicas
-        options.addArguments("--headless=new"); // Headless mais moderno
-        options.addArguments("--no-sandbox");
-        options.addArguments("--disable-dev-shm-usage");
-        options.addArguments("--disable-gpu");
-        options.addArguments("--window-size=1920,1080");
-        options.addArguments("--start-maximized");
-        
-        // ANTI-DETECÇÃO: Desabilitar recursos de automação
-        options.addArguments("--disable-blink-features=AutomationControlled");
-        options.addArguments("--disable-infobars");
-        options.addArguments("--disable-notifications");
-        
-        // ANTI-DETECÇÃO: Fingir ser um navegador real
-        options.addArguments("--disable-extensions");
-        options.addArguments("--disable-plugins-discovery");
-        options.addArguments("--disable-web-security");
-        options.addArguments("--allow-running-insecure-content");
-        
-        // ANTI-DETECÇÃO: User-Agent realista (Chrome mais recente)
-        options.addArguments("--user-agent=Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/131.0.0.0 Safari/537.36");
-        
-        // ANTI-DETECÇÃO: Remover propriedades que indicam automação
-        options.setExperimentalOption("excludeSwitches", new String[]{"enable-automation", "enable-logging"});
-        options.setExperimentalOption("useAutomationExtension", false);
-        
-        // ANTI-DETECÇÃO: Adicionar preferências realistas
-        Map<String, Object> prefs = new HashMap<>();
-        prefs.put("credentials_enable_service", false);
-        prefs.put("profile.password_manager_enabled", false);
-        prefs.put("profile.default_content_setting_values.notifications", 2);
-        prefs.put("profile.default_content_settings.popups", 0);
-        options.setExperimentalOption("prefs", prefs);
-        
-        return options;
+    // SESSÃO POR SITE
+
+    // Visita a página inicial só quando este navegador não tem sessão no site ou ela expirou.
+    // Devolve true quando a sessão já estava válida e a visita foi dispensada.
+    private boolean warmUp(BrowserSession session, String site, String homepageUrl) {
+        if (session.isWarm(site)) {
+            log.info("Sessão em {} ainda válida; pulando página principal", site);
+            return true;
+        }
+
+        log.info("Acessando página principal de {}...", site);
+        navigate(session, site, homepageUrl);
+        captureSiteState(session, site);
+        return false;
     }
 
-    public void closeDriver() {
-        if (driver != null) {
-            log.info("Fechando WebDriver...");
-            driver.quit();
-            driver = null;
+    // Guarda quantos cookies e chaves de localStorage a página inicial deixou e quando expiram:
+    // o primeiro cookie com validade vencendo antes do TTL configurado encurta a sessão
+    private void captureSiteState(BrowserSession session, String site) {
+        WebDriver driver = session.driver();
+        Instant expiresAt = Instant.now().plus(poolProperties.getSessionTtl());
+        int cookies = 0;
+        int storageKeys = 0;
+
+        try {
+            Set<Cookie> siteCookies = driver.manage().getCookies();
+            cookies = siteCookies.size();
+            for (Cookie cookie : siteCookies) {
+                Date expiry = cookie.getExpiry();
+                if (expiry != null && expiry.toInstant().isBefore(expiresAt)) {
+                    expiresAt = expiry.toInstant();
+                }
+            }
+            Object length = ((JavascriptExecutor) driver).executeScript(
+                    "return window.localStorage ? window.localStorage.length : 0;");
+            storageKeys = length instanceof Number number ? number.intValue() : 0;
+        } catch (Exception e) {
+            log.debug("Não foi possível ler o estado da sessão em {}: {}", site, e.getMessage());
         }
+
+        session.recordSiteState(site, cookies, storageKeys, expiresAt);
+        log.info("Sessão em {} estabelecida: {} cookies, {} chaves de localStorage, válida até {}",
+                site, cookies, storageKeys, expiresAt);
+    }
+
+    private long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
     }
 
     public List<ProductData> searchKabum(String productName) {
+        return browserPool.withSession(session -> searchKabum(session, productName));
+    }
+
+    private List<ProductData> searchKabum(BrowserSession session, String productName) {
+        WebDriver driver = session.driver();
         List<ProductData> products = new ArrayList<>();
+        long start = System.nanoTime();
+        boolean warm = false;
         
         try {
-            initDriver();
-            
-            log.info("Acessando página principal do Kabum...");
-            driver.get("https://www.kabum.com.br");
-            Thread.sleep(2000);
+            warm = warmUp(session, "KABUM", "https://www.kabum.com.br");
             
             String searchUrl = "https://www.kabum.com.br/busca/" + productName.replaceAll("\\s+", "-");
             log.info("Acessando busca no Kabum: {}", searchUrl);
             
-            driver.get(searchUrl);
-            Thread.sleep(3000);
+            navigate(session, "KABUM", searchUrl);
             
             log.info("Título da página: '{}'", driver.getTitle());
             log.info("URL atual: '{}'", driver.getCurrentUrl());
             
-            // Aguardar produtos carregarem
-            try {
-                WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(10));
-                wait.until(ExpectedConditions.presenceOfElementLocated(By.cssSelector("article[data-id], .productCard, main")));
-                log.info("Elementos carregados!");
-            } catch (Exception e) {
-                log.warn("Timeout aguardando produtos: {}", e.getMessage());
-            }
+            // Aguardar a lista de produtos parar de crescer
+            resultsWait.awaitStableResults(driver, "KABUM", KABUM_PLAN.cardSelectors().toArray(String[]::new));
             
-            // Tentar múltiplos seletores de produtos
-            String[] productSelectors = {
-                "article[data-id]",
-                ".productCard",
-                "div[data-product-id]",
-                "a[href*='/produto/']"
-            };
+            // Extrair nome, preço e link de até 20 cards numa única chamada ao navegador
+            List<DomExtractor.ExtractedCard> cards = domExtractor.extract(driver, "KABUM", KABUM_PLAN);
+            log.info("Total de produtos encontrados: {}", cards.size());
             
-            List<WebElement> productElements = new ArrayList<>();
-            for (String selector : productSelectors) {
-                try {
-                    List<WebElement> elements = driver.findElements(By.cssSelector(selector));
-                    if (!elements.isEmpty()) {
-                        log.info("Encontrados {} produtos com seletor: {}", elements.size(), selector);
-                        productElements = elements;
-                        break;
-                    }
-                } catch (Exception e) {
-                    log.debug("Erro com seletor {}: {}", selector, e.getMessage());
+            for (DomExtractor.ExtractedCard card : cards) {
+                String name = card.name();
+                Money price = card.price();
+                String url = card.url();
+                if (url != null && !url.startsWith("http")) {
+                    url = "https://www.kabum.com.br" + url;
                 }
-            }
-            
-            log.info("Total de produtos encontrados: {}", productElements.size());
-            
-            // Extrair dados de cada produto (máximo 20)
-            for (int i = 0; i < Math.min(productElements.size(), 20); i++) {
-                try {
-                    WebElement product = productElements.get(i);
-                    
-                    // Extrair nome
-                    String name = "";
-                    String[] nameSelectors = {
-                        ".nameCard",
-                        "h2",
-                        ".sc-iBYQkv",
-                        "span.nameCard",
-                        "[class*='name']"
-                    };
-                    
-                    for (String selector : nameSelectors) {
-                        try {
-                            WebElement nameElement = product.findElement(By.cssSelector(selector));
-                            String extractedName = nameElement.getText().trim();
-                            if (extractedName.length() > 5) {
-                                name = extractedName;
-                                break;
-                            }
-                        } catch (Exception e) {
-                            // Continuar para próximo seletor
-                        }
-                    }
-                    
-                    // Extrair preço
-                    BigDecimal price = null;
-                    String[] priceSelectors = {
-                        ".priceCard",
-                        ".finalPrice",
-                        "span[class*='price']",
-                        "[data-testid='price']",
-                        ".sc-dcJsrY"
-                    };
-                    
-                    for (String selector : priceSelectors) {
-                        try {
-                            WebElement priceElement = product.findElement(By.cssSelector(selector));
-                            String priceText = priceElement.getText().trim();
-                            BigDecimal parsedPrice = parseBrazilianPrice(priceText);
-                            if (parsedPrice != null) {
-                                price = parsedPrice;
-                                break;
-                            }
-                        } catch (Exception e) {
-                            // Continuar para próximo seletor
-                        }
-                    }
-                    
-                    // Extrair URL
-                    String url = "";
-                    try {
-                        WebElement linkElement = product.findElement(By.tagName("a"));
-                        url = linkElement.getDomAttribute("href");
-                        if (url != null && !url.startsWith("http")) {
-                            url = "https://www.kabum.com.br" + url;
-                        }
-                    } catch (Exception e) {
-                        log.debug("Erro extraindo URL: {}", e.getMessage());
-                    }
-                    
-                    // Validar e adicionar produto
-                    if (!name.isEmpty() && price != null && url != null && !url.isEmpty()) {
-                        // Validação básica: pelo menos deve conter alguma palavra do produto pesquisado
-                        String lowerName = name.toLowerCase();
-                        String lowerSearch = productName.toLowerCase();
-                        boolean relevant = true;
-                        
-                        // Verificar se contém pelo menos 1 palavra relevante
-                        String[] searchWords = lowerSearch.split("\\s+");
-                        int matches = 0;
-                        for (String word : searchWords) {
-                            if (word.length() > 2 && lowerName.contains(word)) {
-                                matches++;
-                            }
-                        }
-                        
-                        if (matches == 0) {
-                            relevant = false;
-                        }
-                        
-                        if (relevant) {
-                            products.add(new ProductData(name, price, url));
-                            log.info("Produto adicionado: {} - R$ {} - {}", name, price, url);
-                        } else {
-                            log.debug("Produto descartado (não relevante): {}", name);
-                        }
+                
+                // Validar e adicionar produto
+                if (!name.isEmpty() && price != null && url != null && !url.isEmpty()) {
+                    // Validação básica: pelo menos deve conter alguma palavra do produto pesquisado
+                    if (isBasicRelevant(name, productName)) {
+                        products.add(new ProductData(name, price, url));
+                        log.info("Produto adicionado: {} - R$ {} - {}", name, price, url);
+                    } else {
+                        log.debug("Produto descartado (não relevante): {}", name);
                     }
-                    
-                } catch (Exception e) {
-                    log.debug("Erro processando produto {}: {}", i, e.getMessage());
                 }
             }
             
         } catch (Exception e) {
             log.error("Erro durante busca no Kabum: {}", e.getMessage(), e);
+            session.markBrokenIfLost(e);
         }
         
+        searchStats.record("KABUM", warm, elapsedMillis(start));
         return products;
     }
 
     public List<ProductData> searchMercadoLivre(String productName) {
+        return browserPool.withSession(session -> searchMercadoLivre(session, productName));
+    }
+
+    private List<ProductData> searchMercadoLivre(BrowserSession session, String productName) {
+        WebDriver driver = session.driver();
         List<ProductData> products = new ArrayList<>();
+        long start = System.nanoTime();
+        boolean warm = false;
         
         try {
-            initDriver();
-            
-            // Primeiro acessar a página principal para estabelecer sessão
-            log.info("Acessando página principal do Mercado Livre...");
-            driver.get("https://www.mercadolivre.com.br");
-            Thread.sleep(2000);
+            // Página principal só quando a sessão deste navegador no site não existe ou expirou
+            warm = warmUp(session, "MERCADO_LIVRE", "https://www.mercadolivre.com.br");
             
             String searchUrl = "https://lista.mercadolivre.com.br/" + productName.replaceAll("\\s+", "-");
             log.info("Acessando busca no Mercado Livre: {}", searchUrl);
             
-            driver.get(searchUrl);
+            navigate(session, "MERCADO_LIVRE", searchUrl);
             
-            // Debug: aguardar um pouco e verificar o que carregou
-            Thread.sleep(3000);
+            // Debug: verificar o que carregou
             log.info("Título da página: '{}'", driver.getTitle());
             log.info("URL atual: '{}'", driver.getCurrentUrl());
             
@@ -293,26 +244,9 @@ public class SeleniumService {
             // Verificar se há captcha ou bloqueio
             if (pageSource != null && (pageSource.contains("captcha") || pageSource.contains("robot") || pageSource.contains("verificação"))) {
                 log.warn("Página pode ter captcha ou bloqueio anti-bot!");
+                session.forgetSite("MERCADO_LIVRE");
             }
             
-            // Aguardar carregamento da página
-            WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(15));
-            
-            // Tentar múltiplos seletores para aguardar carregamento
-            try {
-                wait.until(ExpectedConditions.presenceOfElementLocated(By.cssSelector(".ui-search-results")));
-            } catch (Exception e) {
-                log.warn("Seletor .ui-search-results não encontrado, tentando alternativos...");
-                try {
-                    wait.until(ExpectedConditions.presenceOfElementLocated(By.cssSelector("[data-testid='results-list']")));
-                } catch (Exception e2) {
-                    log.warn("Seletor [data-testid='results-list'] não encontrado, aguardando qualquer elemento...");
-                    wait.until(ExpectedConditions.presenceOfElementLocated(By.cssSelector("body")));
-                }
-            }
-            
-            log.info("Página carregada, buscando produtos...");
-            
             // Buscar elementos de produtos com múltiplos seletores
             List<WebElement> productElements = new ArrayList<>();
             String[] selectors = {
@@ -327,6 +261,10 @@ public class SeleniumService {
                 ".item"
             };
             
+            // Aguardar a lista de resultados parar de crescer (ou o prazo do site)
+            resultsWait.awaitStableResults(driver, "MERCADO_LIVRE", selectors);
+            log.info("Página carregada, buscando produtos...");
+            
             for (String selector : selectors) {
                 productElements = driver.findElements(By.cssSelector(selector));
                 if (!productElements.isEmpty()) {
@@ -440,18 +378,20 @@ public class SeleniumService {
                     };
                     
                     log.info("Tentando extrair nome...");
-                    for (String selector : nameSelectors) {
+                    for (String selector : selectorRanking.order("MERCADO_LIVRE", nameSelectors)) {
                         try {
                             WebElement nameElement = product.findElement(By.cssSelector(selector));
                             String extractedName = nameElement.getText().trim();
                             log.debug("  Seletor '{}': '{}'", selector, extractedName);
                             if (extractedName.length() > 5) {
                                 name = extractedName;
+                                selectorRanking.recordHit("MERCADO_LIVRE", selector);
                                 break;
                             }
                         } catch (Exception e) {
                             log.debug("  Seletor '{}': erro - {}", selector, e.getMessage());
                         }
+                        selectorRanking.recordMiss("MERCADO_LIVRE", selector);
                     }
                     
                     // Se ainda não encontrou nome, tentar buscar por texto que contenha palavras-chave do produto
@@ -475,7 +415,7 @@ public class SeleniumService {
                     log.info("Nome final: '{}'", name);
                     
                     // Extrair preço com múltiplos seletores
-                    BigDecimal price = null;
+                    Money price = null;
                     String[] priceSelectors = {
                         ".andes-money-amount__fraction",
                         ".price-tag-fraction",
@@ -494,15 +434,17 @@ public class SeleniumService {
                             WebElement priceElement = product.findElement(By.cssSelector(selector));
                             String priceText = priceElement.getText().trim();
                             log.debug("  Seletor '{}': '{}'", selector, priceText);
-                            BigDecimal parsedPrice = parseBrazilianPrice(priceText);
+                            Money parsedPrice = BrazilianPriceParser.parseMoney(priceText);
                             if (parsedPrice != null) {
                                 price = parsedPrice;
                                 log.info("  Preço parseado: R$ {}", price);
+                                selectorRanking.recordHit("MERCADO_LIVRE", selector);
                                 break;
                             }
                         } catch (Exception e) {
                             log.debug("  Seletor '{}': erro - {}", selector, e.getMessage());
                         }
+                        selectorRanking.recordMiss("MERCADO_LIVRE", selector);
                     }
                     
                     // Se não encontrou preço com seletores, tentar buscar por texto que contenha "R$"
@@ -512,7 +454,7 @@ public class SeleniumService {
                             WebElement priceElement = product.findElement(By.xpath(".//*[contains(text(), 'R$')]"));
                             String priceText = priceElement.getText().trim();
                             log.info("  Encontrado via R$: '{}'", priceText);
-                            price = parseBrazilianPrice(priceText);
+                            price = BrazilianPriceParser.parseMoney(priceText);
                             if (price != null) {
                                 log.info("  Preço parseado via R$: R$ {}", price);
                             }
@@ -553,7 +495,7 @@ public class SeleniumService {
                     log.info("URL: '{}'", url);
                     
                     // Filtrar produtos relevantes (genérico)
-                    if (name.length() > 5 && price != null && price.compareTo(new BigDecimal("10")) > 0) {
+                    if (name.length() > 5 && price != null && price.isGreaterThan(MIN_PRICE)) {
                         boolean isNotRedirectLink = url != null && !url.contains("click1.mercadolivre.com.br") &&
                                                   !url.contains("external");
                         
@@ -576,166 +518,80 @@ public class SeleniumService {
             
         } catch (Exception e) {
             log.error("Erro ao buscar produtos no Mercado Livre: {}", e.getMessage());
+            session.markBrokenIfLost(e);
         }
         
+        searchStats.record("MERCADO_LIVRE", warm, elapsedMillis(start));
         return products;
     }
 
-    private BigDecimal parseBrazilianPrice(String priceText) {
-        try {
-            log.info("Parseando preço original: '{}'", priceText);
-            
-            // Remover caracteres não numéricos exceto vírgula e ponto
-            String cleanPrice = priceText.replaceAll("[^0-9.,]", "");
-            log.info("Preço limpo: '{}'", cleanPrice);
-            
-            // Se tem ponto e vírgula, ponto é milhares e vírgula é decimal
-            if (cleanPrice.contains(".") && cleanPrice.contains(",")) {
-                cleanPrice = cleanPrice.replace(".", "").replace(",", ".");
-                log.info("Formato ponto + vírgula, resultado: '{}'", cleanPrice);
-            }
-            // Se só tem vírgula, pode ser decimal
-            else if (cleanPrice.contains(",") && !cleanPrice.contains(".")) {
-                // Verificar se a vírgula é separador de milhares ou decimal
-                String[] parts = cleanPrice.split(",");
-                if (parts.length == 2 && parts[1].length() <= 2) {
-                    // Vírgula como decimal (ex: 123,45)
-                    cleanPrice = cleanPrice.replace(",", ".");
-                    log.info("Vírgula como decimal, resultado: '{}'", cleanPrice);
-                } else {
-                    // Vírgula como separador de milhares (ex: 1.234,56)
-                    cleanPrice = cleanPrice.replace(",", ".");
-                    log.info("Vírgula como milhares, resultado: '{}'", cleanPrice);
-                }
-            }
-            // Se só tem ponto, pode ser milhares ou decimal
-            else if (cleanPrice.contains(".") && !cleanPrice.contains(",")) {
-                // Verificar se o ponto é separador de milhares ou decimal
-                String[] parts = cleanPrice.split("\\.");
-                if (parts.length == 2 && parts[1].length() <= 2) {
-                    // Ponto como decimal (ex: 123.45) - formato americano
-                    log.info("Ponto como decimal, mantendo: '{}'", cleanPrice);
-                } else {
-                    // Ponto como separador de milhares (ex: 8.095 = 8095) - formato brasileiro
-                    cleanPrice = cleanPrice.replace(".", "");
-                    log.info("Ponto como milhares, resultado: '{}'", cleanPrice);
-                }
-            }
-            
-            BigDecimal result = new BigDecimal(cleanPrice);
-            log.info("Preço final parseado: {}", result);
-            return result;
-        } catch (Exception e) {
-            log.error("Erro ao parsear preço '{}': {}", priceText, e.getMessage());
-            return null;
-        }
-    }
-
     /**
      * Método genérico para buscar produtos em qualquer site usando Selenium
      * COM TÉCNICAS ANTI-DETECÇÃO
      */
     public List<ProductData> searchGenericSite(String siteName, String searchUrl, String productName) {
+        return browserPool.withSession(session -> searchGenericSite(session, siteName, searchUrl, productName));
+    }
+
+    private List<ProductData> searchGenericSite(BrowserSession session, String siteName, String searchUrl, String productName) {
+        WebDriver driver = session.driver();
         List<ProductData> products = new ArrayList<>();
+        long start = System.nanoTime();
+        boolean warm = false;
         
         try {
-            initDriver();
-            
             log.info("Acessando {} com Selenium (modo stealth)...", siteName);
             log.info("URL: {}", searchUrl);
             
-            // ANTI-DETECÇÃO: Visitar página inicial primeiro (simular navegação humana)
+            // ANTI-DETECÇÃO: Visitar página inicial primeiro (simular navegação humana), a menos
+            // que este navegador já tenha uma sessão válida no site
             String baseUrl = searchUrl.substring(0, searchUrl.indexOf("/", 8));
-            log.info("Visitando página inicial: {}", baseUrl);
-            driver.get(baseUrl);
-            Thread.sleep(2000 + (int)(Math.random() * 1000)); // 2-3 segundos aleatórios
+            warm = warmUp(session, siteName, baseUrl);
             
             // ANTI-DETECÇÃO: Agora acessar a busca
             log.info("Navegando para busca...");
-            driver.get(searchUrl);
-            Thread.sleep(3000 + (int)(Math.random() * 2000)); // 3-5 segundos aleatórios
+            navigate(session, siteName, searchUrl);
             
             log.info("Título da página: '{}'", driver.getTitle());
             
-            // Aguardar produtos carregarem
-            try {
-                WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(10));
-                wait.until(ExpectedConditions.presenceOfElementLocated(By.cssSelector("body")));
-                log.info("Página carregada!");
-            } catch (Exception e) {
-                log.warn("Timeout aguardando página: {}", e.getMessage());
-            }
+            // Aguardar os cards de produto renderizarem, não apenas o <body>
+            resultsWait.awaitStableResults(driver, siteName, GENERIC_PLAN.cardSelectors().toArray(String[]::new));
             
-            // Seletores genéricos para produtos (incluindo Nike, Adidas, Netshoes)
-            String[] productSelectors = {
-                "article[data-id]", ".product-card", ".product-item", ".product",
-                "[data-product-id]", ".item-card", ".grid-item",
-                "[data-testid='product-card']", "[data-auto-id='product-card']",
-                "div[class*='product-card']", "div[class*='product-item']",
-                "article[class*='product']", "li[class*='product']",
-                "a[href*='/produto/']", "a[href*='/product/']",
-                ".gl-product-card", ".product-tile"
-            };
+            // Extrair dados (máximo 20) numa única chamada ao navegador
+            List<DomExtractor.ExtractedCard> cards = domExtractor.extract(driver, siteName, GENERIC_PLAN);
+            log.info("Total de elementos encontrados: {}", cards.size());
             
-            List<WebElement> productElements = new ArrayList<>();
-            for (String selector : productSelectors) {
-                try {
-                    List<WebElement> elements = driver.findElements(By.cssSelector(selector));
-                    if (!elements.isEmpty()) {
-                        log.info("Encontrados {} elementos com seletor: {}", elements.size(), selector);
-                        productElements = elements;
-                        break;
-                    }
-                } catch (Exception e) {
-                    log.debug("Erro com seletor {}: {}", selector, e.getMessage());
-                }
-            }
-            
-            log.info("Total de elementos encontrados: {}", productElements.size());
-            
-            // Extrair dados (máximo 20)
-            int maxElements = Math.min(productElements.size(), 20);
-            for (int i = 0; i < maxElements; i++) {
-                processProductElement(productElements.get(i), i + 1, maxElements, productName, products);
+            for (int i = 0; i < cards.size(); i++) {
+                processCard(cards.get(i), i + 1, cards.size(), productName, products);
             }
             
             log.info("Total de produtos válidos extraídos de {}: {}", siteName, products.size());
             
         } catch (Exception e) {
             log.error("Erro durante busca genérica em {}: {}", siteName, e.getMessage(), e);
+            session.markBrokenIfLost(e);
         }
         
+        searchStats.record(siteName, warm, elapsedMillis(start));
         return products;
     }
     
-    private void processProductElement(WebElement element, int index, int total, String productName, List<ProductData> products) {
-        try {
-            log.info("=== Processando elemento {} de {} ===", index, total);
-            
-            String name = extractProductName(element);
-            BigDecimal price = extractPriceFromElement(element);
-            String url = extractUrlFromElement(element);
-            
-            logExtractedData(name, price, url);
-            
-            if (isValidProduct(name, price, url, productName)) {
-                products.add(new ProductData(name, price, url));
-                log.info("  ✓ Produto adicionado: {} - R$ {}", name, price);
-            }
-            
-        } catch (Exception e) {
-            log.debug("Erro processando elemento {}: {}", index, e.getMessage());
+    private void processCard(DomExtractor.ExtractedCard card, int index, int total, String productName, List<ProductData> products) {
+        log.info("=== Processando elemento {} de {} ===", index, total);
+        
+        String name = card.name();
+        Money price = card.price();
+        String url = card.url();
+        
+        logExtractedData(name, price, url);
+        
+        if (isValidProduct(name, price, url, productName)) {
+            products.add(new ProductData(name, price, url));
+            log.info("  ✓ Produto adicionado: {} - R$ {}", name, price);
         }
     }
     
-    private String extractProductName(WebElement element) {
-        return extractTextFromElement(element, 
-            "h2", "h3", "h4", ".product-name", ".product-title", 
-            ".item-card__title", "[class*='title']", "[class*='name']",
-            "a", "span", ".description", "[class*='description']");
-    }
-    
-    private void logExtractedData(String name, BigDecimal price, String url) {
+    private void logExtractedData(String name, Money price, String url) {
         log.info("  Nome extraído: '{}'", name.isEmpty() ? "VAZIO" : name);
         log.info("  Preço extraído: {}", price);
         String urlPreview = (url != null && !url.isEmpty()) 
@@ -744,7 +600,7 @@ public class SeleniumService {
         log.info("  URL extraída: '{}'", urlPreview);
     }
     
-    private boolean isValidProduct(String name, BigDecimal price, String url, String productName) {
+    private boolean isValidProduct(String name, Money price, String url, String productName) {
         if (name.isEmpty() || price == null || url == null || url.isEmpty()) {
             log.info("  ✗ Produto descartado - nome vazio: {}, preço nulo: {}, url vazia: {}", 
                     name.isEmpty(), price == null, url == null || url.isEmpty());
@@ -759,59 +615,6 @@ public class SeleniumService {
         return true;
     }
     
-    private String extractTextFromElement(WebElement element, String... selectors) {
-        for (String selector : selectors) {
-            try {
-                WebElement textElement = element.findElement(By.cssSelector(selector));
-                String text = textElement.getText().trim();
-                if (text.length() > 5) {
-                    return text;
-                }
-            } catch (Exception e) {
-                // Continuar para próximo seletor
-            }
-        }
-        return "";
-    }
-    
-    private BigDecimal extractPriceFromElement(WebElement element) {
-        String[] priceSelectors = {
-            ".price", ".preco", "[class*='price']", "[class*='preco']",
-            ".item-card__price", ".product-price", "[data-testid*='price']"
-        };
-        
-        for (String selector : priceSelectors) {
-            try {
-                WebElement priceElement = element.findElement(By.cssSelector(selector));
-                String priceText = priceElement.getText().trim();
-                BigDecimal price = parseBrazilianPrice(priceText);
-                if (price != null) {
-                    return price;
-                }
-            } catch (Exception e) {
-                // Continuar
-            }
-        }
-        
-        // Tentar buscar por R$
-        try {
-            WebElement priceElement = element.findElement(By.xpath(".//*[contains(text(), 'R$')]"));
-            String priceText = priceElement.getText().trim();
-            return parseBrazilianPrice(priceText);
-        } catch (Exception e) {
-            return null;
-        }
-    }
-    
-    private String extractUrlFromElement(WebElement element) {
-        try {
-            WebElement linkElement = element.findElement(By.tagName("a"));
-            return linkElement.getDomAttribute("href");
-        } catch (Exception e) {
-            return "";
-        }
-    }
-    
     private boolean isBasicRelevant(String foundName, String searchedName) {
         String lowerFound = foundName.toLowerCase();
         String lowerSearch = searchedName.toLowerCase();
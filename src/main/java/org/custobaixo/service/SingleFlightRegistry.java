@@ -0,0 +1,40 @@
+package org.custobaixo.service;
+
+import org.custobaixo.dto.SingleFlightStatsResponse;
+import org.custobaixo.entity.ProductMonitor;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.function.Supplier;
+
+// Deduplica verificações simultâneas vindas do scheduler e da API:
+// por ID do produto (verificação completa) e por URL normalizada (extração do preço)
+@Component
+public class SingleFlightRegistry {
+
+    private final SingleFlight<Long, ProductMonitor> productChecks = new SingleFlight<>();
+    private final SingleFlight<String, BigDecimal> priceFetches = new SingleFlight<>();
+
+    public ProductMonitor checkProduct(Long productId, Supplier<ProductMonitor> check) {
+        // Produto ainda não salvo não tem chave para deduplicar
+        if (productId == null) {
+            return check.get();
+        }
+        return productChecks.execute(productId, check);
+    }
+
+    public BigDecimal fetchPrice(String url, Supplier<BigDecimal> fetch) {
+        return priceFetches.execute(ProductUrls.normalize(url), fetch);
+    }
+
+    public SingleFlightStatsResponse getStats() {
+        return SingleFlightStatsResponse.builder()
+                .productChecksExecuted(productChecks.executionCount())
+                .productChecksCoalesced(productChecks.coalescedCount())
+                .productChecksInFlight(productChecks.inFlightCount())
+                .priceFetchesExecuted(priceFetches.executionCount())
+                .priceFetchesCoalesced(priceFetches.coalescedCount())
+                .priceFetchesInFlight(priceFetches.inFlightCount())
+                .build();
+    }
+}
@@ -0,0 +1,63 @@
+package org.custobaixo.service;
+
+import java.util.List;
+import java.util.Locale;
+
+// Resolve o domínio de um site a partir da URL do produto
+public final class SiteDomains {
+
+    // Apenas os 4 sites ativos do sistema
+    public static final List<String> KNOWN_DOMAINS = List.of(
+            "amazon.com.br",
+            "mercadolivre.com.br",
+            "kabum.com.br",
+            "netshoes.com.br"
+    );
+
+    public static final String UNKNOWN = "unknown";
+
+    private SiteDomains() {
+    }
+
+    public static String resolve(String url) {
+        String host = extractHost(url);
+        if (host.isEmpty()) {
+            return UNKNOWN;
+        }
+
+        return KNOWN_DOMAINS.stream()
+                .filter(domain -> matchesDomain(host, domain))
+                .findFirst()
+                .orElse(host);
+    }
+
+    // O host precisa ser o próprio domínio ou um subdomínio dele ("produto.mercadolivre.com.br"),
+    // nunca um domínio qualquer que apenas termine com o mesmo texto ("fakeamazon.com.br")
+    private static boolean matchesDomain(String host, String domain) {
+        return host.equals(domain) || host.endsWith("." + domain);
+    }
+
+    private static String extractHost(String url) {
+        if (url == null) {
+            return "";
+        }
+
+        String host = url.trim().toLowerCase(Locale.ROOT).replaceFirst("^https?://", "");
+        int end = indexOfAny(host, '/', '?', '#', ':');
+        if (end >= 0) {
+            host = host.substring(0, end);
+        }
+        return host.startsWith("www.") ? host.substring(4) : host;
+    }
+
+    private static int indexOfAny(String value, char... chars) {
+        for (int i = 0; i < value.length(); i++) {
+            for (char c : chars) {
+                if (value.charAt(i) == c) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+}
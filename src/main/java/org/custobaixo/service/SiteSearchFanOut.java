@@ -0,0 +1,196 @@
+package org.custobaixo.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.custobaixo.config.SiteSearchProperties;
+import org.custobaixo.dto.SiteSearchTiming;
+import org.custobaixo.model.SiteConfig;
+import org.springframework.stereotype.Component;
+
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+// Busca os sites relevantes em paralelo sob um único prazo. Quem não termina a tempo é relatado
+// como TIMEOUT, fica de fora do resultado e tem a busca cancelada (a thread é interrompida), para
+// não ocupar o pool das próximas requisições. Com o pool e a fila cheios, o site é recusado na
+// hora (REJECTED) em vez de esperar numa fila sem fim. A função de busca não deve gravar nada:
+// quem chama persiste apenas o que voltou no resultado.
+@Component
+@Slf4j
+public class SiteSearchFanOut {
+
+    private final SiteSearchProperties properties;
+    private final ThreadPoolExecutor executor;
+
+    public SiteSearchFanOut(SiteSearchProperties properties) {
+        this.properties = properties;
+        int threads = Math.max(1, properties.getMaxConcurrency());
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity())), searchThreadFactory());
+    }
+
+    public <T> Result<T> searchAll(List<SiteConfig> sites, Function<SiteConfig, List<T>> search) {
+        long start = System.nanoTime();
+        long deadlineNanos = start + properties.getDeadline().toNanos();
+
+        // null marca o site recusado pelo executor
+        List<Future<SiteOutcome<T>>> futures = new ArrayList<>(sites.size());
+        for (SiteConfig site : sites) {
+            try {
+                futures.add(executor.submit(() -> searchSite(site, search)));
+            } catch (RejectedExecutionException e) {
+                log.warn("Busca em {} recusada: pool de buscas e fila cheios", site.name);
+                futures.add(null);
+            }
+        }
+
+        awaitUntil(futures, deadlineNanos);
+
+        long waitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        List<T> results = new ArrayList<>();
+        List<SiteSearchTiming> timings = new ArrayList<>(sites.size());
+        List<String> timedOutSites = new ArrayList<>();
+        int cancelled = 0;
+
+        for (int i = 0; i < sites.size(); i++) {
+            String siteName = sites.get(i).name;
+            Future<SiteOutcome<T>> future = futures.get(i);
+            if (future == null) {
+                timedOutSites.add(siteName);
+                timings.add(timing(siteName, "REJECTED", 0, 0));
+                continue;
+            }
+            // cancel só tem efeito se a busca ainda não terminou; o que terminar depois é descartado
+            if (future.cancel(true)) {
+                cancelled++;
+                timedOutSites.add(siteName);
+                timings.add(timing(siteName, "TIMEOUT", waitedMillis, 0));
+                continue;
+            }
+            SiteOutcome<T> outcome = outcomeOf(future);
+            results.addAll(outcome.results());
+            timings.add(timing(siteName, outcome.status(), outcome.millis(), outcome.results().size()));
+        }
+
+        if (cancelled > 0) {
+            // Tira da fila as buscas canceladas que nem chegaram a começar
+            executor.purge();
+            log.warn("Prazo de {} ms esgotado; {} buscas canceladas, seguindo com os sites que já responderam",
+                    properties.getDeadline().toMillis(), cancelled);
+        }
+        return new Result<>(results, timings, timedOutSites);
+    }
+
+    private <T> void awaitUntil(List<Future<SiteOutcome<T>>> futures, long deadlineNanos) {
+        for (Future<SiteOutcome<T>> future : futures) {
+            if (future == null) {
+                continue;
+            }
+            try {
+                future.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException | CancellationException e) {
+                // searchSite não lança; cada falha já vira um SiteOutcome de erro
+            }
+        }
+    }
+
+    private <T> SiteOutcome<T> outcomeOf(Future<SiteOutcome<T>> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | CancellationException e) {
+            // searchSite não lança; cada falha já vira um SiteOutcome de erro
+        }
+        return new SiteOutcome<>(List.of(), "ERROR", 0);
+    }
+
+    private <T> SiteOutcome<T> searchSite(SiteConfig site, Function<SiteConfig, List<T>> search) {
+        long start = System.nanoTime();
+        try {
+            log.info("========== Buscando em: {} ==========", site.name);
+            List<T> results = search.apply(site);
+            log.info("Site {} retornou {} produtos", site.name, results.size());
+            return new SiteOutcome<>(results, results.isEmpty() ? "EMPTY" : "FOUND", elapsedMillis(start));
+        } catch (Exception e) {
+            if (isCancellation(e)) {
+                log.info("Busca em {} cancelada após o prazo", site.name);
+            } else {
+                log.error("Erro ao buscar em {}: {}", site.name, e.getMessage(), e);
+            }
+            return new SiteOutcome<>(List.of(), "ERROR", elapsedMillis(start));
+        }
+    }
+
+    // Interrupção vinda do cancel(true) no fim do prazo, direta ou embrulhada por quem buscava
+    static boolean isCancellation(Throwable error) {
+        if (Thread.currentThread().isInterrupted()) {
+            return true;
+        }
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof InterruptedException || cause instanceof InterruptedIOException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private SiteSearchTiming timing(String siteName, String status, long millis, int products) {
+        return SiteSearchTiming.builder()
+                .siteName(siteName)
+                .status(status)
+                .durationMillis(millis)
+                .productsFound(products)
+                .build();
+    }
+
+    private long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static ThreadFactory searchThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "busca-sites-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    // Resultados dos sites que responderam no prazo, tempo de cada site e os que ficaram de fora
+    public record Result<T>(List<T> results, List<SiteSearchTiming> timings, List<String> timedOutSites) {
+
+        public boolean isPartial() {
+            return !timedOutSites.isEmpty();
+        }
+
+        public int sitesWithResults() {
+            return (int) timings.stream().filter(timing -> timing.getProductsFound() > 0).count();
+        }
+    }
+
+    private record SiteOutcome<T>(List<T> results, String status, long millis) {
+    }
+}
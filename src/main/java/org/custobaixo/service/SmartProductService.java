@@ -8,23 +8,33 @@ import org.custobaixo.dto.SmartMonitorRequest;
 import org.custobaixo.dto.SmartMonitorResult;
 import org.custobaixo.entity.ProductCategory;
 import org.custobaixo.entity.ProductMonitor;
+import org.custobaixo.model.Money;
 import org.custobaixo.model.ProductData;
+import org.custobaixo.model.SelectorPlan;
 import org.custobaixo.model.SiteConfig;
+import org.custobaixo.model.SitePlan;
 import org.custobaixo.model.SitePrice;
-import org.jsoup.Jsoup;
+import org.jsoup.HttpStatusException;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.net.SocketTimeoutException;
 import java.net.URLEncoder;
+import java.net.http.HttpTimeoutException;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
-import java.util.Random;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -32,20 +42,54 @@ import java.util.Random;
 public class SmartProductService {
 
     private final SeleniumService seleniumService;
+    private final PageFetcher pageFetcher;
+    private final PriceExtractionStats extractionStats;
+    private final SelectorRanking selectorRanking;
+    private final EngineRouter engineRouter;
+    private final SiteSearchFanOut siteSearch;
 
     private final ProductMonitorService productService;
     private final SmartCategoryService categoryService;
 
-    // ROTAÇÃO DE USER-AGENTS
-    private final String[] USER_AGENTS = {
-            "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36",
-            "Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36",
-            "Mozilla/5.0 (X11; Linux x86_64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36",
-            "Mozilla/5.0 (Windows NT 10.0; Win64; x64; rv:109.0) Gecko/20100101 Firefox/121.0",
-            "Mozilla/5.0 (Macintosh; Intel Mac OS X 10.15; rv:109.0) Gecko/20100101 Firefox/121.0"
+    // SELETORES DE PREÇO DA PÁGINA DO PRODUTO
+    // Fallbacks das lojas conhecidas: por prioridade, a ordem declarada é a ordem de tentativa
+    private static final String[] STORE_PRICE_SELECTORS = {
+            ".andes-money-amount__fraction", ".price-tag-fraction", // Mercado Livre
+            ".priceCard", ".oldPriceCard" // Kabum
     };
 
-    private final Random random = new Random();
+    // Seletores genéricos (outros sites): alternativas equivalentes, a ordem é aprendida por site
+    private static final String[] GENERIC_PRICE_SELECTORS = {
+            ".price-current", ".price-value",
+            ".price", ".valor", ".preco", ".amount", ".cost"
+    };
+
+    private static final String[] AMAZON_PRICE_SELECTORS = {
+            ".a-price-whole",
+            ".a-price .a-offscreen",
+            ".a-price-range .a-price-whole",
+            "[data-asin] .a-price-whole",
+            ".a-price-symbol + .a-price-whole",
+            "#apex_desktop .a-price-whole",
+            "#apex_desktop .a-offscreen",
+            ".a-price .a-price-symbol + .a-price-whole"
+    };
+
+    private static final String[] AMAZON_PAGE_PRICE_SELECTORS =
+            Stream.concat(Arrays.stream(AMAZON_PRICE_SELECTORS), Arrays.stream(STORE_PRICE_SELECTORS)).toArray(String[]::new);
+
+    // FAIXAS DE PREÇO DO FILTRO DE RELEVÂNCIA (centavos; comparadas sem alocação)
+    private static final Money MIN_CONSOLE_PRICE = Money.ofReais(2000);
+    private static final Money MIN_SMARTPHONE_PRICE = Money.ofReais(800);
+    private static final Money MIN_NOTEBOOK_PRICE = Money.ofReais(1200);
+    private static final Money MIN_SHOE_PRICE = Money.ofReais(50);
+    private static final Money MAX_SHOE_PRICE = Money.ofReais(5000);
+    private static final Money MIN_CLOTHING_PRICE = Money.ofReais(30);
+    private static final Money MAX_CLOTHING_PRICE = Money.ofReais(3000);
+    private static final Money MIN_PRODUCT_PRICE = Money.ofReais(10);
+    private static final Money MIN_DEBUG_PRICE = Money.ofReais(100);
+    private static final Money MIN_SIMULATED_PRICE = Money.ofReais(1000);
+    private static final Money MAX_SIMULATED_PRICE = Money.ofReais(10000);
 
     // SITES PARA MONITORAMENTO
     private final List<SiteConfig> SITES = List.of(
@@ -61,6 +105,10 @@ public class SmartProductService {
                     ".item-card__title, .product-name", ".item-card__price, .price", "a", true, "https://www.netshoes.com.br")
     );
 
+    // Seletores dos sites compilados uma vez; os laços de extração não reinterpretam CSS por elemento
+    private final Map<String, SitePlan> sitePlans = SITES.stream()
+            .collect(Collectors.toMap(site -> site.name, SitePlan::compile));
+
     // MÉTODO PRINCIPAL - MONITORAMENTO INTELIGENTE COM COMPARAÇÃO E SALVAMENTO
     public SmartMonitorResult createSmartMonitoring(SmartMonitorRequest request) {
         logSmartMonitoringStart(request.getProductName());
@@ -91,37 +139,24 @@ public class SmartProductService {
                         .build();
             }
 
-            // 4. BUSCAR PRODUTO APENAS NOS SITES RELEVANTES
-            List<SitePrice> allPrices = new ArrayList<>();
-            int sitesWithProduct = 0;
-
-            for (SiteConfig site : relevantSites) {
-                try {
-                    List<SitePrice> sitePrices = searchProductPricesForMonitoring(request.getProductName(), site, request.getTargetPrice(), category);
-                    allPrices.addAll(sitePrices);
-                    if (!sitePrices.isEmpty()) {
-                        sitesWithProduct++;
-                    }
-
-                    // Pequena pausa entre sites
-                    Thread.sleep(1000);
-
-                } catch (Exception e) {
-                    logSiteError(site.name, e.getMessage());
-                }
-            }
+            // 4. BUSCAR PRODUTO NOS SITES RELEVANTES EM PARALELO, SOB UM ÚNICO PRAZO
+            // A busca paralela não grava nada: só o que voltou dentro do prazo vira monitoramento
+            SiteSearchFanOut.Result<SitePrice> search = siteSearch.searchAll(relevantSites,
+                    site -> searchProductPricesForMonitoring(request.getProductName(), site));
+            List<SitePrice> allPrices = saveForMonitoring(search.results(), request.getTargetPrice(), category);
+            int sitesWithProduct = (int) allPrices.stream().map(SitePrice::getSiteName).distinct().count();
 
             // 3. ENCONTRAR MELHOR PREÇO
             SitePrice bestPrice = allPrices.stream()
                     .filter(price -> price.isAvailable() && price.getPrice() != null)
-                    .min(Comparator.comparing(SitePrice::getPrice))
+                    .min(Comparator.comparingLong(price -> price.getPrice().cents()))
                     .orElse(null);
 
             // 4. CALCULAR ECONOMIA
             BigDecimal savings = null;
             BigDecimal savingsPercentage = null;
-            if (bestPrice != null && bestPrice.getPrice().compareTo(originalPrice) < 0) {
-                savings = originalPrice.subtract(bestPrice.getPrice());
+            if (bestPrice != null && bestPrice.getPrice().isLessThan(Money.of(originalPrice))) {
+                savings = originalPrice.subtract(bestPrice.getPrice().toBigDecimal());
                 savingsPercentage = savings.divide(originalPrice, 4, java.math.RoundingMode.HALF_UP)
                         .multiply(new BigDecimal("100"));
             }
@@ -134,16 +169,18 @@ public class SmartProductService {
                     .totalSitesSearched(relevantSites.size())
                     .sitesWithProduct(sitesWithProduct)
                     .bestPriceSite(bestPrice != null ? bestPrice.getSiteName() : null)
-                    .bestPrice(bestPrice != null ? bestPrice.getPrice() : null)
+                    .bestPrice(bestPrice != null ? bestPrice.getPrice().toBigDecimal() : null)
                     .bestPriceUrl(bestPrice != null ? bestPrice.getProductUrl() : null)
                     .savings(savings)
                     .savingsPercentage(savingsPercentage)
                     .allPrices(allPrices)
-                    .status(sitesWithProduct > 0 ? "MONITORING" : "ERROR")
-                    .message(sitesWithProduct > 0 ?
+                    .status(search.isPartial() ? "PARTIAL" : sitesWithProduct > 0 ? "MONITORING" : "ERROR")
+                    .message(withTimedOutSites(sitesWithProduct > 0 ?
                             String.format("Monitoramento iniciado em %d sites. Melhor preço: %s", sitesWithProduct,
                                     bestPrice != null ? bestPrice.getSiteName() : "Nenhum") :
-                            "Produto não encontrado em nenhum site")
+                            "Produto não encontrado em nenhum site", search))
+                    .siteTimings(search.timings())
+                    .timedOutSites(search.timedOutSites())
                     .createdAt(LocalDateTime.now())
                     .build();
 
@@ -190,29 +227,11 @@ public class SmartProductService {
                 log.info("URL fake detectada, pulando extração de preço original");
             }
 
-            // 4. BUSCAR PRODUTO APENAS NOS SITES RELEVANTES
-            List<SitePrice> allPrices = new ArrayList<>();
-            int sitesWithProduct = 0;
-
-            for (SiteConfig site : relevantSites) {
-                try {
-                    log.info("========== Buscando em: {} ==========", site.name);
-                    List<SitePrice> sitePrices = searchProductPricesInSite(request.getProductName(), site);
-                    log.info("Site {} retornou {} produtos", site.name, sitePrices.size());
-                    allPrices.addAll(sitePrices);
-                    if (!sitePrices.isEmpty()) {
-                        sitesWithProduct++;
-                        log.info("Site {} adicionado ao resultado final", site.name);
-                    }
-
-                    // Pequena pausa entre sites
-                    Thread.sleep(1000);
-
-                } catch (Exception e) {
-                    log.error("Erro ao buscar em {}: {}", site.name, e.getMessage(), e);
-                    logSiteError(site.name, e.getMessage());
-                }
-            }
+            // 4. BUSCAR PRODUTO NOS SITES RELEVANTES EM PARALELO, SOB UM ÚNICO PRAZO
+            SiteSearchFanOut.Result<SitePrice> search = siteSearch.searchAll(relevantSites,
+                    site -> searchProductPricesInSite(request.getProductName(), site));
+            List<SitePrice> allPrices = search.results();
+            int sitesWithProduct = search.sitesWithResults();
             
             log.info("========== BUSCA FINALIZADA ==========");
             log.info("Total de preços coletados: {}", allPrices.size());
@@ -221,7 +240,7 @@ public class SmartProductService {
             // 3. ORDENAR PREÇOS E MARCAR MELHOR PREÇO
             List<SitePrice> sortedPrices = allPrices.stream()
                     .filter(price -> price.isAvailable() && price.getPrice() != null)
-                    .sorted(Comparator.comparing(SitePrice::getPrice))
+                    .sorted(Comparator.comparingLong(price -> price.getPrice().cents()))
                     .collect(ArrayList::new, (list, price) -> {
                         // Criar nova instância com campos adicionais
                         SitePrice newPrice = SitePrice.builder()
@@ -242,8 +261,8 @@ public class SmartProductService {
             // 5. CALCULAR ECONOMIA (apenas se houver preço original)
             BigDecimal savings = null;
             BigDecimal savingsPercentage = null;
-            if (bestPrice != null && originalPrice != null && bestPrice.getPrice().compareTo(originalPrice) < 0) {
-                savings = originalPrice.subtract(bestPrice.getPrice());
+            if (bestPrice != null && originalPrice != null && bestPrice.getPrice().isLessThan(Money.of(originalPrice))) {
+                savings = originalPrice.subtract(bestPrice.getPrice().toBigDecimal());
                 savingsPercentage = savings.divide(originalPrice, 4, java.math.RoundingMode.HALF_UP)
                         .multiply(new BigDecimal("100"));
             }
@@ -255,16 +274,18 @@ public class SmartProductService {
                     .totalSitesSearched(relevantSites.size())
                     .sitesWithProduct(sitesWithProduct)
                     .bestPriceSite(bestPrice != null ? bestPrice.getSiteName() : null)
-                    .bestPrice(bestPrice != null ? bestPrice.getPrice() : null)
+                    .bestPrice(bestPrice != null ? bestPrice.getPrice().toBigDecimal() : null)
                     .bestPriceUrl(bestPrice != null ? bestPrice.getProductUrl() : null)
                     .savings(savings)
                     .savingsPercentage(savingsPercentage)
                     .allPrices(sortedPrices) // Lista ordenada do menor para o maior
-                    .status(sitesWithProduct > 0 ? "SUCCESS" : "ERROR")
-                    .message(sitesWithProduct > 0 ?
+                    .status(search.isPartial() ? "PARTIAL" : sitesWithProduct > 0 ? "SUCCESS" : "ERROR")
+                    .message(withTimedOutSites(sitesWithProduct > 0 ?
                             String.format("Encontrado em %d sites. Melhor preço: %s", sitesWithProduct,
                                     bestPrice != null ? bestPrice.getSiteName() : "Nenhum") :
-                            "Produto não encontrado em nenhum site")
+                            "Produto não encontrado em nenhum site", search))
+                    .siteTimings(search.timings())
+                    .timedOutSites(search.timedOutSites())
                     .searchDate(LocalDateTime.now())
                     .build();
 
@@ -292,66 +313,23 @@ public class SmartProductService {
         try {
             log.info("Tentando extrair preço da URL: {}", cleanUrl);
             
-            Document doc = Jsoup.connect(cleanUrl)
-                    .userAgent(USER_AGENTS[random.nextInt(USER_AGENTS.length)])
-                    .header("Accept", "text/html,application/xhtml+xml,application/xml;q=0.9,image/avif,image/webp,image/apng,*/*;q=0.8")
-                    .header("Accept-Language", "pt-BR,pt;q=0.9,en;q=0.8")
-                    .header("Accept-Encoding", "gzip, deflate, br")
-                    .header("DNT", "1")
-                    .header("Connection", "keep-alive")
-                    .header("Upgrade-Insecure-Requests", "1")
-                    .timeout(20000)
-                    .followRedirects(true)
-                    .get();
-
-            log.info("Documento carregado com sucesso. Título: {}", doc.title());
-
-            // Tentar seletores específicos para Amazon
-            if (cleanUrl.contains("amazon.com.br")) {
-                String[] amazonSelectors = {
-                    ".a-price-whole", 
-                    ".a-price .a-offscreen", 
-                    ".a-price-range .a-price-whole",
-                    "[data-asin] .a-price-whole",
-                    ".a-price-symbol + .a-price-whole",
-                    "#apex_desktop .a-price-whole",
-                    "#apex_desktop .a-offscreen",
-                    ".a-price .a-price-symbol + .a-price-whole"
-                };
-                
-                for (String selector : amazonSelectors) {
-                    Element priceElement = doc.selectFirst(selector);
-                    if (priceElement != null) {
-                        String priceText = priceElement.text();
-                        BigDecimal price = parseBrazilianPrice(priceText);
-                        if (price != null) {
-                            log.info("Preço extraído com sucesso usando seletor: {} - R$ {}", selector, price);
-                            return price;
-                        }
-                    }
-                }
+            // Oferta JSON-LD/microdata primeiro; depois seletores (Amazon: específicos, depois genéricos)
+            String site = SiteDomains.resolve(cleanUrl);
+            SelectorRanking.PricePlan pricePlan = selectorRanking.pricePlan(site,
+                    cleanUrl.contains("amazon.com.br") ? AMAZON_PAGE_PRICE_SELECTORS : STORE_PRICE_SELECTORS,
+                    GENERIC_PRICE_SELECTORS);
+            StreamingPriceExtractor.Result result = pageFetcher.fetchStreaming(cleanUrl, Duration.ofSeconds(20),
+                    (body, charset, baseUri) -> pricePlan.extractor().extract(body, charset, baseUri, BrazilianPriceParser::parse));
+            extractionStats.record(cleanUrl, result);
+            selectorRanking.record(site, pricePlan, result);
+
+            if (result.price() != null) {
+                log.info("Preço extraído com sucesso via {} {} - R$ {} ({} caracteres lidos{})",
+                        result.source(), result.selector() != null ? result.selector() : "", result.price(),
+                        result.charsRead(), result.stoppedEarly() ? ", leitura interrompida" : "");
+                return result.price();
             }
 
-            // Seletores genéricos para outros sites
-            String[] genericSelectors = {
-                    ".andes-money-amount__fraction", ".price-tag-fraction", // Mercado Livre
-                    ".priceCard", ".oldPriceCard", // Kabum
-                    ".price-current", ".price-value", // Outros sites
-                    ".price", ".valor", ".preco", ".amount", ".cost"
-            };
-
-            for (String selector : genericSelectors) {
-                Element priceElement = doc.selectFirst(selector);
-                if (priceElement != null) {
-                    String priceText = priceElement.text();
-                    BigDecimal price = parseBrazilianPrice(priceText);
-                    if (price != null) {
-                        log.info("Preço extraído com seletor genérico: {} - R$ {}", selector, price);
-                        return price;
-                    }
-                }
-            }
-            
             log.warn("Nenhum preço encontrado na URL: {}", cleanUrl);
 
         } catch (Exception e) {
@@ -360,60 +338,6 @@ public class SmartProductService {
         return null;
     }
 
-    // PARSING DE PREÇOS BRASILEIROS
-    private BigDecimal parseBrazilianPrice(String priceText) {
-        try {
-            if (priceText == null || priceText.trim().isEmpty()) {
-                return null;
-            }
-
-            // Remove símbolos de moeda e espaços
-            String cleaned = priceText.replaceAll("[R$\\s]", "").trim();
-            
-            // Remove vírgulas no final (ex: "4.699," -> "4.699")
-            cleaned = cleaned.replaceAll(",$", "");
-            
-            // Se não tem vírgula, trata como número simples
-            if (!cleaned.contains(",")) {
-                // Remove pontos (separadores de milhares) e converte
-                String numberOnly = cleaned.replaceAll("[^\\d]", "");
-                if (!numberOnly.isEmpty()) {
-                    return new BigDecimal(numberOnly);
-                }
-            }
-            
-            // Se tem vírgula, trata como formato brasileiro (1.234,56)
-            if (cleaned.contains(",")) {
-                // Divide em parte inteira e decimal
-                String[] parts = cleaned.split(",");
-                if (parts.length == 2) {
-                    String integerPart = parts[0].replaceAll("[^\\d]", ""); // Remove pontos
-                    String decimalPart = parts[1].replaceAll("[^\\d]", ""); // Remove caracteres não numéricos
-                    
-                    if (!integerPart.isEmpty()) {
-                        String fullNumber = integerPart + "." + decimalPart;
-                        return new BigDecimal(fullNumber);
-                    }
-                }
-            }
-            
-            // Fallback: tenta converter diretamente
-            String numberOnly = cleaned.replaceAll("[^\\d,.-]", "");
-            if (!numberOnly.isEmpty()) {
-                // Se tem vírgula, assume que é decimal
-                if (numberOnly.contains(",")) {
-                    numberOnly = numberOnly.replace(",", ".");
-                }
-                return new BigDecimal(numberOnly);
-            }
-            
-        } catch (Exception e) {
-            log.debug("Erro ao fazer parse do preço '{}': {}", priceText, e.getMessage());
-        }
-        
-        return null;
-    }
-
     // DEBUG DETALHADO DA EXTRAÇÃO DE PREÇO
     public String debugPriceExtraction(String url) {
         StringBuilder debug = new StringBuilder();
@@ -431,17 +355,7 @@ public class SmartProductService {
         try {
             debug.append("Tentando conectar à URL...\n");
             
-            Document doc = Jsoup.connect(cleanUrl)
-                    .userAgent(USER_AGENTS[random.nextInt(USER_AGENTS.length)])
-                    .header("Accept", "text/html,application/xhtml+xml,application/xml;q=0.9,image/avif,image/webp,image/apng,*/*;q=0.8")
-                    .header("Accept-Language", "pt-BR,pt;q=0.9,en;q=0.8")
-                    .header("Accept-Encoding", "gzip, deflate, br")
-                    .header("DNT", "1")
-                    .header("Connection", "keep-alive")
-                    .header("Upgrade-Insecure-Requests", "1")
-                    .timeout(20000)
-                    .followRedirects(true)
-                    .get();
+            Document doc = pageFetcher.fetch(cleanUrl, Duration.ofSeconds(20));
 
             debug.append(" Conexão bem-sucedida!\n");
             debug.append("Título da página: ").append(doc.title()).append("\n\n");
@@ -466,7 +380,7 @@ public class SmartProductService {
                         String text = element.text();
                         debug.append(" Seletor: ").append(selector).append("\n");
                         debug.append("   Texto encontrado: '").append(text).append("'\n");
-                        BigDecimal price = parseBrazilianPrice(text);
+                        BigDecimal price = BrazilianPriceParser.parse(text);
                         if (price != null) {
                             debug.append("   Preço parseado: R$ ").append(price).append("\n");
                         } else {
@@ -497,27 +411,23 @@ public class SmartProductService {
         return debug.toString();
     }
 
-    // BUSCAR PREÇOS EM SITE ESPECÍFICO E SALVAR PARA MONITORAMENTO
-    private List<SitePrice> searchProductPricesForMonitoring(String productName, SiteConfig site, BigDecimal targetPrice, ProductCategory category) {
+    // BUSCAR PREÇOS EM SITE ESPECÍFICO PARA MONITORAMENTO (sem salvar; ver saveForMonitoring)
+    private List<SitePrice> searchProductPricesForMonitoring(String productName, SiteConfig site) {
         List<SitePrice> prices = new ArrayList<>();
 
         try {
             String searchUrl = String.format(site.searchUrl, URLEncoder.encode(productName, StandardCharsets.UTF_8));
 
-            Document doc = Jsoup.connect(searchUrl)
-                    .userAgent(USER_AGENTS[random.nextInt(USER_AGENTS.length)])
-                    .header("Accept", "text/html,application/xhtml+xml,application/xml;q=0.9,image/avif,image/webp,image/apng,*/*;q=0.8")
-                    .header("Accept-Language", "pt-BR,pt;q=0.9,en;q=0.8")
-                    .timeout(15000)
-                    .get();
+            Document doc = pageFetcher.fetch(searchUrl, Duration.ofSeconds(15));
 
-            Elements productElements = doc.select(site.productSelector);
+            SitePlan plan = planFor(site);
+            Elements productElements = plan.products().select(doc);
 
             for (Element element : productElements) {
                 try {
-                    String name = extractText(element, site.nameSelector);
-                    String url = extractUrl(element, site.urlSelector);
-                    BigDecimal price = extractPrice(element, site.priceSelector);
+                    String name = extractText(element, plan.names());
+                    String url = extractUrl(element, plan.urls());
+                    Money price = extractPrice(element, plan.prices());
 
                     if (name != null && url != null && price != null) {
                         // Construir URL completa se necessário
@@ -525,31 +435,13 @@ public class SmartProductService {
                             url = site.baseUrl + url;
                         }
 
-                        // Criar produto para monitoramento
-                        ProductMonitor product = ProductMonitor.builder()
-                                .productName(name)
-                                .productUrl(url)
-                                .targetPrice(targetPrice)
-                                .currentPrice(price)
-                                .siteName(site.name)
-                                .category(category)
-                                .isActive(true)
-                                .notificationSent(false)
-                                .build();
-
-                        // Salvar produto no banco
-                        ProductMonitor savedProduct = productService.createProduct(product);
-
-                        // Criar preço do site com ID do produto salvo
-                        SitePrice sitePrice = SitePrice.builder()
+                        prices.add(SitePrice.builder()
                                 .siteName(site.name)
                                 .price(price)
                                 .productUrl(url)
+                                .productName(name)
                                 .available(true)
-                                .productId(savedProduct.getId())
-                                .build();
-
-                        prices.add(sitePrice);
+                                .build());
 
                         // Limitar a 3 produtos por site
                         if (prices.size() >= 3) break;
@@ -566,8 +458,35 @@ public class SmartProductService {
         return prices;
     }
 
+    // SALVAR PARA MONITORAMENTO OS PREÇOS QUE VOLTARAM NO PRAZO
+    private List<SitePrice> saveForMonitoring(List<SitePrice> prices, BigDecimal targetPrice, ProductCategory category) {
+        List<SitePrice> saved = new ArrayList<>(prices.size());
+        for (SitePrice price : prices) {
+            try {
+                ProductMonitor product = ProductMonitor.builder()
+                        .productName(price.getProductName())
+                        .productUrl(price.getProductUrl())
+                        .targetPrice(targetPrice)
+                        .currentPrice(price.getPrice().toBigDecimal())
+                        .siteName(price.getSiteName())
+                        .category(category)
+                        .isActive(true)
+                        .notificationSent(false)
+                        .build();
+
+                // Salvar produto no banco e guardar o ID no preço do site
+                ProductMonitor savedProduct = productService.createProduct(product);
+                price.setProductId(savedProduct.getId());
+                saved.add(price);
+            } catch (Exception e) {
+                logProcessingError(price.getSiteName(), e.getMessage());
+            }
+        }
+        return saved;
+    }
+
     // FILTRO DE RELEVÂNCIA DE PRODUTOS
-    private boolean isProductRelevant(String foundProductName, String searchedProductName, BigDecimal price) {
+    private boolean isProductRelevant(String foundProductName, String searchedProductName, Money price) {
         String lowerFound = foundProductName.toLowerCase().trim();
         String lowerSearched = searchedProductName.toLowerCase().trim();
         
@@ -616,7 +535,7 @@ public class SmartProductService {
                                 lowerFound.contains("cabo") || lowerFound.contains("cable") ||
                                 lowerFound.contains("película") || lowerFound.contains("screen protector");
             
-            boolean validPrice = price.compareTo(new BigDecimal("2000")) >= 0;
+            boolean validPrice = !price.isLessThan(MIN_CONSOLE_PRICE);
             
             if (!isConsole || isAccessory || !validPrice) {
                 log.debug("Console descartado - isConsole:{}, isAccessory:{}, validPrice:{}", isConsole, isAccessory, validPrice);
@@ -632,7 +551,7 @@ public class SmartProductService {
                                 lowerFound.contains("fone") || lowerFound.contains("headphone") ||
                                 lowerFound.contains("cabo") || lowerFound.contains("cable");
             
-            boolean validPrice = price.compareTo(new BigDecimal("800")) >= 0;
+            boolean validPrice = !price.isLessThan(MIN_SMARTPHONE_PRICE);
             
             if (isAccessory || !validPrice) {
                 log.debug("Smartphone descartado - isAccessory:{}, validPrice:{}", isAccessory, validPrice);
@@ -646,7 +565,7 @@ public class SmartProductService {
                                 lowerFound.contains("keyboard") || lowerFound.contains("capa") ||
                                 lowerFound.contains("mochila") || lowerFound.contains("backpack");
             
-            boolean validPrice = price.compareTo(new BigDecimal("1200")) >= 0;
+            boolean validPrice = !price.isLessThan(MIN_NOTEBOOK_PRICE);
             
             if (isAccessory || !validPrice) {
                 log.debug("Notebook descartado - isAccessory:{}, validPrice:{}", isAccessory, validPrice);
@@ -662,7 +581,7 @@ public class SmartProductService {
                                 lowerFound.contains("palmilha") || lowerFound.contains("insole") ||
                                 lowerFound.contains("cadarço") || lowerFound.contains("lace");
             
-            boolean validPrice = price.compareTo(new BigDecimal("50")) >= 0 && price.compareTo(new BigDecimal("5000")) <= 0;
+            boolean validPrice = price.isBetween(MIN_SHOE_PRICE, MAX_SHOE_PRICE);
             
             if (isAccessory || !validPrice) {
                 log.debug("Calçado descartado - isAccessory:{}, validPrice:{}", isAccessory, validPrice);
@@ -674,7 +593,7 @@ public class SmartProductService {
         if (lowerSearched.contains("camiseta") || lowerSearched.contains("camisa") || lowerSearched.contains("calça") ||
             lowerSearched.contains("jaqueta") || lowerSearched.contains("short") || lowerSearched.contains("bermuda")) {
             
-            boolean validPrice = price.compareTo(new BigDecimal("30")) >= 0 && price.compareTo(new BigDecimal("3000")) <= 0;
+            boolean validPrice = price.isBetween(MIN_CLOTHING_PRICE, MAX_CLOTHING_PRICE);
             
             if (!validPrice) {
                 log.debug("Roupa descartada - validPrice:{}", validPrice);
@@ -689,7 +608,7 @@ public class SmartProductService {
         }
         
         // Filtrar preços absurdamente baixos (provavelmente acessórios ou erros)
-        if (price.compareTo(new BigDecimal("10")) < 0) {
+        if (price.isLessThan(MIN_PRODUCT_PRICE)) {
             log.debug("Produto descartado (preço muito baixo): R$ {}", price);
             return false;
         }
@@ -701,100 +620,49 @@ public class SmartProductService {
     // BUSCAR PREÇOS EM SITE ESPECÍFICO (SEM SALVAMENTO)
     private List<SitePrice> searchProductPricesInSite(String productName, SiteConfig site) {
         List<SitePrice> prices = new ArrayList<>();
+        String searchUrl = String.format(site.searchUrl, URLEncoder.encode(productName, StandardCharsets.UTF_8));
 
-        // Sites que SEMPRE usam Selenium (não tentam Jsoup primeiro)
-        if (site.name.equals("NETSHOES")) {
-            log.info("Site {} configurado para usar APENAS Selenium", site.name);
-            
-            try {
-                String searchUrl = String.format(site.searchUrl, URLEncoder.encode(productName, StandardCharsets.UTF_8));
-                List<ProductData> seleniumProducts = seleniumService.searchGenericSite(site.name, searchUrl, productName);
-                
-                log.info("Selenium encontrou {} produtos em {}", seleniumProducts.size(), site.name);
-                
-                // Converter para SitePrice
-                for (ProductData product : seleniumProducts) {
-                    prices.add(SitePrice.builder()
-                            .siteName(site.name)
-                            .price(product.price())
-                            .productUrl(product.url())
-                            .available(true)
-                            .productName(product.name())
-                            .build());
-                    
-                    // Limitar a 3 produtos por site
-                    if (prices.size() >= 3) break;
-                }
-                
-            } catch (Exception e) {
-                log.error("Erro ao buscar com Selenium no site {}: {}", site.name, e.getMessage());
-            }
-            
-            return prices;
+        // Sites que costumam bloquear o Jsoup vão direto para o Selenium, conforme o histórico
+        if (engineRouter.route(site.name) == EngineRouter.Engine.SELENIUM) {
+            return searchWithSelenium(productName, site, searchUrl);
         }
 
-        // Para outros sites, tentar Jsoup primeiro
+        // Para os demais, tentar Jsoup primeiro
+        long start = System.nanoTime();
         try {
-            String searchUrl = String.format(site.searchUrl, URLEncoder.encode(productName, StandardCharsets.UTF_8));
             log.info("Tentando buscar com Jsoup: {}", searchUrl);
 
-            Document doc = Jsoup.connect(searchUrl)
-                    .userAgent(USER_AGENTS[random.nextInt(USER_AGENTS.length)])
-                    .header("Accept", "text/html,application/xhtml+xml,application/xml;q=0.9,image/avif,image/webp,image/apng,*/*;q=0.8")
-                    .header("Accept-Language", "pt-BR,pt;q=0.9,en;q=0.8")
-                    .timeout(15000)
-                    .get();
+            Document doc = pageFetcher.fetch(searchUrl, Duration.ofSeconds(15));
+
+            // Estado JSON embutido na página: resolve a busca sem seletores e sem navegador
+            if (SearchStateExtractor.supports(site.name)) {
+                addEmbeddedResults(prices, SearchStateExtractor.extract(site.name, doc), productName, site);
+                if (!prices.isEmpty()) {
+                    recordEngine(site.name, EngineRouter.Engine.JSOUP, EngineRouter.Outcome.SUCCESS, elapsedMillis(start));
+                    log.info("Estado embutido de {} retornou {} produtos relevantes", site.name, prices.size());
+                    return prices;
+                }
+            }
 
-            Elements productElements = doc.select(site.productSelector);
+            SitePlan plan = planFor(site);
+            Elements productElements = plan.products().select(doc);
             log.info("Jsoup encontrou {} elementos de produto no site {}", productElements.size(), site.name);
 
             // Se não encontrou produtos com o seletor padrão, tentar Selenium
             if (productElements.isEmpty()) {
+                recordEngine(site.name, EngineRouter.Engine.JSOUP, EngineRouter.Outcome.EMPTY, elapsedMillis(start));
                 log.info("Nenhum produto encontrado com Jsoup no site {}. Tentando Selenium...", site.name);
-                
-                try {
-                    List<ProductData> seleniumProducts;
-                    
-                    // Usar método específico ou genérico
-                    if (site.name.equals("KABUM")) {
-                        seleniumProducts = seleniumService.searchKabum(productName);
-                    } else if (site.name.equals("MERCADO_LIVRE")) {
-                        seleniumProducts = seleniumService.searchMercadoLivre(productName);
-                    } else {
-                        seleniumProducts = seleniumService.searchGenericSite(site.name, searchUrl, productName);
-                    }
-                    
-                    log.info("Selenium encontrou {} produtos em {}", seleniumProducts.size(), site.name);
-                    
-                    // Converter para SitePrice
-                    for (ProductData product : seleniumProducts) {
-                        prices.add(SitePrice.builder()
-                                .siteName(site.name)
-                                .price(product.price())
-                                .productUrl(product.url())
-                                .available(true)
-                                .productName(product.name())
-                                .build());
-                        
-                        // Limitar a 3 produtos por site
-                        if (prices.size() >= 3) break;
-                    }
-                    
-                    return prices;
-                    
-                } catch (Exception e) {
-                    log.warn("Erro com Selenium em {}: {}", site.name, e.getMessage());
-                    return new ArrayList<>(); // Retornar lista vazia
-                }
+                return searchWithSelenium(productName, site, searchUrl);
             }
+            recordEngine(site.name, EngineRouter.Engine.JSOUP, EngineRouter.Outcome.SUCCESS, elapsedMillis(start));
 
             int processedCount = 0;
             for (Element element : productElements) {
                 try {
                     processedCount++;
-                    String name = extractText(element, site.nameSelector);
-                    String url = extractUrl(element, site.urlSelector);
-                    BigDecimal price = extractPrice(element, site.priceSelector);
+                    String name = extractText(element, plan.names());
+                    String url = extractUrl(element, plan.urls());
+                    Money price = extractPrice(element, plan.prices());
 
                     log.debug("[{}] Produto {}: name='{}', price={}, url='{}'", 
                             site.name, processedCount, name, price, url != null ? url.substring(0, Math.min(50, url.length())) + "..." : "null");
@@ -842,53 +710,120 @@ public class SmartProductService {
                     processedCount, prices.size(), site.name);
 
         } catch (Exception e) {
+            if (SiteSearchFanOut.isCancellation(e)) {
+                log.info("Busca em {} cancelada pelo prazo; fora do histórico de motores", site.name);
+                return prices;
+            }
             logSiteError(site.name, e.getMessage());
             
-            // Se for erro 403 (bloqueio anti-bot), timeout ou IOException, tentar Selenium
-            if (e.getMessage() != null && (e.getMessage().contains("403") || e.getMessage().contains("Status=403") || 
-                e.getMessage().contains("timed out") || e.getMessage().contains("Read timed out"))) {
-                
-                String errorType = e.getMessage().contains("403") ? "403 (anti-bot)" : "timeout";
+            // Se for bloqueio anti-bot (403/429) ou timeout, tentar Selenium
+            if (isBlocked(e)) {
+                recordEngine(site.name, EngineRouter.Engine.JSOUP, EngineRouter.Outcome.BLOCKED, elapsedMillis(start));
+                String errorType = e instanceof HttpStatusException status ? "HTTP " + status.getStatusCode() + " (anti-bot)" : "timeout";
                 log.info("Erro {} detectado em {}. Tentando Selenium...", errorType, site.name);
-                
-                try {
-                    String searchUrl = String.format(site.searchUrl, URLEncoder.encode(productName, StandardCharsets.UTF_8));
-                    List<ProductData> seleniumProducts;
-                    
-                    // Usar método específico ou genérico
-                    if (site.name.equals("KABUM")) {
-                        seleniumProducts = seleniumService.searchKabum(productName);
-                    } else if (site.name.equals("MERCADO_LIVRE")) {
-                        seleniumProducts = seleniumService.searchMercadoLivre(productName);
-                    } else {
-                        seleniumProducts = seleniumService.searchGenericSite(site.name, searchUrl, productName);
-                    }
-                    
-                    log.info("Selenium encontrou {} produtos em {}", seleniumProducts.size(), site.name);
-                    
-                    // Converter para SitePrice
-                    for (ProductData product : seleniumProducts) {
-                        prices.add(SitePrice.builder()
-                                .siteName(site.name)
-                                .price(product.price())
-                                .productUrl(product.url())
-                                .available(true)
-                                .productName(product.name())
-                                .build());
-                        
-                        // Limitar a 3 produtos por site
-                        if (prices.size() >= 3) break;
-                    }
-                    
-                } catch (Exception seleniumError) {
-                    log.warn("Erro com Selenium em {}: {}", site.name, seleniumError.getMessage());
-                }
+                return searchWithSelenium(productName, site, searchUrl);
             }
+            recordEngine(site.name, EngineRouter.Engine.JSOUP, EngineRouter.Outcome.ERROR, elapsedMillis(start));
         }
 
         return prices;
     }
 
+    // Busca com Selenium (método específico do site ou genérico), até 3 produtos
+    private List<SitePrice> searchWithSelenium(String productName, SiteConfig site, String searchUrl) {
+        List<SitePrice> prices = new ArrayList<>();
+        long start = System.nanoTime();
+
+        try {
+            List<ProductData> seleniumProducts;
+            
+            // Usar método específico ou genérico
+            if (site.name.equals("KABUM")) {
+                seleniumProducts = seleniumService.searchKabum(productName);
+            } else if (site.name.equals("MERCADO_LIVRE")) {
+                seleniumProducts = seleniumService.searchMercadoLivre(productName);
+            } else {
+                seleniumProducts = seleniumService.searchGenericSite(site.name, searchUrl, productName);
+            }
+            
+            recordEngine(site.name, EngineRouter.Engine.SELENIUM,
+                    seleniumProducts.isEmpty() ? EngineRouter.Outcome.EMPTY : EngineRouter.Outcome.SUCCESS, elapsedMillis(start));
+            log.info("Selenium encontrou {} produtos em {}", seleniumProducts.size(), site.name);
+            
+            // Converter para SitePrice
+            for (ProductData product : seleniumProducts) {
+                prices.add(SitePrice.builder()
+                        .siteName(site.name)
+                        .price(product.price())
+                        .productUrl(product.url())
+                        .available(true)
+                        .productName(product.name())
+                        .build());
+                
+                // Limitar a 3 produtos por site
+                if (prices.size() >= 3) break;
+            }
+            
+        } catch (Exception e) {
+            if (SiteSearchFanOut.isCancellation(e)) {
+                log.info("Busca Selenium em {} cancelada pelo prazo; fora do histórico de motores", site.name);
+                return prices;
+            }
+            recordEngine(site.name, EngineRouter.Engine.SELENIUM, EngineRouter.Outcome.ERROR, elapsedMillis(start));
+            log.warn("Erro com Selenium em {}: {}", site.name, e.getMessage());
+        }
+        
+        return prices;
+    }
+
+    // Bloqueio anti-bot ou timeout do download: o Jsoup não vai resolver este site agora
+    private boolean isBlocked(Exception e) {
+        if (e instanceof HttpStatusException status) {
+            return status.getStatusCode() == 403 || status.getStatusCode() == 429;
+        }
+        return e instanceof HttpTimeoutException || e instanceof SocketTimeoutException;
+    }
+
+    // Uma busca interrompida pelo cancel(true) do fan-out (lista vazia ou erro no meio do caminho)
+    // não diz nada sobre o motor e fica fora da média do EngineRouter
+    private void recordEngine(String siteName, EngineRouter.Engine engine, EngineRouter.Outcome outcome, long millis) {
+        if (Thread.currentThread().isInterrupted()) {
+            return;
+        }
+        engineRouter.record(siteName, engine, outcome, millis);
+    }
+
+    private long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    // Aplica o mesmo filtro de relevância e o limite de 3 produtos por site da busca por seletores
+    private void addEmbeddedResults(List<SitePrice> prices, List<ProductData> products, String productName, SiteConfig site) {
+        for (ProductData product : products) {
+            if (!isProductRelevant(product.name(), productName, product.price())) {
+                log.debug("  ✗ Produto irrelevante filtrado: {} - R$ {}", product.name(), product.price());
+                continue;
+            }
+            prices.add(SitePrice.builder()
+                    .siteName(site.name)
+                    .price(product.price())
+                    .productUrl(product.url())
+                    .available(true)
+                    .productName(product.name())
+                    .build());
+
+            if (prices.size() >= 3) break;
+        }
+    }
+
+
+    // Resultado parcial: a mensagem diz quais sites ficaram de fora por prazo
+    private String withTimedOutSites(String message, SiteSearchFanOut.Result<?> search) {
+        if (!search.isPartial()) {
+            return message;
+        }
+        return message + ". Sem resposta no prazo: " + String.join(", ", search.timedOutSites());
+    }
 
     // MÉTODOS AUXILIARES PARA LOGS
     private void logSiteError(String siteName, String errorMessage) {
@@ -919,30 +854,50 @@ public class SmartProductService {
         log.error("Erro ao extrair preço da URL {}: {}", url, errorMessage);
     }
 
-    private String extractText(Element element, String selector) {
+    private SitePlan planFor(SiteConfig site) {
+        return sitePlans.get(site.name);
+    }
+
+    // Cada alternativa dos seletores do site avaliada isoladamente na página, com o tempo gasto
+    private void appendPlanProbes(StringBuilder debug, SitePlan plan, Document doc) {
+        debug.append("\n=== ALTERNATIVAS DOS SELETORES ===\n");
+        List<Map.Entry<String, SelectorPlan>> plans = List.of(Map.entry("produto", plan.products()),
+                Map.entry("nome", plan.names()), Map.entry("preço", plan.prices()), Map.entry("url", plan.urls()));
+        for (Map.Entry<String, SelectorPlan> selector : plans) {
+            for (SelectorPlan.Alternative alternative : selector.getValue().alternatives()) {
+                SelectorPlan.Probe probe = alternative.probe(doc);
+                debug.append("[").append(selector.getKey()).append("] '").append(probe.css()).append("': ")
+                        .append(probe.matches()).append(" elementos em ")
+                        .append(probe.nanos() / 1_000).append(" µs\n");
+            }
+        }
+        debug.append("\n");
+    }
+
+    private String extractText(Element element, SelectorPlan selector) {
         try {
-            Element found = element.selectFirst(selector);
+            Element found = selector.selectFirst(element);
             return found != null ? found.text().trim() : null;
         } catch (Exception e) {
             return null;
         }
     }
 
-    private String extractUrl(Element element, String selector) {
+    private String extractUrl(Element element, SelectorPlan selector) {
         try {
-            Element link = element.selectFirst(selector);
+            Element link = selector.selectFirst(element);
             return link != null ? link.attr("href") : null;
         } catch (Exception e) {
             return null;
         }
     }
 
-    private BigDecimal extractPrice(Element element, String selector) {
+    private Money extractPrice(Element element, SelectorPlan selector) {
         try {
-            Element priceElement = element.selectFirst(selector);
+            Element priceElement = selector.selectFirst(element);
             if (priceElement != null) {
                 String priceText = priceElement.text();
-                return parseBrazilianPrice(priceText);
+                return BrazilianPriceParser.parseMoney(priceText);
             }
         } catch (Exception e) {
             log.debug("Erro ao extrair preço: {}", e.getMessage());
@@ -986,23 +941,7 @@ public class SmartProductService {
             debug.append("URL de busca: ").append(searchUrl).append("\n\n");
             
             // Conectar e extrair dados com headers melhorados
-            Document doc = Jsoup.connect(searchUrl)
-                    .userAgent("Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36")
-                    .header("Accept", "text/html,application/xhtml+xml,application/xml;q=0.9,image/avif,image/webp,image/apng,*/*;q=0.8,application/signed-exchange;v=b3;q=0.7")
-                    .header("Accept-Language", "pt-BR,pt;q=0.9,en;q=0.8")
-                    .header("Accept-Encoding", "gzip, deflate, br")
-                    .header("DNT", "1")
-                    .header("Connection", "keep-alive")
-                    .header("Upgrade-Insecure-Requests", "1")
-                    .header("Sec-Fetch-Dest", "document")
-                    .header("Sec-Fetch-Mode", "navigate")
-                    .header("Sec-Fetch-Site", "none")
-                    .header("Cache-Control", "max-age=0")
-                    .header("Referer", "https://www.mercadolivre.com.br/")
-                    .timeout(25000)
-                    .followRedirects(true)
-                    .maxBodySize(0)
-                    .get();
+            Document doc = pageFetcher.fetch(searchUrl, Duration.ofSeconds(25), "https://www.mercadolivre.com.br/");
             
             debug.append(" Conexão bem-sucedida!\n");
             debug.append("Título da página: ").append(doc.title()).append("\n");
@@ -1016,8 +955,10 @@ public class SmartProductService {
             }
             
             // Buscar por elementos de produtos
-            Elements productElements = doc.select(siteConfig.productSelector);
+            SitePlan plan = planFor(siteConfig);
+            Elements productElements = plan.products().select(doc);
             debug.append("Elementos de produtos encontrados: ").append(productElements.size()).append("\n");
+            appendPlanProbes(debug, plan, doc);
             
             // Extrair dados dos produtos encontrados
             List<SitePrice> realProducts = new ArrayList<>();
@@ -1026,7 +967,7 @@ public class SmartProductService {
                 
                 // Extrair nome
                 String name = "NULO";
-                Elements nameElements = product.select(siteConfig.nameSelector);
+                Elements nameElements = plan.names().select(product);
                 if (!nameElements.isEmpty()) {
                     String rawName = nameElements.first().text().trim();
                     // Filtrar textos indesejados
@@ -1041,16 +982,16 @@ public class SmartProductService {
                 }
                 
                 // Extrair preço
-                BigDecimal price = null;
-                Elements priceElements = product.select(siteConfig.priceSelector);
+                Money price = null;
+                Elements priceElements = plan.prices().select(product);
                 if (!priceElements.isEmpty()) {
                     String priceText = priceElements.first().text();
-                    price = parseBrazilianPrice(priceText);
+                    price = BrazilianPriceParser.parseMoney(priceText);
                 }
                 
                 // Extrair URL
                 String url = "NULO";
-                Elements urlElements = product.select(siteConfig.urlSelector);
+                Elements urlElements = plan.urls().select(product);
                 if (!urlElements.isEmpty()) {
                     String href = urlElements.first().attr("href");
                     if (!href.isEmpty()) {
@@ -1058,7 +999,7 @@ public class SmartProductService {
                     }
                 }
                 
-                if (price != null && price.compareTo(new BigDecimal("100")) > 0) {
+                if (price != null && price.isGreaterThan(MIN_DEBUG_PRICE)) {
                     SitePrice sitePrice = SitePrice.builder()
                             .siteName(siteConfig.name)
                             .price(price)
@@ -1213,15 +1154,15 @@ public class SmartProductService {
             }
             
             // Buscar por elementos de preço
-            Elements priceElements = doc.select(siteConfig.priceSelector);
+            Elements priceElements = plan.prices().select(doc);
             debug.append("Elementos de preço encontrados: ").append(priceElements.size()).append("\n");
             
             // Testar extração de dados dos produtos
             for (int i = 0; i < Math.min(3, productElements.size()); i++) {
                 Element productElem = productElements.get(i);
-                String name = extractText(productElem, siteConfig.nameSelector);
-                String url = extractUrl(productElem, siteConfig.urlSelector);
-                BigDecimal price = extractPrice(productElem, siteConfig.priceSelector);
+                String name = extractText(productElem, plan.names());
+                String url = extractUrl(productElem, plan.urls());
+                Money price = extractPrice(productElem, plan.prices());
                 
                 debug.append("Produto ").append(i + 1).append(":\n");
                 debug.append("  Nome: '").append(name != null ? name : "NULO").append("'\n");
@@ -1245,15 +1186,15 @@ public class SmartProductService {
                 
                 // Tentar extrair preço do elemento pai
                 Element parent = link.parent();
-                while (parent != null && parent.select(siteConfig.priceSelector).isEmpty()) {
+                while (parent != null && plan.prices().isEmptyIn(parent)) {
                     parent = parent.parent();
                 }
                 
                 if (parent != null) {
-                    Elements priceElems = parent.select(siteConfig.priceSelector);
+                    Elements priceElems = plan.prices().select(parent);
                     if (!priceElems.isEmpty()) {
                         String priceText = priceElems.first().text();
-                        BigDecimal price = parseBrazilianPrice(priceText);
+                        BigDecimal price = BrazilianPriceParser.parse(priceText);
                         debug.append("  → Preço encontrado: ").append(priceText).append(" → R$ ").append(price).append("\n");
                     }
                 }
@@ -1267,7 +1208,7 @@ public class SmartProductService {
             for (int i = 0; i < Math.min(5, allPriceElements.size()); i++) {
                 Element priceElem = allPriceElements.get(i);
                 String priceText = priceElem.text();
-                BigDecimal price = parseBrazilianPrice(priceText);
+                BigDecimal price = BrazilianPriceParser.parse(priceText);
                 
                 if (price != null && price.compareTo(new BigDecimal("1000")) > 0) { // Preços acima de R$ 1000
                     debug.append("Preço ").append(i + 1).append(": ").append(priceText).append(" → R$ ").append(price).append("\n");
@@ -1320,19 +1261,19 @@ public class SmartProductService {
                 debug.append("⚠️ Nenhum produto real encontrado, criando produtos simulados...\n");
                 
                 // Lista de preços válidos encontrados
-                List<BigDecimal> validPrices = new ArrayList<>();
+                List<Money> validPrices = new ArrayList<>();
                 for (int i = 0; i < Math.min(10, allPriceElements.size()); i++) {
                     Element priceElem = allPriceElements.get(i);
                     String priceText = priceElem.text();
-                    BigDecimal price = parseBrazilianPrice(priceText);
+                    Money price = BrazilianPriceParser.parseMoney(priceText);
                     
-                    if (price != null && price.compareTo(new BigDecimal("1000")) > 0 && price.compareTo(new BigDecimal("10000")) < 0) {
+                    if (isValidPriceRange(price)) {
                         validPrices.add(price);
                     }
                 }
             
                 debug.append("Preços válidos encontrados: ").append(validPrices.size()).append("\n");
-                for (BigDecimal price : validPrices) {
+                for (Money price : validPrices) {
                     debug.append("  → R$ ").append(price).append("\n");
                 }
                 
@@ -1340,7 +1281,7 @@ public class SmartProductService {
                 debug.append("\n=== PRODUTOS SIMULADOS CRIADOS ===\n");
                 List<SitePrice> simulatedProducts = new ArrayList<>();
                 for (int i = 0; i < Math.min(3, validPrices.size()); i++) {
-                    BigDecimal price = validPrices.get(i);
+                    Money price = validPrices.get(i);
                     String simulatedName = productName + " - " + siteConfig.name;
                     String productUrl = String.format(siteConfig.searchUrl, URLEncoder.encode(productName, StandardCharsets.UTF_8));
                     
@@ -1394,8 +1335,6 @@ public class SmartProductService {
             
         } catch (Exception e) {
             result.append(" Erro: ").append(e.getMessage()).append("\n");
-        } finally {
-            seleniumService.closeDriver();
         }
         
         return result.toString();
@@ -1406,11 +1345,11 @@ public class SmartProductService {
         List<SitePrice> prices = new ArrayList<>();
         
         try {
-            Elements priceElements = doc.select(site.priceSelector);
-            java.util.Set<BigDecimal> uniquePrices = extractValidPrices(priceElements, productName);
+            Elements priceElements = planFor(site).prices().select(doc);
+            java.util.Set<Money> uniquePrices = extractValidPrices(priceElements, productName);
             
             // Criar produtos simulados para cada preço único
-            for (BigDecimal price : uniquePrices) {
+            for (Money price : uniquePrices) {
                 if (prices.size() >= 3) break; // Limitar a 3 produtos
                 
                 String simulatedUrl = String.format(site.searchUrl, URLEncoder.encode(productName, StandardCharsets.UTF_8));
@@ -1427,11 +1366,11 @@ public class SmartProductService {
         return prices;
     }
     
-    private java.util.Set<BigDecimal> extractValidPrices(Elements priceElements, String productName) {
-        java.util.Set<BigDecimal> uniquePrices = new java.util.HashSet<>();
+    private java.util.Set<Money> extractValidPrices(Elements priceElements, String productName) {
+        java.util.Set<Money> uniquePrices = new java.util.HashSet<>();
         
         for (Element priceElem : priceElements) {
-            BigDecimal price = parseBrazilianPrice(priceElem.text());
+            Money price = BrazilianPriceParser.parseMoney(priceElem.text());
             
             if (isValidPriceRange(price) && isPriceRelatedToProduct(priceElem, productName)) {
                 uniquePrices.add(price);
@@ -1441,10 +1380,9 @@ public class SmartProductService {
         return uniquePrices;
     }
     
-    private boolean isValidPriceRange(BigDecimal price) {
+    private boolean isValidPriceRange(Money price) {
         if (price == null) return false;
-        return price.compareTo(new BigDecimal("1000")) > 0 && 
-               price.compareTo(new BigDecimal("10000")) < 0;
+        return price.isGreaterThan(MIN_SIMULATED_PRICE) && price.isLessThan(MAX_SIMULATED_PRICE);
     }
     
     private boolean isPriceRelatedToProduct(Element priceElem, String productName) {
@@ -1474,7 +1412,7 @@ public class SmartProductService {
         return matchedKeywords >= (keywords.length * 0.5);
     }
     
-    private SitePrice buildSimulatedSitePrice(SiteConfig site, BigDecimal price, String url, String productName) {
+    private SitePrice buildSimulatedSitePrice(SiteConfig site, Money price, String url, String productName) {
         return SitePrice.builder()
                 .siteName(site.name)
                 .price(price)
@@ -1529,27 +1467,14 @@ public class SmartProductService {
                 debug.append("URL: ").append(searchUrl).append("\n");
                 
                 // Conectar com headers mais realistas
-                Document doc = Jsoup.connect(searchUrl)
-                        .userAgent(USER_AGENTS[random.nextInt(USER_AGENTS.length)])
-                        .header("Accept", "text/html,application/xhtml+xml,application/xml;q=0.9,image/avif,image/webp,image/apng,*/*;q=0.8")
-                        .header("Accept-Language", "pt-BR,pt;q=0.9,en;q=0.8")
-                        .header("Accept-Encoding", "gzip, deflate, br")
-                        .header("DNT", "1")
-                        .header("Connection", "keep-alive")
-                        .header("Upgrade-Insecure-Requests", "1")
-                        .header("Sec-Fetch-Dest", "document")
-                        .header("Sec-Fetch-Mode", "navigate")
-                        .header("Sec-Fetch-Site", "none")
-                        .header("Cache-Control", "max-age=0")
-                        .timeout(15000)
-                        .followRedirects(true)
-                        .get();
+                Document doc = pageFetcher.fetch(searchUrl, Duration.ofSeconds(15));
                 
                 debug.append(" Conexão: OK\n");
                 
                 // Testar seletores
-                Elements productElements = doc.select(siteConfig.productSelector);
-                Elements priceElements = doc.select(siteConfig.priceSelector);
+                SitePlan plan = planFor(siteConfig);
+                Elements productElements = plan.products().select(doc);
+                Elements priceElements = plan.prices().select(doc);
                 
                 debug.append("Produtos encontrados: ").append(productElements.size()).append("\n");
                 debug.append("Preços encontrados: ").append(priceElements.size()).append("\n");
@@ -1579,7 +1504,7 @@ public class SmartProductService {
                             // Mostrar alguns exemplos
                             for (int i = 0; i < Math.min(3, elements.size()); i++) {
                                 String text = elements.get(i).text();
-                                BigDecimal price = parseBrazilianPrice(text);
+                                BigDecimal price = BrazilianPriceParser.parse(text);
                                 debug.append("    → '").append(text).append("' → ").append(price != null ? "R$ " + price : "NULO").append("\n");
                             }
                         }
@@ -1594,7 +1519,7 @@ public class SmartProductService {
                         Element elem = elementsWithRS.get(i);
                         String text = elem.text();
                         if (text.contains("R$") && text.length() < 50) { // Evitar elementos muito grandes
-                            BigDecimal price = parseBrazilianPrice(text);
+                            BigDecimal price = BrazilianPriceParser.parse(text);
                             debug.append("  → '").append(text).append("' → ").append(price != null ? "R$ " + price : "NULO").append("\n");
                         }
                     }
@@ -0,0 +1,744 @@
+package org.custobaixo.service;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.parser.Parser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+// Extração de preço lendo o HTML em fluxo, sem montar o Document inteiro.
+// Os seletores são avaliados à medida que os elementos fecham e a leitura para assim que o
+// resultado é o mesmo que a sequência de selectFirst daria: o primeiro seletor, na ordem de
+// prioridade, cujo primeiro elemento tem um preço válido.
+// Antes dos seletores vale o dado estruturado (JSON-LD Offer ou microdata itemprop="price"):
+// se ele aparecer antes de os seletores decidirem, é a resposta e a leitura para ali.
+// Suporta seletores simples (tag, #id, .classe, [atributo], [atributo=|*=|^=|$=|~=valor]),
+// descendência e listas com vírgula. Seletores com ">", "+", "~" ou pseudo-classes são avaliados
+// no Document completo, e só se nenhum seletor anterior resolver o preço.
+public final class StreamingPriceExtractor {
+
+    private static final Set<String> VOID_ELEMENTS = Set.of(
+            "area", "base", "br", "col", "embed", "hr", "img", "input", "link", "meta", "param", "source", "track", "wbr");
+    private static final Set<String> SKIPPED_RAW_TEXT = Set.of("script", "style");
+    private static final Set<String> KEPT_RAW_TEXT = Set.of("title", "textarea");
+    private static final Set<String> SELF_CLOSING_SIBLINGS = Set.of("li", "option", "tr", "td", "th", "dd", "dt", "p");
+    private static final Set<String> BLOCKS_CLOSING_P = Set.of(
+            "div", "p", "ul", "ol", "table", "section", "article", "header", "footer", "form", "h1", "h2", "h3", "h4", "h5", "h6");
+
+    private final String[] sources;
+    private final CompiledSelector[] selectors; // null onde o seletor não pode ser avaliado em fluxo
+    private final int streamablePrefix;
+
+    private StreamingPriceExtractor(String[] sources) {
+        this.sources = sources;
+        this.selectors = new CompiledSelector[sources.length];
+        int prefix = sources.length;
+        for (int i = 0; i < sources.length; i++) {
+            selectors[i] = CompiledSelector.parse(sources[i]);
+            if (selectors[i] == null && prefix == sources.length) {
+                prefix = i;
+            }
+        }
+        this.streamablePrefix = prefix;
+    }
+
+    public static StreamingPriceExtractor compile(String... selectors) {
+        return new StreamingPriceExtractor(selectors.clone());
+    }
+
+    public boolean isFullyStreamable() {
+        return streamablePrefix == sources.length;
+    }
+
+    // Lê o corpo até ter um preço confiável; o chamador fecha o stream (e abandona o restante)
+    public Result extract(InputStream body, String charset, String baseUri, Function<String, BigDecimal> priceParser)
+            throws IOException {
+        Charset decoding = charset != null && Charset.isSupported(charset) ? Charset.forName(charset) : StandardCharsets.UTF_8;
+        Scan scan = new Scan(new InputStreamReader(body, decoding), priceParser, !isFullyStreamable());
+        scan.run();
+
+        if (scan.structuredPrice != null) {
+            return new Result(scan.structuredPrice, scan.structuredSource, null, scan.stoppedEarly, scan.charsRead, false);
+        }
+        int resolved = scan.answer();
+        if (resolved >= 0) {
+            return new Result(scan.prices[resolved], Source.SELECTOR, sources[resolved], scan.stoppedEarly, scan.charsRead, false);
+        }
+        if (isFullyStreamable()) {
+            return new Result(null, null, null, false, scan.charsRead, false);
+        }
+
+        // Nenhum seletor avaliável em fluxo resolveu: cair para o Document completo com o HTML já lido
+        Document document = Jsoup.parse(scan.html.toString(), baseUri != null ? baseUri : "");
+        for (int i = 0; i < sources.length; i++) {
+            BigDecimal price = selectFirstPrice(document, sources[i], priceParser);
+            if (price != null) {
+                return new Result(price, Source.SELECTOR, sources[i], false, scan.charsRead, true);
+            }
+        }
+        return new Result(null, null, null, false, scan.charsRead, true);
+    }
+
+    private static BigDecimal selectFirstPrice(Document document, String selector, Function<String, BigDecimal> priceParser) {
+        try {
+            Element element = document.selectFirst(selector);
+            return element != null ? priceParser.apply(element.text()) : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    public enum Source { JSON_LD, MICRODATA, SELECTOR }
+
+    // "source" e "selector" indicam de onde veio o preço; ambos nulos quando nada foi encontrado
+    public record Result(BigDecimal price, Source source, String selector, boolean stoppedEarly, long charsRead,
+                         boolean fullParse) implements PageFetcher.EarlyStop {
+    }
+
+    // LEITURA EM FLUXO
+
+    private final class Scan {
+        private static final int PENDING = 0;
+        private static final int CAPTURING = 1;
+        private static final int RESOLVED = 2;
+
+        private final Reader reader;
+        private final Function<String, BigDecimal> priceParser;
+        private final StringBuilder html;
+        private final char[] buffer = new char[8192];
+        private int position;
+        private int limit;
+        private long charsRead;
+        private boolean stoppedEarly;
+        private boolean endOfInput;
+        private BigDecimal structuredPrice;
+        private Source structuredSource;
+
+        private final List<OpenElement> stack = new ArrayList<>();
+        private final List<Capture> captures = new ArrayList<>();
+        private final int[] states = new int[streamablePrefix];
+        private final BigDecimal[] prices = new BigDecimal[streamablePrefix];
+
+        private Scan(Reader reader, Function<String, BigDecimal> priceParser, boolean keepHtml) {
+            this.reader = reader;
+            this.priceParser = priceParser;
+            this.html = keepHtml ? new StringBuilder() : null;
+        }
+
+        void run() throws IOException {
+            int c;
+            while (!stoppedEarly && (c = read()) >= 0) {
+                if (c == '<') {
+                    readMarkup();
+                } else {
+                    appendText((char) c);
+                }
+            }
+
+            if (!stoppedEarly) {
+                endOfInput = true;
+                closeAll(0);
+            }
+        }
+
+        // Índice do primeiro seletor, na ordem de prioridade, que resolveu com preço
+        int answer() {
+            for (int i = 0; i < streamablePrefix; i++) {
+                if (states[i] == RESOLVED && prices[i] != null) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        // Pode parar quando todos os seletores anteriores ao vencedor já resolveram sem preço
+        private void checkEarlyStop() {
+            if (endOfInput) {
+                return;
+            }
+            for (int i = 0; i < streamablePrefix; i++) {
+                if (states[i] != RESOLVED) {
+                    return;
+                }
+                if (prices[i] != null) {
+                    stoppedEarly = true;
+                    return;
+                }
+            }
+        }
+
+        // MARCAÇÃO
+
+        private void readMarkup() throws IOException {
+            int next = peek();
+            if (next == '!') {
+                read();
+                if (lookingAt("--")) {
+                    skipPast("-->");
+                } else {
+                    skipPast(">");
+                }
+            } else if (next == '?') {
+                skipPast(">");
+            } else if (next == '/') {
+                read();
+                String name = readName();
+                skipPast(">");
+                if (!name.isEmpty()) {
+                    closeElement(name);
+                }
+            } else if (isLetter(next)) {
+                readStartTag();
+            } else {
+                appendText('<');
+            }
+        }
+
+        private void readStartTag() throws IOException {
+            String name = readName();
+            Map<String, String> attributes = new HashMap<>();
+            boolean selfClosing = false;
+
+            while (true) {
+                skipWhitespace();
+                int c = peek();
+                if (c < 0) {
+                    break;
+                }
+                if (c == '>') {
+                    read();
+                    break;
+                }
+                if (c == '/') {
+                    read();
+                    selfClosing = peek() == '>';
+                    continue;
+                }
+
+                String attribute = readAttributeName();
+                if (attribute.isEmpty()) {
+                    read();
+                    continue;
+                }
+                skipWhitespace();
+                String value = "";
+                if (peek() == '=') {
+                    read();
+                    skipWhitespace();
+                    value = readAttributeValue();
+                }
+                attributes.putIfAbsent(attribute, value);
+            }
+
+            if (StructuredPriceParser.isPriceMeta(attributes.get("itemprop"), attributes.get("property"))) {
+                foundStructuredPrice(StructuredPriceParser.fromMetaContent(attributes.get("content")), Source.MICRODATA);
+            }
+
+            openElement(new OpenElement(name, attributes), selfClosing || VOID_ELEMENTS.contains(name));
+
+            if (name.equals("script") && attributes.getOrDefault("type", "").contains("ld+json")) {
+                StringBuilder json = new StringBuilder();
+                readRawText(name, false, json);
+                foundStructuredPrice(StructuredPriceParser.fromJsonLd(json.toString()), Source.JSON_LD);
+            } else if (SKIPPED_RAW_TEXT.contains(name) || KEPT_RAW_TEXT.contains(name)) {
+                readRawText(name, KEPT_RAW_TEXT.contains(name), null);
+            }
+        }
+
+        // A primeira oferta estruturada encerra a leitura
+        private void foundStructuredPrice(BigDecimal price, Source source) {
+            if (price != null && structuredPrice == null && !stoppedEarly) {
+                structuredPrice = price;
+                structuredSource = source;
+                stoppedEarly = true;
+            }
+        }
+
+        private void openElement(OpenElement element, boolean empty) {
+            closeImplicitly(element.tag);
+            stack.add(element);
+            int depth = stack.size() - 1;
+
+            for (int i = 0; i < streamablePrefix; i++) {
+                if (states[i] == PENDING && selectors[i].matches(stack)) {
+                    states[i] = CAPTURING;
+                    captures.add(new Capture(i, depth));
+                }
+            }
+
+            if (empty) {
+                closeAll(depth);
+            }
+        }
+
+        // O parser HTML fecha <li>, <td>, <p>... sem a tag de fechamento; repetir o essencial aqui
+        private void closeImplicitly(String tag) {
+            if (stack.isEmpty()) {
+                return;
+            }
+            String current = stack.get(stack.size() - 1).tag;
+            if ((SELF_CLOSING_SIBLINGS.contains(tag) && current.equals(tag)) ||
+                    (BLOCKS_CLOSING_P.contains(tag) && current.equals("p"))) {
+                closeAll(stack.size() - 1);
+            }
+        }
+
+        private void closeElement(String tag) {
+            for (int i = stack.size() - 1; i >= 0; i--) {
+                if (stack.get(i).tag.equals(tag)) {
+                    closeAll(i);
+                    return;
+                }
+            }
+        }
+
+        // Fecha os elementos a partir da profundidade informada e resolve as capturas deles
+        private void closeAll(int depth) {
+            for (int i = captures.size() - 1; i >= 0; i--) {
+                Capture capture = captures.get(i);
+                if (capture.depth >= depth) {
+                    captures.remove(i);
+                    resolve(capture);
+                }
+            }
+            while (stack.size() > depth) {
+                stack.remove(stack.size() - 1);
+            }
+        }
+
+        private void resolve(Capture capture) {
+            String text = unescape(capture.text.toString(), false)
+                    .replace('\u00A0', ' ')
+                    .replaceAll("\\s+", " ")
+                    .trim();
+            BigDecimal price = null;
+            try {
+                price = priceParser.apply(text);
+            } catch (Exception ignored) {
+                // Texto sem preço: o seletor fica resolvido como vazio, como no selectFirst
+            }
+            prices[capture.selector] = price;
+            states[capture.selector] = RESOLVED;
+            checkEarlyStop();
+        }
+
+        // O unescape do Jsoup aloca um leitor próprio; só vale chamar quando há entidade
+        private String unescape(String value, boolean inAttribute) {
+            return value.indexOf('&') >= 0 ? Parser.unescapeEntities(value, inAttribute) : value;
+        }
+
+        private void appendText(char c) {
+            for (Capture capture : captures) {
+                capture.text.append(c);
+            }
+        }
+
+        private void readRawText(String tag, boolean keep, StringBuilder data) throws IOException {
+            int c;
+            while ((c = read()) >= 0) {
+                if (c == '<' && peek() == '/' && lookingAtIgnoreCase(tag, 1)) {
+                    read();
+                    readName();
+                    skipPast(">");
+                    closeElement(tag);
+                    return;
+                }
+                if (keep) {
+                    appendText((char) c);
+                } else if (data != null) {
+                    data.append((char) c);
+                }
+            }
+        }
+
+        // LEXER
+
+        private String readName() throws IOException {
+            StringBuilder name = new StringBuilder();
+            int c;
+            while ((c = peek()) >= 0 && !Character.isWhitespace(c) && c != '>' && c != '/') {
+                name.append((char) read());
+            }
+            return name.toString().toLowerCase(Locale.ROOT);
+        }
+
+        private String readAttributeName() throws IOException {
+            StringBuilder name = new StringBuilder();
+            int c;
+            while ((c = peek()) >= 0 && !Character.isWhitespace(c) && c != '=' && c != '>' && c != '/') {
+                name.append((char) read());
+            }
+            return name.toString().toLowerCase(Locale.ROOT);
+        }
+
+        private String readAttributeValue() throws IOException {
+            StringBuilder value = new StringBuilder();
+            int quote = peek();
+            if (quote == '"' || quote == '\'') {
+                read();
+                int c;
+                while ((c = read()) >= 0 && c != quote) {
+                    value.append((char) c);
+                }
+            } else {
+                int c;
+                while ((c = peek()) >= 0 && !Character.isWhitespace(c) && c != '>') {
+                    value.append((char) read());
+                }
+            }
+            return unescape(value.toString(), true);
+        }
+
+        private void skipWhitespace() throws IOException {
+            while (Character.isWhitespace(peek())) {
+                read();
+            }
+        }
+
+        private void skipPast(String terminator) throws IOException {
+            while (!lookingAt(terminator)) {
+                if (read() < 0) {
+                    return;
+                }
+            }
+            for (int i = 0; i < terminator.length(); i++) {
+                read();
+            }
+        }
+
+        private boolean lookingAt(String expected) throws IOException {
+            if (!ensure(expected.length())) {
+                return false;
+            }
+            for (int i = 0; i < expected.length(); i++) {
+                if (buffer[position + i] != expected.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean lookingAtIgnoreCase(String expected, int offset) throws IOException {
+            if (!ensure(offset + expected.length())) {
+                return false;
+            }
+            for (int i = 0; i < expected.length(); i++) {
+                if (Character.toLowerCase(buffer[position + offset + i]) != expected.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int peek() throws IOException {
+            return ensure(1) ? buffer[position] : -1;
+        }
+
+        private int read() throws IOException {
+            if (!ensure(1)) {
+                return -1;
+            }
+            char c = buffer[position++];
+            if (html != null) {
+                html.append(c);
+            }
+            return c;
+        }
+
+        // Garante "count" caracteres à frente no buffer, compactando e lendo mais do stream
+        private boolean ensure(int count) throws IOException {
+            if (limit >= 0 && limit - position >= count) {
+                return true;
+            }
+            if (limit < 0) {
+                return false;
+            }
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            limit -= position;
+            position = 0;
+            while (limit < count) {
+                int read = reader.read(buffer, limit, buffer.length - limit);
+                if (read < 0) {
+                    if (limit == 0) {
+                        limit = -1;
+                    }
+                    return false;
+                }
+                limit += read;
+                charsRead += read;
+            }
+            return true;
+        }
+
+        private boolean isLetter(int c) {
+            return c >= 0 && Character.isLetter(c);
+        }
+    }
+
+    private static final class Capture {
+        private final int selector;
+        private final int depth;
+        private final StringBuilder text = new StringBuilder();
+
+        private Capture(int selector, int depth) {
+            this.selector = selector;
+            this.depth = depth;
+        }
+    }
+
+    private record OpenElement(String tag, Map<String, String> attributes) {
+
+        String id() {
+            return attributes.getOrDefault("id", "");
+        }
+
+        // Procura a classe na lista separada por espaços sem criar substrings
+        boolean hasClass(String className) {
+            String classes = attributes.get("class");
+            if (classes == null) {
+                return false;
+            }
+            int length = className.length();
+            int index = 0;
+            while ((index = indexOfIgnoreCase(classes, className, index)) >= 0) {
+                boolean startsToken = index == 0 || Character.isWhitespace(classes.charAt(index - 1));
+                boolean endsToken = index + length == classes.length() || Character.isWhitespace(classes.charAt(index + length));
+                if (startsToken && endsToken) {
+                    return true;
+                }
+                index++;
+            }
+            return false;
+        }
+
+        private static int indexOfIgnoreCase(String value, String search, int from) {
+            for (int i = from; i <= value.length() - search.length(); i++) {
+                if (value.regionMatches(true, i, search, 0, search.length())) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    // SELETORES
+
+    private record CompiledSelector(List<List<Compound>> alternatives) {
+
+        // Devolve null quando o seletor usa algo fora do subconjunto suportado
+        static CompiledSelector parse(String selector) {
+            List<List<Compound>> alternatives = new ArrayList<>();
+            for (String alternative : splitOutsideBrackets(selector, ',')) {
+                List<Compound> chain = new ArrayList<>();
+                for (String part : splitOutsideBrackets(alternative.trim(), ' ')) {
+                    if (part.isBlank()) {
+                        continue;
+                    }
+                    Compound compound = Compound.parse(part.trim());
+                    if (compound == null) {
+                        return null;
+                    }
+                    chain.add(compound);
+                }
+                if (chain.isEmpty()) {
+                    return null;
+                }
+                alternatives.add(chain);
+            }
+            return alternatives.isEmpty() ? null : new CompiledSelector(alternatives);
+        }
+
+        boolean matches(List<OpenElement> stack) {
+            for (List<Compound> chain : alternatives) {
+                if (matchesChain(chain, stack)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // O último elemento da pilha casa com a parte final; as demais casam com ancestrais, em ordem
+        private static boolean matchesChain(List<Compound> chain, List<OpenElement> stack) {
+            int element = stack.size() - 1;
+            if (!chain.get(chain.size() - 1).matches(stack.get(element))) {
+                return false;
+            }
+            int part = chain.size() - 2;
+            for (int ancestor = element - 1; ancestor >= 0 && part >= 0; ancestor--) {
+                if (chain.get(part).matches(stack.get(ancestor))) {
+                    part--;
+                }
+            }
+            return part < 0;
+        }
+
+        private static List<String> splitOutsideBrackets(String value, char separator) {
+            List<String> parts = new ArrayList<>();
+            StringBuilder current = new StringBuilder();
+            int depth = 0;
+            char quote = 0;
+            for (char c : value.toCharArray()) {
+                if (quote != 0) {
+                    if (c == quote) {
+                        quote = 0;
+                    }
+                } else if (c == '\'' || c == '"') {
+                    quote = c;
+                } else if (c == '[') {
+                    depth++;
+                } else if (c == ']') {
+                    depth--;
+                } else if (c == separator && depth == 0) {
+                    parts.add(current.toString());
+                    current.setLength(0);
+                    continue;
+                }
+                current.append(c);
+            }
+            parts.add(current.toString());
+            return parts;
+        }
+    }
+
+    private record Compound(String tag, String id, List<String> classes, List<AttributeTest> attributes) {
+
+        static Compound parse(String part) {
+            String tag = null;
+            String id = null;
+            List<String> classes = new ArrayList<>();
+            List<AttributeTest> attributes = new ArrayList<>();
+
+            int i = 0;
+            int start = i;
+            while (i < part.length() && isNameChar(part.charAt(i))) {
+                i++;
+            }
+            if (i > start) {
+                tag = part.substring(start, i).toLowerCase(Locale.ROOT);
+            } else if (i < part.length() && part.charAt(i) == '*') {
+                i++;
+            }
+
+            while (i < part.length()) {
+                char c = part.charAt(i);
+                if (c == '.' || c == '#') {
+                    start = ++i;
+                    while (i < part.length() && isNameChar(part.charAt(i))) {
+                        i++;
+                    }
+                    if (i == start) {
+                        return null;
+                    }
+                    String name = part.substring(start, i);
+                    if (c == '.') {
+                        classes.add(name);
+                    } else {
+                        id = name;
+                    }
+                } else if (c == '[') {
+                    int end = part.indexOf(']', i);
+                    if (end < 0) {
+                        return null;
+                    }
+                    AttributeTest test = AttributeTest.parse(part.substring(i + 1, end));
+                    if (test == null) {
+                        return null;
+                    }
+                    attributes.add(test);
+                    i = end + 1;
+                } else {
+                    // ">", "+", "~", ":" e demais construções ficam para o parse completo
+                    return null;
+                }
+            }
+            return new Compound(tag, id, classes, attributes);
+        }
+
+        boolean matches(OpenElement element) {
+            if (tag != null && !tag.equals(element.tag())) {
+                return false;
+            }
+            if (id != null && !id.equalsIgnoreCase(element.id())) {
+                return false;
+            }
+            for (String className : classes) {
+                if (!element.hasClass(className)) {
+                    return false;
+                }
+            }
+            for (AttributeTest attribute : attributes) {
+                if (!attribute.matches(element.attributes())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean isNameChar(char c) {
+            return Character.isLetterOrDigit(c) || c == '-' || c == '_';
+        }
+    }
+
+    private record AttributeTest(String name, String operator, String value) {
+
+        private static final List<String> OPERATORS = Arrays.asList("*=", "^=", "$=", "~=", "=");
+
+        static AttributeTest parse(String expression) {
+            for (String operator : OPERATORS) {
+                int index = expression.indexOf(operator);
+                if (index > 0) {
+                    String name = expression.substring(0, index).trim().toLowerCase(Locale.ROOT);
+                    String value = unquote(expression.substring(index + operator.length()).trim());
+                    return name.isEmpty() ? null : new AttributeTest(name, operator, value.toLowerCase(Locale.ROOT));
+                }
+            }
+            String name = expression.trim().toLowerCase(Locale.ROOT);
+            if (name.isEmpty() || !name.chars().allMatch(c -> Character.isLetterOrDigit(c) || c == '-' || c == '_')) {
+                return null;
+            }
+            return new AttributeTest(name, null, null);
+        }
+
+        boolean matches(Map<String, String> attributes) {
+            String actual = attributes.get(name);
+            if (actual == null) {
+                return false;
+            }
+            if (operator == null) {
+                return true;
+            }
+
+            String normalized = actual.toLowerCase(Locale.ROOT);
+            return switch (operator) {
+                case "*=" -> normalized.contains(value);
+                case "^=" -> normalized.startsWith(value);
+                case "$=" -> normalized.endsWith(value);
+                case "~=" -> Arrays.asList(normalized.split("\\s+")).contains(value);
+                default -> normalized.equals(value);
+            };
+        }
+
+        private static String unquote(String value) {
+            if (value.length() >= 2 && (value.startsWith("'") || value.startsWith("\"")) &&
+                    value.charAt(value.length() - 1) == value.charAt(0)) {
+                return value.substring(1, value.length() - 1);
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package org.custobaixo.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+
+// Preço a partir de dados estruturados schema.org: blocos application/ld+json com Offer/AggregateOffer
+// e microdata (itemprop="price" / product:price:amount). Só aceita ofertas em reais ou sem moeda.
+public final class StructuredPriceParser {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final int MAX_DEPTH = 8;
+
+    private StructuredPriceParser() {
+    }
+
+    public static BigDecimal fromJsonLd(String json) {
+        if (json == null || json.isBlank()) {
+            return null;
+        }
+        try {
+            return findOfferPrice(MAPPER.readTree(json.trim()), false, 0);
+        } catch (Exception e) {
+            return null; // JSON-LD inválido é comum; segue para os seletores
+        }
+    }
+
+    // Atributo content de <meta itemprop="price"> ou <meta property="product:price:amount">
+    public static BigDecimal fromMetaContent(String content) {
+        return parseOfferPrice(content);
+    }
+
+    public static boolean isPriceMeta(String itemprop, String property) {
+        return "price".equalsIgnoreCase(itemprop) || "product:price:amount".equalsIgnoreCase(property);
+    }
+
+    // Mesmo caminho aplicado a um Document já carregado; null quando a página não tem oferta
+    public static StructuredPrice findIn(Document document) {
+        for (Element script : document.select("script[type*=ld+json]")) {
+            BigDecimal price = fromJsonLd(script.data());
+            if (price != null) {
+                return new StructuredPrice(price, StreamingPriceExtractor.Source.JSON_LD);
+            }
+        }
+        for (Element meta : document.select("[itemprop=price][content], meta[property=product:price:amount]")) {
+            BigDecimal price = fromMetaContent(meta.attr("content"));
+            if (price != null) {
+                return new StructuredPrice(price, StreamingPriceExtractor.Source.MICRODATA);
+            }
+        }
+        return null;
+    }
+
+    public record StructuredPrice(BigDecimal price, StreamingPriceExtractor.Source source) {
+    }
+
+    // MÉTODOS AUXILIARES
+
+    private static BigDecimal findOfferPrice(JsonNode node, boolean insideOffer, int depth) {
+        if (node == null || depth > MAX_DEPTH) {
+            return null;
+        }
+        if (node.isArray()) {
+            for (JsonNode item : node) {
+                BigDecimal price = findOfferPrice(item, insideOffer, depth + 1);
+                if (price != null) {
+                    return price;
+                }
+            }
+            return null;
+        }
+        if (!node.isObject()) {
+            return null;
+        }
+
+        boolean isOffer = insideOffer || hasType(node, "Offer") || hasType(node, "AggregateOffer");
+        if (isOffer && isAcceptedCurrency(node)) {
+            BigDecimal price = firstPrice(node, "price", "lowPrice");
+            if (price != null) {
+                return price;
+            }
+        }
+
+        // Product.offers, @graph e ofertas aninhadas (priceSpecification)
+        for (String field : new String[]{"offers", "@graph", "priceSpecification", "mainEntity"}) {
+            boolean offerField = field.equals("offers") || field.equals("priceSpecification");
+            BigDecimal price = findOfferPrice(node.get(field), offerField, depth + 1);
+            if (price != null) {
+                return price;
+            }
+        }
+        return null;
+    }
+
+    private static BigDecimal firstPrice(JsonNode offer, String... fields) {
+        for (String field : fields) {
+            JsonNode value = offer.get(field);
+            if (value == null || value.isNull()) {
+                continue;
+            }
+            BigDecimal price = value.isNumber() ? value.decimalValue() : parseOfferPrice(value.asText());
+            if (price != null && price.signum() > 0) {
+                return price;
+            }
+        }
+        return null;
+    }
+
+    private static boolean hasType(JsonNode node, String type) {
+        JsonNode declared = node.get("@type");
+        if (declared == null) {
+            return false;
+        }
+        if (declared.isArray()) {
+            for (JsonNode item : declared) {
+                if (type.equalsIgnoreCase(item.asText())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return type.equalsIgnoreCase(declared.asText());
+    }
+
+    private static boolean isAcceptedCurrency(JsonNode offer) {
+        JsonNode currency = offer.get("priceCurrency");
+        return currency == null || currency.asText().isBlank() || "BRL".equalsIgnoreCase(currency.asText().trim());
+    }
+
+    // schema.org usa ponto decimal ("1299.90"), mas alguns sites publicam no formato brasileiro ("1.299,90")
+    private static BigDecimal parseOfferPrice(String value) {
+        if (value == null) {
+            return null;
+        }
+        String cleaned = value.trim().toUpperCase(Locale.ROOT).replace("R$", "").replace("BRL", "").trim();
+        if (cleaned.isEmpty()) {
+            return null;
+        }
+        try {
+            if (cleaned.contains(",")) {
+                cleaned = cleaned.replace(".", "").replace(",", ".");
+            }
+            BigDecimal price = new BigDecimal(cleaned.replaceAll("[^0-9.]", ""));
+            return price.signum() > 0 ? price : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -1,17 +1,14 @@
 package org.custobaixo.service;
 
 import org.custobaixo.entity.ProductMonitor;
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
-import org.jsoup.nodes.Element;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.Map;
 import java.util.function.Function;
 import java.util.HashMap;
-import java.util.Random;
 
 
 @Service
@@ -19,27 +16,48 @@ public class WebScrapingService {
 
     private static final Logger log = LoggerFactory.getLogger(WebScrapingService.class);
 
-    //  ROTAÇÃO DE USER-AGENTS
-    private final String[] USER_AGENTS = {
-        "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36",
-        "Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36",
-        "Mozilla/5.0 (X11; Linux x86_64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36",
-        "Mozilla/5.0 (Windows NT 10.0; Win64; x64; rv:109.0) Gecko/20100101 Firefox/121.0",
-        "Mozilla/5.0 (Macintosh; Intel Mac OS X 10.15; rv:109.0) Gecko/20100101 Firefox/121.0"
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+    // SELETORES DE PREÇO POR SITE (fallbacks por prioridade; a ordem declarada é a ordem de tentativa)
+    private static final String[] AMAZON_PRICE_SELECTORS = {
+            ".a-price-whole",
+            ".a-price .a-offscreen",
+            ".a-price-range .a-price-whole",
+            ".a-price .a-text-price"
     };
-    
-    //  PROXIES (exemplo - em produção use serviços pagos)
-    private final String[][] PROXIES = {
-        {"proxy1.example.com", "8080"},
-        {"proxy2.example.com", "8080"},
-        {"proxy3.example.com", "8080"}
+
+    private static final String[] MERCADO_LIVRE_PRICE_SELECTORS = {
+            ".andes-money-amount__fraction",
+            ".price-tag-fraction",
+            ".andes-money-amount__cents",
+            ".price-tag"
     };
-    
-    private final Random random = new Random();
+
+    // SELETORES GENÉRICOS (alternativas equivalentes; a ordem de tentativa é aprendida por site)
+    private static final String[] GENERIC_PRICE_SELECTORS = {
+            ".price", ".valor", ".preco", ".amount", ".cost",
+            ".price-current", ".price-value", ".price-now",
+            ".price-main", ".price-tag", ".price-fraction",
+            "[class*='price']", "[class*='valor']", "[class*='preco']",
+            "[data-testid*='price']", "[data-test*='price']"
+    };
+
+    private final SingleFlightRegistry singleFlightRegistry;
+    private final PriceRevalidationCache revalidationCache;
+    private final PriceExtractionStats extractionStats;
+    private final SelectorRanking selectorRanking;
 
     // Mapa de sites e seus métodos de extração
     private final Map<String, Function<ProductMonitor, BigDecimal>> siteExtractors = createSiteExtractors();
 
+    public WebScrapingService(SingleFlightRegistry singleFlightRegistry, PriceRevalidationCache revalidationCache,
+                              PriceExtractionStats extractionStats, SelectorRanking selectorRanking) {
+        this.singleFlightRegistry = singleFlightRegistry;
+        this.revalidationCache = revalidationCache;
+        this.extractionStats = extractionStats;
+        this.selectorRanking = selectorRanking;
+    }
+
     private Map<String, Function<ProductMonitor, BigDecimal>> createSiteExtractors() {
         Map<String, Function<ProductMonitor, BigDecimal>> extractors = new HashMap<>();
         // Apenas os 4 sites ativos do sistema
@@ -50,7 +68,12 @@ public class WebScrapingService {
         return extractors;
     }
 
+    // Monitores diferentes com a mesma URL compartilham o download em andamento
     public BigDecimal extractPrice(ProductMonitor product) {
+        return singleFlightRegistry.fetchPrice(product.getProductUrl(), () -> extractPriceNow(product));
+    }
+
+    private BigDecimal extractPriceNow(ProductMonitor product) {
         try {
             String url = product.getProductUrl().toLowerCase();
 
@@ -77,35 +100,28 @@ public class WebScrapingService {
     // MÉTODOS DE EXTRAÇÃO ESPECÍFICOS (apenas sites ativos)
 
     private BigDecimal extractAmazonPrice(ProductMonitor product) {
-        return extractPriceWithSelectors(product,
-                ".a-price-whole",
-                ".a-price .a-offscreen",
-                ".a-price-range .a-price-whole",
-                ".a-price .a-text-price"
-        );
+        return extractPriceWithPlan(product, selectorRanking.pricePlan(AMAZON_PRICE_SELECTORS));
     }
 
     private BigDecimal extractMercadoLivrePrice(ProductMonitor product) {
-        return extractPriceWithSelectors(product,
-                ".andes-money-amount__fraction",
-                ".price-tag-fraction",
-                ".andes-money-amount__cents",
-                ".price-tag"
-        );
+        return extractPriceWithPlan(product, selectorRanking.pricePlan(MERCADO_LIVRE_PRICE_SELECTORS));
     }
 
     //  MÉTODOS AUXILIARES
 
-    private BigDecimal extractPriceWithSelectors(ProductMonitor product, String... selectors) {
+    private BigDecimal extractPriceWithPlan(ProductMonitor product, SelectorRanking.PricePlan pricePlan) {
         try {
-            Document doc = connectToUrl(product.getProductUrl());
-
-            for (String selector : selectors) {
-                BigDecimal price = tryExtractPrice(doc, selector);
-                if (price != null) {
-                    return price;
-                }
-            }
+            String site = SiteDomains.resolve(product.getProductUrl());
+
+            // Revalida a página com ETag/Last-Modified; em 304 o preço anterior é reaproveitado.
+            // Sem 304, o HTML é lido em fluxo: oferta JSON-LD/microdata primeiro, seletores como fallback,
+            // e o download para assim que o preço é encontrado.
+            return revalidationCache.fetchPrice(product.getProductUrl(), REQUEST_TIMEOUT, (body, charset, baseUri) -> {
+                StreamingPriceExtractor.Result result = pricePlan.extractor().extract(body, charset, baseUri, BrazilianPriceParser::parse);
+                extractionStats.record(product.getProductUrl(), result);
+                selectorRanking.record(site, pricePlan, result);
+                return result;
+            });
 
         } catch (Exception e) {
             log.error("Erro ao extrair preço do produto: {}", product.getProductUrl(), e);
@@ -113,63 +129,9 @@ public class WebScrapingService {
         return null;
     }
 
-    private Document connectToUrl(String url) throws Exception {
-        //  Selecionar User-Agent aleatório
-        String userAgent = USER_AGENTS[random.nextInt(USER_AGENTS.length)];
-        log.debug("Usando User-Agent: {}", userAgent);
-        
-        // Selecionar proxy aleatório (se disponível)
-        String[] proxy = PROXIES[random.nextInt(PROXIES.length)];
-        String proxyHost = proxy[0];
-        int proxyPort = Integer.parseInt(proxy[1]);
-        log.debug("Usando proxy: {}:{}", proxyHost, proxyPort);
-        
-        return Jsoup.connect(url)
-                .userAgent(userAgent)
-                .header("Accept", "text/html,application/xhtml+xml,application/xml;q=0.9,image/avif,image/webp,image/apng,*/*;q=0.8")
-                .header("Accept-Language", "pt-BR,pt;q=0.9,en;q=0.8,en-GB;q=0.7,en-US;q=0.6")
-                .header("Accept-Encoding", "gzip, deflate, br")
-                .header("DNT", "1")
-                .header("Connection", "keep-alive")
-                .header("Upgrade-Insecure-Requests", "1")
-                .header("Sec-Fetch-Dest", "document")
-                .header("Sec-Fetch-Mode", "navigate")
-                .header("Sec-Fetch-Site", "none")
-                .header("Sec-Fetch-User", "?1")
-                .header("Cache-Control", "max-age=0")
-                .header("sec-ch-ua", "\"Not_A Brand\";v=\"8\", \"Chromium\";v=\"120\", \"Google Chrome\";v=\"120\"")
-                .header("sec-ch-ua-mobile", "?0")
-                .header("sec-ch-ua-platform", "\"Windows\"")
-                .timeout(10000)
-                .followRedirects(true)
-                .maxBodySize(0)
-                .get();
-    }
-
-    private BigDecimal tryExtractPrice(Document doc, String selector) {
-        try {
-            Element priceElement = doc.selectFirst(selector);
-            if (priceElement != null) {
-                String priceText = priceElement.text().replaceAll("[^0-9,]", "");
-                if (!priceText.isEmpty()) {
-                    return new BigDecimal(priceText.replace(",", "."));
-                }
-            }
-        } catch (Exception e) {
-            log.debug("Erro ao extrair preço com seletor '{}': {}", selector, e.getMessage());
-        }
-        return null;
-    }
-
+    // Seletores genéricos são alternativas equivalentes: a ordem é aprendida por site
     private BigDecimal extractGenericPrice(ProductMonitor product) {
-        String[] genericSelectors = {
-                ".price", ".valor", ".preco", ".amount", ".cost",
-                ".price-current", ".price-value", ".price-now",
-                ".price-main", ".price-tag", ".price-fraction",
-                "[class*='price']", "[class*='valor']", "[class*='preco']",
-                "[data-testid*='price']", "[data-test*='price']"
-        };
-
-        return extractPriceWithSelectors(product, genericSelectors);
+        String site = SiteDomains.resolve(product.getProductUrl());
+        return extractPriceWithPlan(product, selectorRanking.pricePlan(site, new String[0], GENERIC_PRICE_SELECTORS));
     }
 }
\ No newline at end of file
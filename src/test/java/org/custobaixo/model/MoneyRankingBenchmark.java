@@ -0,0 +1,68 @@
+package org.custobaixo.model;
+
+import org.custobaixo.service.BrazilianPriceParser;
+import org.custobaixo.support.TimingHarness;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Caminho busca -> filtro -> ordenação com centavos em long (Money) contra o BigDecimal anterior:
+// parse + faixa de relevância por card e ordenação de 1000 preços
+@EnabledIfSystemProperty(named = TimingHarness.ENABLED_PROPERTY, matches = "true")
+class MoneyRankingBenchmark {
+
+    private static final String[] CARD_PRICES = {
+            "R$ 4.599,90", "R$ 899,00", "R$ 12.345,67", "R$ 1.299", "R$ 79,90", "R$ 2.499,99", "R$ 150,00", "R$ 3.100,50"
+    };
+
+    private static final Money MIN_NOTEBOOK_PRICE = Money.ofReais(1200);
+    private static final Money MAX_NOTEBOOK_PRICE = Money.ofReais(15000);
+    private static final BigDecimal MIN_NOTEBOOK_DECIMAL = new BigDecimal("1200");
+    private static final BigDecimal MAX_NOTEBOOK_DECIMAL = new BigDecimal("15000");
+
+    @Test
+    void relevanceFilterPerCard() {
+        int[] index = {0};
+        TimingHarness.Result money = TimingHarness.measure("parseMoney + faixa (Money)", 500_000, () -> {
+            Money price = BrazilianPriceParser.parseMoney(CARD_PRICES[index[0]++ & 7]);
+            return price != null && price.isBetween(MIN_NOTEBOOK_PRICE, MAX_NOTEBOOK_PRICE) ? 1 : 0;
+        });
+        TimingHarness.Result decimal = TimingHarness.measure("parse + faixa (BigDecimal.valueOf)", 500_000, () -> {
+            BigDecimal price = BrazilianPriceParser.parse(CARD_PRICES[index[0]++ & 7]);
+            return price != null && price.compareTo(MIN_NOTEBOOK_DECIMAL) >= 0
+                    && price.compareTo(MAX_NOTEBOOK_DECIMAL) <= 0 ? 1 : 0;
+        });
+
+        assertThat(money.sink()).isEqualTo(decimal.sink());
+    }
+
+    @Test
+    void rankingThousandPrices() {
+        Random random = new Random(42);
+        List<SitePrice> prices = new ArrayList<>();
+        List<BigDecimal> decimals = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            long cents = 5_000 + random.nextInt(1_000_000);
+            prices.add(SitePrice.builder().siteName("KABUM").price(Money.ofCents(cents)).available(true).build());
+            decimals.add(BigDecimal.valueOf(cents, 2));
+        }
+
+        TimingHarness.Result money = TimingHarness.measure("ordenar 1000 preços (comparingLong)", 2_000, () ->
+                prices.stream()
+                        .sorted(Comparator.comparingLong(price -> price.getPrice().cents()))
+                        .findFirst().orElseThrow().getPrice().cents());
+        TimingHarness.Result decimal = TimingHarness.measure("ordenar 1000 preços (BigDecimal)", 2_000, () ->
+                decimals.stream()
+                        .sorted()
+                        .findFirst().orElseThrow().unscaledValue().longValue());
+
+        assertThat(money.sink()).isEqualTo(decimal.sink());
+    }
+}
@@ -0,0 +1,86 @@
+package org.custobaixo.model;
+
+import org.custobaixo.service.BrazilianPriceParser;
+import org.custobaixo.support.TimingHarness;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Laço de extração de uma página de busca com 48 cards: seletores compilados uma vez no SitePlan
+// contra o caminho antigo, que reinterpretava o CSS do SiteConfig a cada select/selectFirst
+@EnabledIfSystemProperty(named = TimingHarness.ENABLED_PROPERTY, matches = "true")
+class SitePlanBenchmark {
+
+    // Mesmos seletores do site KABUM em SmartProductService
+    private static final SiteConfig KABUM = new SiteConfig("KABUM", "https://www.kabum.com.br/busca/%s",
+            "article[data-id], .productCard, .sc-dcJsrY, article.sc-fXEqDS, div[data-product-id]",
+            ".sc-iBYQkv, .nameCard, h2.sc-iBYQkv, span.sc-iBYQkv, .sc-gswNZR h2",
+            ".priceCard, .sc-dcJsrY span, .finalPrice, [data-testid='price'], .preco, span.sc-dcJsrY",
+            "a.productLink, a[href*='/produto/'], .sc-dAlyuH a", true, "https://www.kabum.com.br");
+
+    private static final Document PAGE = Jsoup.parse(searchPage(48), "https://www.kabum.com.br/busca/ssd");
+
+    @Test
+    void compiledPlanVersusCssStrings() {
+        SitePlan plan = SitePlan.compile(KABUM);
+        // O card i custa R$ i*100,99: soma de 1..48 em reais (x 100) mais 99 centavos por card
+        assertThat(extractWithPlan(plan)).isEqualTo(extractWithStrings()).isEqualTo(1176L * 100_00 + 48 * 99);
+
+        TimingHarness.Result compiled = TimingHarness.measure("SitePlan (48 cards)", 2_000, () -> extractWithPlan(plan));
+        TimingHarness.Result strings = TimingHarness.measure("select(String) por card (48 cards)", 2_000,
+                SitePlanBenchmark::extractWithStrings);
+        TimingHarness.Result compileOnly = TimingHarness.measure("SitePlan.compile", 20_000,
+                () -> SitePlan.compile(KABUM).products().alternatives().size());
+
+        assertThat(compiled.medianNanos()).isPositive();
+        assertThat(strings.medianNanos()).isPositive();
+        assertThat(compileOnly.medianNanos()).isPositive();
+    }
+
+    // Soma dos preços em centavos dos cards com nome, preço e link, para comparar os dois caminhos
+    private static long extractWithPlan(SitePlan plan) {
+        long total = 0;
+        for (Element card : plan.products().select(PAGE)) {
+            Element name = plan.names().selectFirst(card);
+            Element price = plan.prices().selectFirst(card);
+            Element url = plan.urls().selectFirst(card);
+            total += cents(name, price, url);
+        }
+        return total;
+    }
+
+    private static long extractWithStrings() {
+        long total = 0;
+        for (Element card : PAGE.select(KABUM.productSelector)) {
+            Element name = card.selectFirst(KABUM.nameSelector);
+            Element price = card.selectFirst(KABUM.priceSelector);
+            Element url = card.selectFirst(KABUM.urlSelector);
+            total += cents(name, price, url);
+        }
+        return total;
+    }
+
+    private static long cents(Element name, Element price, Element url) {
+        if (name == null || price == null || url == null || url.attr("href").isEmpty()) {
+            return 0;
+        }
+        return Math.max(0, BrazilianPriceParser.parseCents(price.text()));
+    }
+
+    private static String searchPage(int cards) {
+        StringBuilder html = new StringBuilder("<html><body><main><div class=\"listagem\">");
+        for (int i = 1; i <= cards; i++) {
+            html.append("<article class=\"productCard\" data-id=\"").append(i).append("\">")
+                    .append("<a class=\"productLink\" href=\"/produto/").append(i).append("/ssd-").append(i).append("\">")
+                    .append("<img src=\"/img/").append(i).append(".jpg\"><span class=\"nameCard\">SSD Kingston ")
+                    .append(i).append("TB NVMe</span></a><div class=\"availablePricesCard\"><span class=\"oldPriceCard\">R$ ")
+                    .append(i * 150).append(",00</span><span class=\"priceCard\">R$ ").append(i * 100).append(",99</span>")
+                    .append("<span class=\"installments\">10x de R$ ").append(i * 10).append(",10</span></div></article>");
+        }
+        return html.append("</div></main></body></html>").toString();
+    }
+}
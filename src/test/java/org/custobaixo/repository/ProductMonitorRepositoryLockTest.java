@@ -0,0 +1,212 @@
+package org.custobaixo.repository;
+
+import org.custobaixo.entity.ProductCategory;
+import org.custobaixo.entity.ProductMonitor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Reserva concorrente com FOR UPDATE SKIP LOCKED num PostgreSQL de verdade (o H2 não tem SKIP LOCKED).
+// Roda só com CUSTOBAIXO_TEST_DATABASE_URL apontando para um banco descartável: o esquema é criado
+// e apagado pelo teste. Ex.: CUSTOBAIXO_TEST_DATABASE_URL=jdbc:postgresql://localhost:5432/custobaixo_test
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledIfEnvironmentVariable(named = "CUSTOBAIXO_TEST_DATABASE_URL", matches = ".+")
+class ProductMonitorRepositoryLockTest {
+
+    private static final long CLAIM_TIMEOUT_SECONDS = 10;
+
+    @Autowired
+    private ProductMonitorRepository repository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getenv("CUSTOBAIXO_TEST_DATABASE_URL"));
+        registry.add("spring.datasource.username", () -> envOrDefault("CUSTOBAIXO_TEST_DATABASE_USERNAME", "postgres"));
+        registry.add("spring.datasource.password", () -> envOrDefault("CUSTOBAIXO_TEST_DATABASE_PASSWORD", "postgres"));
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void concurrentClaimsOfDueProductsAreDisjoint() throws Exception {
+        List<Long> due = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            due.add(save(ProductCategory.ELETRONICOS, null).getId());
+        }
+
+        Claims claims = claimConcurrently(repository::lockDueProducts, 5);
+
+        assertThat(claims.first()).hasSize(5);
+        assertThat(claims.second()).hasSize(3).doesNotContainAnyElementsOf(claims.first());
+        assertThat(claims.union()).containsExactlyInAnyOrderElementsOf(due);
+    }
+
+    @Test
+    void concurrentClaimsOfCriticalProductsAreDisjoint() throws Exception {
+        List<Long> critical = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            critical.add(save(ProductCategory.PASSAGENS_AEREAS, null).getId());
+        }
+        for (int i = 0; i < 2; i++) {
+            critical.add(save(ProductCategory.ELETRONICOS, new BigDecimal("105.00")).getId());
+        }
+        save(ProductCategory.ELETRONICOS, new BigDecimal("500.00"));
+        save(ProductCategory.ELETRONICOS, null);
+
+        Claims claims = claimConcurrently(repository::lockDueCriticalProducts, 3);
+
+        assertThat(claims.first()).hasSize(3);
+        assertThat(claims.second()).hasSize(3).doesNotContainAnyElementsOf(claims.first());
+        assertThat(claims.union()).containsExactlyInAnyOrderElementsOf(critical);
+    }
+
+    @Test
+    void expiredLeaseOfAnotherNodeCanBeClaimedAgain() {
+        ProductMonitor abandoned = saveLeased("no-caido", LocalDateTime.now().minusMinutes(1));
+
+        assertThat(claim(repository::lockDueProducts)).containsExactly(abandoned.getId());
+    }
+
+    @Test
+    void activeLeaseIsSkipped() {
+        saveLeased("outro-no", LocalDateTime.now().plusMinutes(5));
+        ProductMonitor free = save(ProductCategory.ELETRONICOS, null);
+
+        assertThat(claim(repository::lockDueProducts)).containsExactly(free.getId());
+        assertThat(claim(repository::lockDueCriticalProducts)).isEmpty();
+    }
+
+    @Test
+    void releaseLeasesOnlyClearsTheLeasesOfTheGivenNode() {
+        ProductMonitor own = saveLeased("este-no", LocalDateTime.now().plusMinutes(5));
+        ProductMonitor other = saveLeased("outro-no", LocalDateTime.now().plusMinutes(5));
+
+        Integer released = new TransactionTemplate(transactionManager)
+                .execute(status -> repository.releaseLeases("este-no"));
+
+        assertThat(released).isEqualTo(1);
+        assertThat(repository.findById(own.getId())).hasValueSatisfying(product -> {
+            assertThat(product.getLeaseOwner()).isNull();
+            assertThat(product.getLeaseExpiresAt()).isNull();
+        });
+        assertThat(repository.findById(other.getId()))
+                .hasValueSatisfying(product -> assertThat(product.getLeaseOwner()).isEqualTo("outro-no"));
+    }
+
+    private Set<Long> claim(BiFunction<LocalDateTime, Integer, List<ProductMonitor>> lock) {
+        return new TransactionTemplate(transactionManager).execute(status -> ids(lock.apply(LocalDateTime.now(), 10)));
+    }
+
+    // A primeira transação reserva e segura os bloqueios; a segunda reserva enquanto isso e precisa
+    // terminar sem esperar (SKIP LOCKED), levando só as linhas que sobraram
+    private Claims claimConcurrently(BiFunction<LocalDateTime, Integer, List<ProductMonitor>> lock, int limit)
+            throws Exception {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        LocalDateTime now = LocalDateTime.now();
+        CountDownLatch firstLocked = new CountDownLatch(1);
+        CountDownLatch secondDone = new CountDownLatch(1);
+
+        ExecutorService nodes = Executors.newFixedThreadPool(2);
+        try {
+            Future<Set<Long>> first = nodes.submit(() -> transaction.execute(status -> {
+                Set<Long> ids = ids(lock.apply(now, limit));
+                firstLocked.countDown();
+                await(secondDone);
+                return ids;
+            }));
+            assertThat(firstLocked.await(CLAIM_TIMEOUT_SECONDS, TimeUnit.SECONDS)).isTrue();
+
+            Future<Set<Long>> second = nodes.submit(() -> transaction.execute(status -> ids(lock.apply(now, limit))));
+            Set<Long> secondIds = second.get(CLAIM_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            secondDone.countDown();
+
+            return new Claims(first.get(CLAIM_TIMEOUT_SECONDS, TimeUnit.SECONDS), secondIds);
+        } finally {
+            secondDone.countDown();
+            nodes.shutdownNow();
+        }
+    }
+
+    private ProductMonitor save(ProductCategory category, BigDecimal currentPrice) {
+        return repository.save(ProductMonitor.builder()
+                .productName("Produto de teste")
+                .productUrl("https://www.kabum.com.br/produto/" + System.nanoTime())
+                .targetPrice(new BigDecimal("100.00"))
+                .currentPrice(currentPrice)
+                .siteName("KABUM")
+                .category(category)
+                .isActive(true)
+                .notificationSent(false)
+                .nextCheckAt(LocalDateTime.now().minusMinutes(1))
+                .build());
+    }
+
+    // Passagem aérea vencida, portanto também candidata à fila crítica se a reserva permitir
+    private ProductMonitor saveLeased(String owner, LocalDateTime leaseExpiresAt) {
+        ProductMonitor product = save(ProductCategory.PASSAGENS_AEREAS, null);
+        product.setLeaseOwner(owner);
+        product.setLeaseExpiresAt(leaseExpiresAt);
+        return repository.save(product);
+    }
+
+    private static Set<Long> ids(List<ProductMonitor> products) {
+        Set<Long> ids = new HashSet<>();
+        products.forEach(product -> ids.add(product.getId()));
+        return ids;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(CLAIM_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String envOrDefault(String name, String fallback) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? fallback : value;
+    }
+
+    private record Claims(Set<Long> first, Set<Long> second) {
+
+        Set<Long> union() {
+            Set<Long> union = new HashSet<>(first);
+            union.addAll(second);
+            return union;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package org.custobaixo.service;
+
+import org.custobaixo.support.TimingHarness;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.math.BigDecimal;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Compara o parser de uma passada com o caminho antigo de regex + replace + BigDecimal
+@EnabledIfSystemProperty(named = TimingHarness.ENABLED_PROPERTY, matches = "true")
+class BrazilianPriceParserBenchmark {
+
+    private static final String[] CORPUS = {
+            "R$ 1.234,56", "R$ 12.345.678,90", "4.699,", "8.095", "R$ 799",
+            "12x de R$ 99,90 sem juros", "De R$ 1.299,00 por R$ 999,00", "123.45"
+    };
+
+    private static final Pattern PRICE_PATTERN = Pattern.compile("\\d[\\d.,]*");
+
+    @Test
+    void singlePassVersusRegex() {
+        int[] index = {0};
+        TimingHarness.Result singlePass = TimingHarness.measure("BrazilianPriceParser.parseCents", 200_000,
+                () -> BrazilianPriceParser.parseCents(CORPUS[index[0]++ & 7]));
+        TimingHarness.Result regex = TimingHarness.measure("regex + BigDecimal", 200_000,
+                () -> regexCents(CORPUS[index[0]++ & 7]));
+
+        assertThat(singlePass.medianNanos()).isPositive();
+        assertThat(regex.medianNanos()).isPositive();
+    }
+
+    // Como os preços eram lidos antes do parser único
+    private static long regexCents(String text) {
+        Matcher matcher = PRICE_PATTERN.matcher(text);
+        if (!matcher.find()) {
+            return BrazilianPriceParser.NO_PRICE;
+        }
+        String number = matcher.group().replace(".", "").replace(",", ".");
+        try {
+            return new BigDecimal(number).movePointRight(2).longValue();
+        } catch (NumberFormatException e) {
+            return BrazilianPriceParser.NO_PRICE;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package org.custobaixo.service;
+
+import org.custobaixo.model.Money;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.math.BigDecimal;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+class BrazilianPriceParserTest {
+
+    // Textos como aparecem nas páginas e o valor esperado em centavos
+    static Stream<Arguments> prices() {
+        return Stream.of(
+                // Milhares e centavos
+                arguments("R$ 1.234,56", 123456L),
+                arguments("R$ 12.345.678,90", 1234567890L),
+                arguments("1234,5", 123450L),
+                arguments("123.45", 12345L),
+                arguments("4.699,", 469900L),
+                arguments("8.095", 809500L),
+                // R$ com espaço não separável (NBSP)
+                arguments("R$\u00A01.299,90", 129990L),
+                arguments("R$ \u00A099,90", 9990L),
+                arguments("12x de R$\u00A099,90", 9990L),
+                // Parcelas
+                arguments("12x de R$ 99,90", 9990L),
+                arguments("12x de R$ 99,90 sem juros", 9990L),
+                arguments("10 x R$ 45,00", 4500L),
+                arguments("R$ 1.198,80 em até 12x de R$ 99,90", 119880L),
+                arguments("3X sem juros", BrazilianPriceParser.NO_PRICE),
+                // De/por
+                arguments("De R$ 1.299,00 por R$ 999,00", 99900L),
+                arguments("de R$ 199,90 por R$ 149,90", 14990L),
+                arguments("De: R$ 50,00", 5000L),
+                arguments("Por R$ 79,90", 7990L),
+                // Sem casas decimais
+                arguments("R$ 799", 79900L),
+                arguments("R$ 2.500", 250000L),
+                arguments("15", 1500L),
+                // Sem número
+                arguments("Indisponível", BrazilianPriceParser.NO_PRICE),
+                arguments("", BrazilianPriceParser.NO_PRICE),
+                arguments("R$ 1234567890123456", BrazilianPriceParser.NO_PRICE)
+        );
+    }
+
+    @ParameterizedTest(name = "{0} -> {1}")
+    @MethodSource("prices")
+    void parseCents(String text, long expectedCents) {
+        assertThat(BrazilianPriceParser.parseCents(text)).isEqualTo(expectedCents);
+    }
+
+    @ParameterizedTest(name = "{0} -> {1}")
+    @MethodSource("prices")
+    void adaptersAgreeWithParseCents(String text, long expectedCents) {
+        if (expectedCents == BrazilianPriceParser.NO_PRICE) {
+            assertThat(BrazilianPriceParser.parseMoney(text)).isNull();
+            assertThat(BrazilianPriceParser.parse(text)).isNull();
+        } else {
+            assertThat(BrazilianPriceParser.parseMoney(text)).isEqualTo(Money.ofCents(expectedCents));
+            assertThat(BrazilianPriceParser.parse(text)).isEqualByComparingTo(BigDecimal.valueOf(expectedCents, 2));
+        }
+    }
+
+    @Test
+    void nullHasNoPrice() {
+        assertThat(BrazilianPriceParser.parseCents(null)).isEqualTo(BrazilianPriceParser.NO_PRICE);
+        assertThat(BrazilianPriceParser.parseMoney(null)).isNull();
+    }
+}
@@ -0,0 +1,64 @@
+package org.custobaixo.service;
+
+import org.custobaixo.config.SchedulerProperties;
+import org.custobaixo.entity.ProductCategory;
+import org.custobaixo.entity.ProductMonitor;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CheckIntervalPolicyTest {
+
+    private static final LocalDateTime CHECKED_AT = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    private final SchedulerProperties properties = new SchedulerProperties();
+    private final CheckIntervalPolicy policy = new CheckIntervalPolicy(properties);
+
+    @Test
+    void stableProductFarFromTargetKeepsTheAdaptiveInterval() {
+        ProductMonitor product = product(ProductCategory.LIVROS, "200.00", "100.00");
+
+        assertThat(nextInterval(product)).isEqualTo(Duration.ofHours(1));
+    }
+
+    @Test
+    void productNearTargetIsScaledByDistanceInAnyCategory() {
+        ProductMonitor product = product(ProductCategory.LIVROS, "125.00", "100.00");
+
+        assertThat(nextInterval(product)).isEqualTo(Duration.ofMinutes(30));
+        assertThat(product.getCheckIntervalSeconds()).isEqualTo(Duration.ofHours(1).toSeconds());
+    }
+
+    @Test
+    void productAtTargetFallsToTheMinimumInterval() {
+        ProductMonitor product = product(ProductCategory.ROUPAS, "100.00", "100.00");
+
+        assertThat(nextInterval(product)).isEqualTo(properties.getMinInterval());
+    }
+
+    @Test
+    void criticalIntervalBelowTheMinimumIsClampedToTheMinimum() {
+        properties.setCriticalInterval(Duration.ofSeconds(30));
+        ProductMonitor product = product(ProductCategory.PASSAGENS_AEREAS, "900.00", "300.00");
+
+        assertThat(nextInterval(product)).isEqualTo(properties.getMinInterval());
+    }
+
+    private Duration nextInterval(ProductMonitor product) {
+        return Duration.between(CHECKED_AT, policy.nextCheckAt(product, CHECKED_AT, false));
+    }
+
+    // Intervalo atual de 40 min: com o preço estável, cresce para 1 h antes da proximidade do alvo
+    private static ProductMonitor product(ProductCategory category, String currentPrice, String targetPrice) {
+        return ProductMonitor.builder()
+                .category(category)
+                .currentPrice(new BigDecimal(currentPrice))
+                .targetPrice(new BigDecimal(targetPrice))
+                .checkIntervalSeconds(Duration.ofMinutes(40).toSeconds())
+                .build();
+    }
+}
@@ -0,0 +1,166 @@
+package org.custobaixo.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.custobaixo.config.HttpClientProperties;
+import org.custobaixo.config.RateLimitProperties;
+import org.jsoup.HttpStatusException;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PageFetcherTest {
+
+    private static final Duration TIMEOUT = Duration.ofMillis(500);
+
+    private HttpServer server;
+    private ExecutorService serverThreads;
+    private PageFetcher fetcher;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        serverThreads = Executors.newCachedThreadPool();
+        server.setExecutor(serverThreads);
+
+        server.createContext("/produto", exchange ->
+                respond(exchange, 200, "<html><head><title>Produto</title></head><body>R$ 10,00</body></html>"));
+        server.createContext("/inexistente", exchange -> respond(exchange, 404, "não encontrado"));
+        // Cabeçalhos na hora, corpo que nunca termina de chegar
+        server.createContext("/corpo-lento", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "text/html; charset=utf-8");
+            exchange.sendResponseHeaders(200, 0);
+            OutputStream body = exchange.getResponseBody();
+            body.write("<html><body>".getBytes(StandardCharsets.UTF_8));
+            body.flush();
+            sleepQuietly(10_000);
+            exchange.close();
+        });
+        server.createContext("/cabecalho-lento", exchange -> {
+            sleepQuietly(10_000);
+            respond(exchange, 200, "<html></html>");
+        });
+        server.start();
+
+        RateLimitProperties rateLimits = new RateLimitProperties();
+        rateLimits.setDefaultBudget(new RateLimitProperties.Budget(1000, 100));
+        HttpClientProperties httpProperties = new HttpClientProperties();
+        httpProperties.setHttp2Enabled(false);
+        fetcher = new PageFetcher(new DomainRateLimiter(rateLimits), httpProperties);
+    }
+
+    @AfterEach
+    void stopServer() {
+        fetcher.shutdown();
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    @Test
+    void parsesPageWhenJsoupClosesTheBody() throws IOException {
+        Document document = fetcher.fetch(url("/produto"), TIMEOUT);
+
+        assertThat(document.title()).isEqualTo("Produto");
+        assertThat(fetcher.getStats().getFailedRequests()).isZero();
+        assertThat(fetcher.getStats().getEarlyClosedResponses()).isZero();
+    }
+
+    @Test
+    void readerThatStopsEarlyIsCountedAsEarlyClose() throws IOException {
+        PageFetcher.EarlyStop stop = fetcher.fetchStreaming(url("/produto"), TIMEOUT, (body, charset, baseUri) -> {
+            body.read();
+            return () -> true;
+        });
+
+        assertThat(stop.stoppedEarly()).isTrue();
+        assertThat(fetcher.getStats().getEarlyClosedResponses()).isEqualTo(1);
+    }
+
+    @Test
+    void readerThatStopsEarlyOnSlowBodyReturnsWithoutWaitingForTheDeadline() throws IOException {
+        long start = System.nanoTime();
+
+        PageFetcher.EarlyStop stop = fetcher.fetchStreaming(url("/corpo-lento"), Duration.ofSeconds(5),
+                (body, charset, baseUri) -> {
+                    body.read();
+                    return () -> true;
+                });
+
+        assertThat(stop.stoppedEarly()).isTrue();
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+        assertThat(fetcher.getStats().getFailedRequests()).isZero();
+    }
+
+    @Test
+    void statusAbove400BecomesHttpStatusException() {
+        assertThatThrownBy(() -> fetcher.fetch(url("/inexistente"), TIMEOUT))
+                .isInstanceOfSatisfying(HttpStatusException.class, e -> assertThat(e.getStatusCode()).isEqualTo(404));
+    }
+
+    @Test
+    void bodyThatNeverFinishesFailsAtTheTotalDeadline() {
+        long start = System.nanoTime();
+
+        assertThatThrownBy(() -> fetcher.fetchStreaming(url("/corpo-lento"), TIMEOUT,
+                (body, charset, baseUri) -> new String(body.readAllBytes(), StandardCharsets.UTF_8)))
+                .isInstanceOf(HttpTimeoutException.class);
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(3));
+        assertThat(fetcher.getStats().getFailedRequests()).isEqualTo(1);
+    }
+
+    @Test
+    void readerThatSwallowsTheClosedBodyStillTimesOut() {
+        assertThatThrownBy(() -> fetcher.fetchStreaming(url("/corpo-lento"), TIMEOUT, (body, charset, baseUri) -> {
+            try {
+                return new String(body.readAllBytes(), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                return "página cortada";
+            }
+        })).isInstanceOf(HttpTimeoutException.class);
+    }
+
+    @Test
+    void headersThatNeverArriveFailAtTheTotalDeadline() {
+        long start = System.nanoTime();
+
+        assertThatThrownBy(() -> fetcher.fetch(url("/cabecalho-lento"), TIMEOUT))
+                .isInstanceOf(HttpTimeoutException.class);
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(3));
+    }
+
+    private String url(String path) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "text/html; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
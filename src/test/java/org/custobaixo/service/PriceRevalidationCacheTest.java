@@ -0,0 +1,130 @@
+package org.custobaixo.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.custobaixo.config.HttpClientProperties;
+import org.custobaixo.config.RateLimitProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PriceRevalidationCacheTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(2);
+
+    private HttpServer server;
+    private PageFetcher fetcher;
+    private PriceRevalidationCache cache;
+
+    // Página servida agora: ETag e preço podem mudar entre as verificações
+    private volatile String currentEtag = "\"v1\"";
+    private volatile String currentPrice = "R$ 1.299,90";
+    private final List<String> receivedEtags = new CopyOnWriteArrayList<>();
+    private final AtomicInteger parsedBodies = new AtomicInteger();
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/produto", this::serveProduct);
+        server.start();
+
+        RateLimitProperties rateLimits = new RateLimitProperties();
+        rateLimits.setDefaultBudget(new RateLimitProperties.Budget(1000, 100));
+        HttpClientProperties httpProperties = new HttpClientProperties();
+        httpProperties.setHttp2Enabled(false);
+        fetcher = new PageFetcher(new DomainRateLimiter(rateLimits), httpProperties);
+        cache = new PriceRevalidationCache(fetcher, httpProperties);
+    }
+
+    @AfterEach
+    void stopServer() {
+        fetcher.shutdown();
+        server.stop(0);
+    }
+
+    @Test
+    void notModifiedServesCachedPriceWithoutParsingTheBodyAgain() throws IOException {
+        BigDecimal first = cache.fetchPrice(url(), TIMEOUT, this::readPrice);
+        BigDecimal second = cache.fetchPrice(url(), TIMEOUT, this::readPrice);
+
+        assertThat(first).isEqualByComparingTo("1299.90");
+        assertThat(second).isEqualByComparingTo("1299.90");
+        assertThat(parsedBodies).hasValue(1);
+        assertThat(receivedEtags).containsExactly("", "\"v1\"");
+
+        assertThat(cache.getStats().getNotModifiedHits()).isEqualTo(1);
+        assertThat(cache.getStats().getBytesSaved()).isEqualTo(page().length);
+    }
+
+    @Test
+    void changedPageIsParsedAgainAndReplacesTheCachedPrice() throws IOException {
+        cache.fetchPrice(url(), TIMEOUT, this::readPrice);
+
+        currentEtag = "\"v2\"";
+        currentPrice = "R$ 999,00";
+        BigDecimal changed = cache.fetchPrice(url(), TIMEOUT, this::readPrice);
+        BigDecimal revalidated = cache.fetchPrice(url(), TIMEOUT, this::readPrice);
+
+        assertThat(changed).isEqualByComparingTo("999.00");
+        assertThat(revalidated).isEqualByComparingTo("999.00");
+        assertThat(parsedBodies).hasValue(2);
+        assertThat(receivedEtags).containsExactly("", "\"v1\"", "\"v2\"");
+    }
+
+    @Test
+    void pageWithoutPriceIsNotCached() throws IOException {
+        currentPrice = "Indisponível";
+
+        assertThat(cache.fetchPrice(url(), TIMEOUT, this::readPrice)).isNull();
+        assertThat(cache.fetchPrice(url(), TIMEOUT, this::readPrice)).isNull();
+
+        assertThat(receivedEtags).containsExactly("", "");
+        assertThat(cache.getStats().getCachedUrls()).isZero();
+    }
+
+    private StreamingPriceExtractor.Result readPrice(InputStream body, String charset, String baseUri) throws IOException {
+        parsedBodies.incrementAndGet();
+        return StreamingPriceExtractor.compile(".price").extract(body, charset, baseUri, BrazilianPriceParser::parse);
+    }
+
+    private void serveProduct(HttpExchange exchange) throws IOException {
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        receivedEtags.add(ifNoneMatch == null ? "" : ifNoneMatch);
+
+        exchange.getResponseHeaders().add("ETag", currentEtag);
+        if (currentEtag.equals(ifNoneMatch)) {
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+
+        byte[] bytes = page();
+        exchange.getResponseHeaders().add("Content-Type", "text/html; charset=utf-8");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private byte[] page() {
+        return ("<html><body><span class=\"price\">" + currentPrice + "</span></body></html>")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    private String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/produto";
+    }
+}
@@ -0,0 +1,71 @@
+package org.custobaixo.service;
+
+import org.custobaixo.model.Money;
+import org.custobaixo.model.ProductData;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchStateExtractorTest {
+
+    private static final String MERCADO_LIVRE_STATE = """
+            window.__PRELOADED_STATE__ = {"pageState":{"initialState":{"results":[
+              {"polycard":{"metadata":{"url":"produto.mercadolivre.com.br/MLB-1"},
+                "components":[{"type":"title","title":{"text":"Notebook Gamer"}},
+                  {"type":"price","price":{"current_price":{"value":4599.9,"currency":"BRL"}}}]}}
+            ]}}};
+            """;
+
+    @Test
+    void readsMercadoLivrePolycards() {
+        List<ProductData> products = SearchStateExtractor.extract("MERCADO_LIVRE", page(MERCADO_LIVRE_STATE));
+
+        assertThat(products).containsExactly(new ProductData("Notebook Gamer", Money.ofCents(459990),
+                "https://produto.mercadolivre.com.br/MLB-1"));
+    }
+
+    @Test
+    void skipsCandidatesThatAreNotJsonAndKeepsLookingInLaterScripts() {
+        Document document = page(
+                "if (window.__PRELOADED_STATE__) { track(window.__PRELOADED_STATE__.page); }",
+                "window.__PRELOADED_STATE__ = {render: function () { return 1; }};",
+                MERCADO_LIVRE_STATE);
+
+        assertThat(SearchStateExtractor.extract("MERCADO_LIVRE", document))
+                .extracting(ProductData::name)
+                .containsExactly("Notebook Gamer");
+    }
+
+    @Test
+    void fallsBackToInlineScriptWhenScriptByIdIsBroken() {
+        Document document = Jsoup.parse("<html><body>"
+                + "<script id=\"__NEXT_DATA__\" type=\"application/json\">{\"props\": </script>"
+                + "<script>self.__NEXT_DATA__ = {\"props\":{\"pageProps\":{\"data\":"
+                + "\"{\\\"catalogServer\\\":{\\\"data\\\":[{\\\"code\\\":123,\\\"name\\\":\\\"SSD 1TB\\\","
+                + "\\\"friendlyName\\\":\\\"ssd-1tb\\\",\\\"price\\\":499.9,\\\"priceWithDiscount\\\":449.91}]}}\"}}};"
+                + "</script></body></html>");
+
+        assertThat(SearchStateExtractor.extract("KABUM", document)).containsExactly(new ProductData("SSD 1TB",
+                Money.ofCents(44991), "https://www.kabum.com.br/produto/123/ssd-1tb"));
+    }
+
+    @Test
+    void returnsEmptyWhenNoCandidateParses() {
+        Document document = page("window.__PRELOADED_STATE__ = {broken: ");
+
+        assertThat(SearchStateExtractor.extract("MERCADO_LIVRE", document)).isEmpty();
+        assertThat(SearchStateExtractor.extract("AMAZON", document)).isEmpty();
+    }
+
+    private static Document page(String... scripts) {
+        StringBuilder html = new StringBuilder("<html><body>");
+        for (String script : scripts) {
+            html.append("<script>").append(script).append("</script>");
+        }
+        return Jsoup.parse(html.append("</body></html>").toString());
+    }
+}
@@ -0,0 +1,134 @@
+package org.custobaixo.service;
+
+import org.custobaixo.config.SelectorRankingProperties;
+import org.custobaixo.repository.SelectorStatRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+class SelectorRankingTest {
+
+    private static final String[] PRICE_SELECTORS = {
+            ".andes-money-amount__fraction", ".price-tag-fraction", ".andes-money-amount__cents", ".price-tag"
+    };
+
+    private final SelectorStatRepository repository = mock(SelectorStatRepository.class);
+    private final SelectorRanking ranking = newRanking(repository, 0.0);
+
+    @AfterEach
+    void shutdown() {
+        ranking.shutdown();
+    }
+
+    @Test
+    void orderPutsTheSelectorWithMoreHitsFirst() {
+        for (int i = 0; i < 10; i++) {
+            ranking.recordMiss("mercadolivre.com.br", "h2");
+            ranking.recordHit("mercadolivre.com.br", ".poly-component__title");
+        }
+
+        assertThat(ranking.order("mercadolivre.com.br", "h2", ".poly-component__title"))
+                .containsExactly(".poly-component__title", "h2");
+    }
+
+    @Test
+    void pricePlanKeepsTheDeclaredPriorityWhateverTheHistory() {
+        for (int i = 0; i < 50; i++) {
+            ranking.recordMiss("mercadolivre.com.br", ".andes-money-amount__fraction");
+            ranking.recordHit("mercadolivre.com.br", ".andes-money-amount__cents");
+        }
+
+        assertThat(ranking.pricePlan(PRICE_SELECTORS).order()).containsExactly(PRICE_SELECTORS);
+    }
+
+    @Test
+    void pricePlanNeverExplores() {
+        SelectorRanking alwaysExploring = newRanking(mock(SelectorStatRepository.class), 1.0);
+        try {
+            for (int i = 0; i < 100; i++) {
+                assertThat(alwaysExploring.pricePlan(PRICE_SELECTORS).order()).containsExactly(PRICE_SELECTORS);
+            }
+            assertThat(alwaysExploring.getStats().getExplorations()).isZero();
+        } finally {
+            alwaysExploring.shutdown();
+        }
+    }
+
+    @Test
+    void genericCascadeIsRankedPerSiteAfterTheStoreFallbacks() {
+        String[] store = {".priceCard", ".oldPriceCard"};
+        String[] generic = {".price", ".valor", ".preco"};
+        for (int i = 0; i < 10; i++) {
+            ranking.recordMiss("netshoes.com.br", ".price");
+            ranking.recordHit("netshoes.com.br", ".preco");
+        }
+
+        assertThat(ranking.pricePlan("netshoes.com.br", store, generic).order())
+                .containsExactly(".priceCard", ".oldPriceCard", ".preco", ".valor", ".price");
+        assertThat(ranking.pricePlan("kabum.com.br", store, generic).order())
+                .containsExactly(".priceCard", ".oldPriceCard", ".price", ".valor", ".preco");
+    }
+
+    @Test
+    void explorationOnlyMovesGenericSelectors() {
+        SelectorRanking alwaysExploring = newRanking(mock(SelectorStatRepository.class), 1.0);
+        try {
+            for (int i = 0; i < 20; i++) {
+                assertThat(alwaysExploring.pricePlan("kabum.com.br", new String[]{".priceCard", ".oldPriceCard"},
+                        new String[]{".price", ".valor"}).order())
+                        .containsExactly(".priceCard", ".oldPriceCard", ".valor", ".price");
+            }
+            assertThat(alwaysExploring.getStats().getExplorations()).isEqualTo(20);
+        } finally {
+            alwaysExploring.shutdown();
+        }
+    }
+
+    @Test
+    void flushSendsOnlyTheCountsAccumulatedSinceTheLastWrite() {
+        ranking.recordHit("kabum.com.br", ".priceCard");
+        ranking.recordMiss("kabum.com.br", ".priceCard");
+        ranking.flush();
+
+        ranking.recordHit("kabum.com.br", ".priceCard");
+        ranking.flush();
+        ranking.flush();
+
+        InOrder inOrder = inOrder(repository);
+        inOrder.verify(repository).addCounts("kabum.com.br", ".priceCard", 1, 2, 1000);
+        inOrder.verify(repository).addCounts("kabum.com.br", ".priceCard", 1, 1, 1000);
+        verifyNoMoreInteractions(repository);
+    }
+
+    @Test
+    void failedWriteKeepsTheDeltaForTheNextFlush() {
+        doThrow(new IllegalStateException("banco fora do ar")).doNothing()
+                .when(repository).addCounts(anyString(), anyString(), anyLong(), anyLong(), anyLong());
+
+        ranking.recordHit("kabum.com.br", ".priceCard");
+        assertThatThrownBy(ranking::flush).isInstanceOf(IllegalStateException.class);
+        assertThat(ranking.getStats().getPendingWrites()).isEqualTo(1);
+
+        ranking.recordMiss("kabum.com.br", ".priceCard");
+        ranking.flush();
+
+        verify(repository).addCounts("kabum.com.br", ".priceCard", 1, 2, 1000);
+        assertThat(ranking.getStats().getPendingWrites()).isZero();
+    }
+
+    private static SelectorRanking newRanking(SelectorStatRepository repository, double explorationRate) {
+        SelectorRankingProperties properties = new SelectorRankingProperties();
+        properties.setExplorationRate(explorationRate);
+        return new SelectorRanking(repository, properties);
+    }
+}
@@ -0,0 +1,29 @@
+package org.custobaixo.service;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SiteDomainsTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            "https://www.amazon.com.br/dp/B0ABC, amazon.com.br",
+            "https://amazon.com.br/dp/B0ABC, amazon.com.br",
+            "https://produto.mercadolivre.com.br/MLB-123, mercadolivre.com.br",
+            "https://www.kabum.com.br:443/produto/1, kabum.com.br",
+            "https://fakeamazon.com.br/dp/B0ABC, fakeamazon.com.br",
+            "https://amazon.com.br.golpe.com/dp/B0ABC, amazon.com.br.golpe.com",
+            "https://www.magazineluiza.com.br/p/1, magazineluiza.com.br"
+    })
+    void resolveMatchesOnlyWholeDomainLabels(String url, String expected) {
+        assertThat(SiteDomains.resolve(url)).isEqualTo(expected);
+    }
+
+    @ParameterizedTest
+    @CsvSource(value = {"NULL", "''", "https://"}, nullValues = "NULL")
+    void resolveReturnsUnknownWithoutHost(String url) {
+        assertThat(SiteDomains.resolve(url)).isEqualTo(SiteDomains.UNKNOWN);
+    }
+}
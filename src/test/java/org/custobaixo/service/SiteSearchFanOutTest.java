@@ -0,0 +1,115 @@
+package org.custobaixo.service;
+
+import org.custobaixo.config.SiteSearchProperties;
+import org.custobaixo.dto.SiteSearchTiming;
+import org.custobaixo.model.SiteConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SiteSearchFanOutTest {
+
+    private SiteSearchFanOut fanOut;
+
+    @AfterEach
+    void shutdown() {
+        fanOut.shutdown();
+    }
+
+    @Test
+    void returnsSitesThatAnsweredAndCancelsTheLateOnes() throws Exception {
+        fanOut = newFanOut(4, 4, Duration.ofMillis(300));
+        CountDownLatch lateInterrupted = new CountDownLatch(1);
+
+        SiteSearchFanOut.Result<String> result = fanOut.searchAll(sites("KABUM", "AMAZON"), site -> {
+            if (site.name.equals("AMAZON")) {
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException e) {
+                    lateInterrupted.countDown();
+                    throw new IllegalStateException("interrompida", e);
+                }
+            }
+            return List.of(site.name + "-1");
+        });
+
+        assertThat(result.results()).containsExactly("KABUM-1");
+        assertThat(result.timedOutSites()).containsExactly("AMAZON");
+        assertThat(result.isPartial()).isTrue();
+        assertThat(result.timings()).extracting(SiteSearchTiming::getStatus).containsExactly("FOUND", "TIMEOUT");
+        assertThat(lateInterrupted.await(2, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void lateSearchesDoNotHoldThePoolForTheNextRequest() {
+        fanOut = newFanOut(1, 1, Duration.ofMillis(200));
+
+        fanOut.searchAll(sites("AMAZON"), site -> {
+            sleepUninterruptibly(50);
+            while (!Thread.currentThread().isInterrupted()) {
+                Thread.onSpinWait();
+            }
+            return List.of("atrasado");
+        });
+        SiteSearchFanOut.Result<String> next = fanOut.searchAll(sites("KABUM"), site -> List.of("KABUM-1"));
+
+        assertThat(next.results()).containsExactly("KABUM-1");
+        assertThat(next.isPartial()).isFalse();
+    }
+
+    @Test
+    void rejectsSitesWhenPoolAndQueueAreFull() {
+        fanOut = newFanOut(1, 1, Duration.ofMillis(300));
+        CountDownLatch release = new CountDownLatch(1);
+
+        SiteSearchFanOut.Result<String> result = fanOut.searchAll(sites("AMAZON", "KABUM", "NETSHOES"), site -> {
+            awaitUninterruptibly(release, site.name.equals("AMAZON") ? 50 : 0);
+            return List.of(site.name + "-1");
+        });
+        release.countDown();
+
+        assertThat(result.timings()).extracting(SiteSearchTiming::getStatus)
+                .containsExactly("FOUND", "FOUND", "REJECTED");
+        assertThat(result.timedOutSites()).containsExactly("NETSHOES");
+        assertThat(result.results()).containsExactly("AMAZON-1", "KABUM-1");
+    }
+
+    private static SiteSearchFanOut newFanOut(int maxConcurrency, int queueCapacity, Duration deadline) {
+        SiteSearchProperties properties = new SiteSearchProperties();
+        properties.setMaxConcurrency(maxConcurrency);
+        properties.setQueueCapacity(queueCapacity);
+        properties.setDeadline(deadline);
+        return new SiteSearchFanOut(properties);
+    }
+
+    private static List<SiteConfig> sites(String... names) {
+        return Arrays.stream(names).map(name -> {
+            SiteConfig site = new SiteConfig();
+            site.name = name;
+            return site;
+        }).toList();
+    }
+
+    private static void sleepUninterruptibly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch, long millis) {
+        try {
+            latch.await(millis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
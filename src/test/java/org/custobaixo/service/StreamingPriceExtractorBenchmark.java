@@ -0,0 +1,86 @@
+package org.custobaixo.service;
+
+import org.custobaixo.support.TimingHarness;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Página de produto de ~250 KB com o preço no início: leitura em fluxo com parada antecipada
+// contra o caminho antigo (Document inteiro + selectFirst em cada seletor da cascata)
+@EnabledIfSystemProperty(named = TimingHarness.ENABLED_PROPERTY, matches = "true")
+class StreamingPriceExtractorBenchmark {
+
+    private static final String[] PRICE_SELECTORS = {
+            ".a-price-whole", ".a-price .a-offscreen", ".a-price-range .a-price-whole", ".a-price .a-text-price"
+    };
+
+    private static final byte[] PAGE = productPage().getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void streamingVersusFullDocument() {
+        StreamingPriceExtractor extractor = StreamingPriceExtractor.compile(PRICE_SELECTORS);
+        assertThat(streamingPrice(extractor)).isEqualByComparingTo(fullDocumentPrice());
+
+        TimingHarness.Result streaming = TimingHarness.measure("StreamingPriceExtractor (" + PAGE.length / 1024 + " KB)", 50,
+                () -> streamingPrice(extractor).unscaledValue().longValue());
+        TimingHarness.Result fullDocument = TimingHarness.measure("Jsoup.parse + selectFirst", 50,
+                () -> fullDocumentPrice().unscaledValue().longValue());
+
+        assertThat(streaming.medianNanos()).isPositive();
+        assertThat(fullDocument.medianNanos()).isPositive();
+    }
+
+    private static BigDecimal streamingPrice(StreamingPriceExtractor extractor) {
+        try {
+            return extractor.extract(new ByteArrayInputStream(PAGE), "UTF-8", "https://www.amazon.com.br/dp/B0TESTE",
+                    BrazilianPriceParser::parse).price();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static BigDecimal fullDocumentPrice() {
+        try {
+            Document document = Jsoup.parse(new ByteArrayInputStream(PAGE), "UTF-8", "https://www.amazon.com.br/dp/B0TESTE");
+            for (String selector : PRICE_SELECTORS) {
+                Element element = document.selectFirst(selector);
+                BigDecimal price = element == null ? null : BrazilianPriceParser.parse(element.text());
+                if (price != null) {
+                    return price;
+                }
+            }
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String productPage() {
+        StringBuilder html = new StringBuilder("<!DOCTYPE html><html><head><title>Produto</title>");
+        html.append("<style>.a-price{color:#b12704}</style></head><body><div id=\"nav\">");
+        for (int i = 0; i < 40; i++) {
+            html.append("<a href=\"/categoria/").append(i).append("\">Categoria ").append(i).append("</a>");
+        }
+        html.append("</div><div id=\"centerCol\"><h1 id=\"title\">Notebook Gamer 16GB RAM SSD 512GB</h1>")
+                .append("<div class=\"a-price\"><span class=\"a-offscreen\">R$ 4.599,90</span>")
+                .append("<span class=\"a-price-whole\">4.599,</span><span class=\"a-price-fraction\">90</span></div></div>");
+        for (int i = 0; html.length() < 250_000; i++) {
+            html.append("<div class=\"recomendacao\"><a href=\"/dp/B0").append(i).append("\"><img src=\"/img/")
+                    .append(i).append(".jpg\" alt=\"Produto relacionado ").append(i).append("\"><span>Produto relacionado ")
+                    .append(i).append("</span></a><div class=\"a-price\"><span class=\"a-offscreen\">R$ ")
+                    .append(100 + i).append(",00</span></div><p>Avaliação de clientes e descrição longa do item ")
+                    .append(i).append(".</p></div>");
+        }
+        return html.append("</body></html>").toString();
+    }
+}
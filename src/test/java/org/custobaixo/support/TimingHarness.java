@@ -0,0 +1,69 @@
+package org.custobaixo.support;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.function.LongSupplier;
+
+// Medição repetível para os benchmarks de src/test (sem JMH no build offline).
+// Cada rodada executa a operação N vezes; as rodadas de aquecimento deixam o JIT compilar o
+// caminho quente e só as rodadas medidas entram na mediana. Os bytes alocados por operação vêm
+// do contador da própria thread (ThreadMXBean), somados sobre as rodadas medidas. O resultado de cada chamada é
+// somado num acumulador devolvido ao chamador, para o JIT não eliminar o trabalho medido.
+//
+// As classes *Benchmark ficam fora do mvn test normal (padrão de nomes do surefire e a
+// propriedade abaixo). Rodar com: mvn -B test -Dcustobaixo.benchmark=true -Dtest='*Benchmark'
+public final class TimingHarness {
+
+    public static final String ENABLED_PROPERTY = "custobaixo.benchmark";
+
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 10;
+
+    private TimingHarness() {
+    }
+
+    public static Result measure(String name, int operationsPerRound, LongSupplier operation) {
+        long sink = 0;
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            sink += runRound(operationsPerRound, operation);
+        }
+
+        double[] nanosPerOp = new double[MEASURED_ROUNDS];
+        long allocatedBefore = allocatedBytes();
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            long start = System.nanoTime();
+            sink += runRound(operationsPerRound, operation);
+            nanosPerOp[round] = (double) (System.nanoTime() - start) / operationsPerRound;
+        }
+        double bytesPerOp = (double) (allocatedBytes() - allocatedBefore) / ((long) MEASURED_ROUNDS * operationsPerRound);
+
+        Arrays.sort(nanosPerOp);
+        Result result = new Result(name, nanosPerOp[MEASURED_ROUNDS / 2], nanosPerOp[0],
+                nanosPerOp[MEASURED_ROUNDS - 1], bytesPerOp, sink);
+        System.out.println(result);
+        return result;
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+    }
+
+    private static long runRound(int operations, LongSupplier operation) {
+        long sink = 0;
+        for (int i = 0; i < operations; i++) {
+            sink += operation.getAsLong();
+        }
+        return sink;
+    }
+
+    public record Result(String name, double medianNanos, double minNanos, double maxNanos,
+                         double allocatedBytesPerOp, long sink) {
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "[benchmark] %-45s mediana %,10.1f ns/op (min %,.1f, max %,.1f) %,10.1f B/op",
+                    name, medianNanos, minNanos, maxNanos, allocatedBytesPerOp);
+        }
+    }
+}